@@ -0,0 +1,93 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.example.index.ColumnarClassDiagram;
+import org.eclipse.emf.example.models._class.ClassAttribute;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.reader.diagram.StreamingClassDiagramReader;
+import org.eclipse.emf.example.util.StringPool;
+
+import java.io.File;
+
+/**
+ * Compares the heap retained by the class diagram of a model and by its {@link ColumnarClassDiagram}
+ * and times a scan over every attribute in both forms. Usage: {@code ColumnarBenchmark [model file] [copies]}.
+ */
+public class ColumnarBenchmark {
+
+    private static final int SCANS = 1000;
+
+    private static Object[] retained;
+
+    public static void main(String args[]) throws Exception {
+        File model = new File(args.length > 0 ? args[0] : "src/main/resources/model/UML.uml");
+        int copies = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        ClassDiagram classDiagram = StreamingClassDiagramReader.getRefModelDetails(model, new StringPool());
+        ColumnarClassDiagram columnar = ColumnarClassDiagram.of(classDiagram);
+
+        retained = new Object[copies];
+        long before = LoadBenchmark.usedHeap();
+        for (int i = 0; i < copies; i++) {
+            retained[i] = StreamingClassDiagramReader.getRefModelDetails(model, new StringPool());
+        }
+        long objects = (LoadBenchmark.usedHeap() - before) / copies;
+        retained = new Object[copies];
+        before = LoadBenchmark.usedHeap();
+        for (int i = 0; i < copies; i++) {
+            retained[i] = ColumnarClassDiagram.of(classDiagram);
+        }
+        long columns = (LoadBenchmark.usedHeap() - before) / copies;
+        retained = null;
+        System.out.printf("%d classes, %d attributes, %d operations, %d relations%n", columnar.getClassCount(),
+                columnar.getAttributeCount(), columnar.getOperationCount(), columnar.getRelationCount());
+        System.out.printf("objects  %8d KB%ncolumnar %8d KB (%.0f%%)%n", objects / 1024, columns / 1024,
+                objects > 0 ? 100.0 * columns / objects : 0.0);
+
+        // warm up both scans before timing them
+        scan(classDiagram);
+        scan(columnar);
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < SCANS; i++) {
+            found += scan(classDiagram);
+        }
+        long objectNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < SCANS; i++) {
+            found -= scan(columnar);
+        }
+        long columnarNanos = System.nanoTime() - start;
+        if (found != 0) {
+            throw new IllegalStateException("Scans over " + model + " disagree");
+        }
+        System.out.printf("scan     objects %8.1f us columnar %8.1f us%n",
+                objectNanos / 1e3 / SCANS, columnarNanos / 1e3 / SCANS);
+    }
+
+    /**
+     * @return the number of collection attributes typed by a class
+     */
+    private static int scan(ClassDiagram classDiagram) {
+        int count = 0;
+        for (ClassStructure classStructure : classDiagram.getClasses()) {
+            for (ClassAttribute attribute : classStructure.getAttributes()) {
+                if (attribute.isClass() && attribute.isCollection()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int scan(ColumnarClassDiagram columnar) {
+        int count = 0;
+        int flags = ColumnarClassDiagram.CLASS | ColumnarClassDiagram.COLLECTION;
+        for (int attribute = 0; attribute < columnar.getAttributeCount(); attribute++) {
+            if ((columnar.getAttributeFlags(attribute) & flags) == flags) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
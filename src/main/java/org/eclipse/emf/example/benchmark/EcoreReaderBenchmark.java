@@ -0,0 +1,90 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.reader.diagram.ClassDiagramReader;
+import org.eclipse.emf.example.reader.diagram.EcoreClassDiagramReader;
+import org.eclipse.emf.example.util.ConvertProperties;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.util.UMLUtil;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Compares reading the class diagram of an Ecore model through the UML conversion with
+ * {@link EcoreClassDiagramReader}, reporting time and retained heap per read and the extracted counts.
+ * Without a model file, the bundled UML metamodel is converted to Ecore and used.
+ * Usage: {@code EcoreReaderBenchmark [ecore file] [iterations]}.
+ */
+public class EcoreReaderBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        File model = args.length > 0 ? new File(args[0]) : createEcoreModel(new File("src/main/resources/model/UML.uml"));
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        ModelLoader modelLoader = new ModelLoader();
+        ClassDiagram converted = ClassDiagramReader.getRefModelDetails(modelLoader.loadModel(model));
+        ClassDiagram direct = EcoreClassDiagramReader.getRefModelDetails(modelLoader.loadEcorePackage(model));
+        System.out.println("conversion: " + summary(converted));
+        System.out.println("direct:     " + summary(direct));
+
+        long totalNanos = 0;
+        long heapBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long heapBefore = LoadBenchmark.usedHeap();
+            long start = System.nanoTime();
+            Package _package = modelLoader.loadModel(model);
+            ClassDiagram classDiagram = ClassDiagramReader.getRefModelDetails(_package);
+            totalNanos += System.nanoTime() - start;
+            heapBytes += LoadBenchmark.usedHeap() - heapBefore;
+            modelLoader.release(_package);
+            classDiagram.getClasses().clear();
+        }
+        report("conversion", totalNanos, heapBytes, iterations);
+
+        totalNanos = 0;
+        heapBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long heapBefore = LoadBenchmark.usedHeap();
+            long start = System.nanoTime();
+            EPackage ePackage = modelLoader.loadEcorePackage(model);
+            ClassDiagram classDiagram = EcoreClassDiagramReader.getRefModelDetails(ePackage);
+            totalNanos += System.nanoTime() - start;
+            heapBytes += LoadBenchmark.usedHeap() - heapBefore;
+            modelLoader.release(ePackage);
+            classDiagram.getClasses().clear();
+        }
+        report("direct", totalNanos, heapBytes, iterations);
+    }
+
+    private static void report(String name, long totalNanos, long heapBytes, int iterations) {
+        System.out.printf("%-10s %8.1f ms/read %10d KB retained/read%n", name,
+                totalNanos / 1e6 / iterations, heapBytes / 1024 / iterations);
+    }
+
+    private static String summary(ClassDiagram classDiagram) {
+        if (classDiagram == null) {
+            return "no class diagram";
+        }
+        return classDiagram.getClasses().size() + " classes, " + classDiagram.getEnumerations().size() + " enumerations";
+    }
+
+    private static File createEcoreModel(File umlModel) throws Exception {
+        Package _package = new ModelLoader().loadModel(umlModel);
+        Collection<EPackage> ePackages = UMLUtil.convertToEcore(_package, ConvertProperties.optionsToProcess());
+
+        File ecoreModel = File.createTempFile(umlModel.getName(), ".ecore");
+        ecoreModel.deleteOnExit();
+        ResourceSet resourceSet = ModelLoader.createResourceSet();
+        Resource resource = resourceSet.createResource(URI.createFileURI(ecoreModel.getCanonicalPath()));
+        resource.getContents().addAll(ePackages);
+        resource.save(Collections.emptyMap());
+        return ecoreModel;
+    }
+}
@@ -0,0 +1,70 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.example.loader.BinaryResourceCache;
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.uml2.uml.Package;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Compares loading the bundled model from XMI with loading it from the binary resource
+ * cache. Usage: {@code LoadBenchmark [model file] [iterations]}.
+ */
+public class LoadBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        File model = new File(args.length > 0 ? args[0] : "src/main/resources/model/UML.uml");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        File cacheDirectory = Files.createTempDirectory("model-reader-binary").toFile();
+        BinaryResourceCache binaryResourceCache = new BinaryResourceCache(cacheDirectory);
+
+        // warm up the JIT and write the binary copy
+        load(model, null);
+        load(model, binaryResourceCache);
+
+        report("xmi", model, null, iterations);
+        report("binary", model, binaryResourceCache, iterations);
+
+        for (File file : cacheDirectory.listFiles()) {
+            System.out.println("binary copy: " + file.getName() + " (" + file.length() + " bytes, xmi "
+                    + model.length() + " bytes)");
+            file.delete();
+        }
+        cacheDirectory.delete();
+    }
+
+    private static void report(String name, File model, BinaryResourceCache binaryResourceCache, int iterations)
+            throws IOException {
+        long totalNanos = 0;
+        long heapBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+            Package _package = load(model, binaryResourceCache);
+            totalNanos += System.nanoTime() - start;
+            heapBytes += usedHeap() - heapBefore;
+            if (_package == null) {
+                throw new IllegalStateException("No package loaded from " + model);
+            }
+        }
+        System.out.printf("%-8s %8.1f ms/load %10d KB retained/load%n", name,
+                totalNanos / 1e6 / iterations, heapBytes / 1024 / iterations);
+    }
+
+    private static Package load(File model, BinaryResourceCache binaryResourceCache) throws IOException {
+        ModelLoader modelLoader = new ModelLoader();
+        modelLoader.setBinaryResourceCache(binaryResourceCache);
+        return modelLoader.loadModel(model);
+    }
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,102 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.example.loader.LoadProfile;
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.reader.diagram.ClassDiagramReader;
+import org.eclipse.uml2.uml.Package;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Loads every bundled model with every {@link LoadProfile}, checks that each profile yields
+ * the same model as {@link LoadProfile#SAFE} and reports the load times. Files the loader does not
+ * accept, such as the OMG XMI files, are skipped. Every package is released right after it is
+ * measured, so that no profile runs with the models of the ones before it on the heap.
+ * Usage: {@code LoadProfileBenchmark [model file or directory] [iterations]}.
+ */
+public class LoadProfileBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        File path = new File(args.length > 0 ? args[0] : "src/main/resources/model");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        File[] models = path.isDirectory() ? path.listFiles() : new File[]{path};
+        if (models == null) {
+            throw new IOException("Cannot list " + path);
+        }
+        Arrays.sort(models);
+
+        boolean valid = true;
+        for (File model : models) {
+            if (model.isFile()) {
+                valid &= benchmark(model, iterations);
+            }
+        }
+
+        if (!valid) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return {@code false} if a profile yields a different model than {@link LoadProfile#SAFE}
+     */
+    private static boolean benchmark(File model, int iterations) throws IOException {
+        String expected = summary(model, LoadProfile.SAFE);
+        if (expected == null) {
+            System.out.println(model.getName() + ": skipped, not a UML or Ecore model");
+            return true;
+        }
+        System.out.println(model.getName() + ":");
+
+        boolean valid = true;
+        for (LoadProfile profile : LoadProfile.values()) {
+            String actual = summary(model, profile);
+            if (!expected.equals(actual)) {
+                System.err.println(model.getName() + ": " + profile + " differs from " + LoadProfile.SAFE + ": "
+                        + actual + " vs " + expected);
+                valid = false;
+            }
+
+            long totalNanos = 0;
+            for (int i = 0; i < iterations; i++) {
+                ModelLoader modelLoader = new ModelLoader();
+                long start = System.nanoTime();
+                Package _package = modelLoader.loadModel(model, profile);
+                totalNanos += System.nanoTime() - start;
+                modelLoader.release(_package);
+            }
+            System.out.printf("  %-10s %8.1f ms/load  %s%n", profile, totalNanos / 1e6 / iterations, actual);
+        }
+        return valid;
+    }
+
+    /**
+     * @return the size of the model loaded with {@code profile}, {@code null} if the loader does not accept it
+     */
+    private static String summary(File model, LoadProfile profile) throws IOException {
+        ModelLoader modelLoader = new ModelLoader();
+        Package _package = modelLoader.loadModel(model, profile);
+        if (_package == null) {
+            return null;
+        }
+
+        try {
+            int elements = 0;
+            for (TreeIterator<EObject> iterator = _package.eAllContents(); iterator.hasNext(); iterator.next()) {
+                elements++;
+            }
+
+            ClassDiagram classDiagram = ClassDiagramReader.getRefModelDetails(_package);
+            return elements + " elements, " + classDiagram.getClasses().size() + " classes, "
+                    + classDiagram.getEnumerations().size() + " enumerations";
+        } finally {
+            modelLoader.release(_package);
+        }
+    }
+}
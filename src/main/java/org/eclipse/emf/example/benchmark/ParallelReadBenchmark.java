@@ -0,0 +1,56 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.reader.ExtractionContext;
+import org.eclipse.emf.example.reader.PackageReader;
+import org.eclipse.emf.example.reader.type.TypeResolverRegistry;
+import org.eclipse.uml2.uml.Package;
+
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares reading the package tree sequentially with reading it on a {@link ForkJoinPool}. Every read
+ * runs on a freshly loaded model, so that neither mode profits from the members UML cached for the
+ * other; the parallel reads include resolving the proxies and computing those members up front. That
+ * both modes produce the same class diagram is checked by {@code PackageReaderTest}.
+ * Usage: {@code ParallelReadBenchmark [model file] [iterations] [parallelism]}.
+ */
+public class ParallelReadBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        File model = new File(args.length > 0 ? args[0] : "src/main/resources/model/UML.uml");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        ForkJoinPool pool = args.length > 2 ? new ForkJoinPool(Integer.parseInt(args[2])) : ForkJoinPool.commonPool();
+        ModelLoader modelLoader = new ModelLoader();
+
+        long sequentialNanos = 0;
+        long parallelNanos = 0;
+        boolean readSequentially = false;
+        for (int i = 0; i < iterations; i++) {
+            Package _package = modelLoader.loadModel(model);
+            String packageName = _package.getName() != null ? _package.getName() : "";
+            long start = System.nanoTime();
+            PackageReader.readPackage(_package.getPackagedElements(), packageName);
+            sequentialNanos += System.nanoTime() - start;
+            modelLoader.release(_package);
+
+            _package = modelLoader.loadModel(model);
+            ExtractionContext context = new ExtractionContext(TypeResolverRegistry.getDefault(), true);
+            start = System.nanoTime();
+            PackageReader.readPackage(_package, packageName, pool, context);
+            parallelNanos += System.nanoTime() - start;
+            readSequentially |= context.isReadSequentially();
+            modelLoader.release(_package);
+        }
+
+        System.out.println("parallelism " + pool.getParallelism()
+                + (readSequentially ? ", model has unresolvable proxies and was read sequentially" : ""));
+        report("sequential", sequentialNanos, iterations);
+        report("parallel", parallelNanos, iterations);
+    }
+
+    private static void report(String name, long totalNanos, int iterations) {
+        System.out.printf("%-10s %8.1f ms/read%n", name, totalNanos / 1e6 / iterations);
+    }
+}
@@ -0,0 +1,65 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.reader.diagram.ClassDiagramReader;
+import org.eclipse.uml2.uml.Package;
+
+import java.io.File;
+
+/**
+ * Memory regression check for {@link ModelLoader#release(Package)}: loads, extracts and releases the
+ * same model repeatedly with one long-lived loader, the way a worker processes models, and fails
+ * when the retained heap grows across the iterations or the loader keeps resources around.
+ * Usage: {@code ReleaseBenchmark [model file] [iterations] [allowed growth in KB]}.
+ */
+public class ReleaseBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        File model = new File(args.length > 0 ? args[0] : "src/main/resources/model/UML.uml");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long allowedGrowth = (args.length > 2 ? Long.parseLong(args[2]) : 2048) * 1024;
+
+        ModelLoader modelLoader = new ModelLoader();
+
+        // the first load pulls in the UML libraries, which stay for the lifetime of the loader
+        process(modelLoader, model);
+        int baselineResources = modelLoader.getResourceSet().getResources().size();
+        long baselineHeap = LoadBenchmark.usedHeap();
+
+        for (int i = 1; i <= iterations; i++) {
+            process(modelLoader, model);
+            if (i == iterations / 2 || i == iterations) {
+                System.out.printf("%4d loads %10d KB retained%n", i, (LoadBenchmark.usedHeap() - baselineHeap) / 1024);
+            }
+        }
+
+        long growth = LoadBenchmark.usedHeap() - baselineHeap;
+        int resources = modelLoader.getResourceSet().getResources().size();
+        boolean valid = true;
+        if (growth > allowedGrowth) {
+            System.err.println("Heap grew by " + growth / 1024 + " KB over " + iterations + " loads");
+            valid = false;
+        }
+        if (resources > baselineResources) {
+            System.err.println("Loader holds " + resources + " resources, " + baselineResources + " after the first load");
+            valid = false;
+        }
+
+        if (!valid) {
+            System.exit(1);
+        }
+    }
+
+    private static void process(ModelLoader modelLoader, File model) throws Exception {
+        Package _package = modelLoader.loadModel(model);
+        if (_package == null) {
+            throw new IllegalStateException("No package loaded from " + model);
+        }
+        ClassDiagram classDiagram = ClassDiagramReader.getRefModelDetails(_package);
+        if (classDiagram == null || classDiagram.getClasses().isEmpty()) {
+            throw new IllegalStateException("No classes read from " + model);
+        }
+        modelLoader.release(_package);
+    }
+}
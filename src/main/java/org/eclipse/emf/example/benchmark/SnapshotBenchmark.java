@@ -0,0 +1,74 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.models._snapshot.ClassDiagramSnapshot;
+import org.eclipse.emf.example.models._snapshot.ClassSnapshot;
+import org.eclipse.emf.example.reader.diagram.StreamingClassDiagramReader;
+import org.eclipse.emf.example.util.StringPool;
+
+import java.io.File;
+
+/**
+ * Compares handing every request a deep copy of a class diagram with handing it the shared
+ * {@link ClassDiagramSnapshot}, and measures how much of a snapshot a re-extraction with one changed
+ * class can share. Usage: {@code SnapshotBenchmark [model file] [requests]}.
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        File model = new File(args.length > 0 ? args[0] : "src/main/resources/model/UML.uml");
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        ClassDiagram classDiagram = StreamingClassDiagramReader.getRefModelDetails(model, new StringPool());
+        ClassDiagramSnapshot snapshot = classDiagram.freeze();
+
+        // warm up, then time a request working on a deep copy against one reading the shared snapshot
+        int checksum = attributes(snapshot.toClassDiagram()) - attributes(snapshot);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            checksum += attributes(snapshot.toClassDiagram());
+        }
+        long copyNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            checksum -= attributes(snapshot);
+        }
+        long sharedNanos = System.nanoTime() - start;
+        if (checksum != 0) {
+            throw new IllegalStateException("Snapshot of " + model + " differs from its copies");
+        }
+        System.out.printf("deep copy %10.1f us/request%nshared    %10.1f us/request%n",
+                copyNanos / 1e3 / requests, sharedNanos / 1e3 / requests);
+
+        ClassDiagram reloaded = StreamingClassDiagramReader.getRefModelDetails(model, new StringPool());
+        reloaded.getClasses().get(0).setAbstract(!reloaded.getClasses().get(0).isAbstract());
+        start = System.nanoTime();
+        ClassDiagramSnapshot updated = ClassDiagramSnapshot.of(reloaded, snapshot);
+        long freezeNanos = System.nanoTime() - start;
+        int shared = 0;
+        for (ClassSnapshot classSnapshot : updated.getClasses()) {
+            if (snapshot.getClass(classSnapshot.getQualifiedName()) == classSnapshot) {
+                shared++;
+            }
+        }
+        System.out.printf("reload    %10.1f ms, %d of %d classes shared%n",
+                freezeNanos / 1e6, shared, updated.getClasses().size());
+    }
+
+    private static int attributes(ClassDiagram classDiagram) {
+        int attributes = 0;
+        for (ClassStructure classStructure : classDiagram.getClasses()) {
+            attributes += classStructure.getAttributes().size();
+        }
+        return attributes;
+    }
+
+    private static int attributes(ClassDiagramSnapshot snapshot) {
+        int attributes = 0;
+        for (ClassSnapshot classSnapshot : snapshot.getClasses()) {
+            attributes += classSnapshot.getAttributes().size();
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,41 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.example.loader.ModelLoader;
+
+import java.io.File;
+
+/**
+ * Separates the one-time {@link ModelLoader#bootstrap()} cost from the per-load cost.
+ * Run it in a fresh JVM: {@code StartupBenchmark [model file] [iterations]}.
+ */
+public class StartupBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        File model = new File(args.length > 0 ? args[0] : "src/main/resources/model/UML.uml");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        long start = System.nanoTime();
+        ModelLoader.bootstrap();
+        long bootstrapWithClassLoading = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        ModelLoader.bootstrap();
+        long secondBootstrap = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        new ModelLoader().loadModel(model);
+        long firstLoad = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            new ModelLoader().loadModel(model);
+        }
+        long perLoad = (System.nanoTime() - start) / iterations;
+
+        System.out.printf("bootstrap incl. class loading %8.1f ms%n", bootstrapWithClassLoading / 1e6);
+        System.out.printf("bootstrap registrations       %8.1f ms%n", ModelLoader.getBootstrapNanos() / 1e6);
+        System.out.printf("repeated bootstrap            %8.3f ms%n", secondBootstrap / 1e6);
+        System.out.printf("first load                    %8.1f ms%n", firstLoad / 1e6);
+        System.out.printf("later loads                   %8.1f ms/load%n", perLoad / 1e6);
+    }
+}
@@ -0,0 +1,90 @@
+package org.eclipse.emf.example.benchmark;
+
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.reader.ExtractionContext;
+import org.eclipse.emf.example.reader.PackageReader;
+import org.eclipse.emf.example.reader.diagram.ClassDiagramReader;
+import org.eclipse.emf.example.reader.diagram.StreamingClassDiagramReader;
+import org.eclipse.emf.example.reader.type.TypeResolverRegistry;
+import org.eclipse.emf.example.util.StringPool;
+import org.eclipse.uml2.uml.Package;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Compares the heap retained by the class diagram of a model extracted without and with a
+ * {@link StringPool}, through the streaming reader and through the loaded model, which is released
+ * before measuring. A pooled diagram is measured once with its pool dropped, as after an extraction with
+ * a pool of its own, and once with the pool kept, as while a batch shares it. Each measurement holds
+ * several extractions, each with its own pool, and reports the average.
+ * Usage: {@code StringPoolBenchmark [model file] [extractions]}.
+ */
+public class StringPoolBenchmark {
+
+    private static Object[] retained;
+
+    public static void main(String args[]) throws Exception {
+        final File model = new File(args.length > 0 ? args[0] : "src/main/resources/model/UML.uml");
+        int extractions = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        report("streaming", new Extraction() {
+            @Override
+            public ClassDiagram extract(StringPool strings) throws IOException {
+                return StreamingClassDiagramReader.getRefModelDetails(model, strings);
+            }
+        }, extractions);
+        report("model", new Extraction() {
+            @Override
+            public ClassDiagram extract(StringPool strings) throws IOException {
+                ModelLoader modelLoader = new ModelLoader();
+                Package _package = modelLoader.loadModel(model);
+                String packageName = _package.getName() != null ? _package.getName() : "";
+                ExtractionContext context = new ExtractionContext(TypeResolverRegistry.getDefault(), false, strings);
+                ClassDiagram classDiagram = ClassDiagramReader.getRefModelDetails(
+                        PackageReader.readPackage(_package.getPackagedElements(), packageName, context));
+                modelLoader.release(_package);
+                return classDiagram;
+            }
+        }, extractions);
+    }
+
+    private static void report(String name, Extraction extraction, int extractions) throws IOException {
+        // warm up, so that the classes loaded on first use are not counted
+        extraction.extract(new StringPool());
+
+        long unpooled = retainedHeap(extraction, false, false, extractions);
+        long pooled = retainedHeap(extraction, true, false, extractions);
+        long withPool = retainedHeap(extraction, true, true, extractions);
+        System.out.printf("%-10s %8d KB unpooled %8d KB pooled (%.0f%%) %8d KB pooled with pool (%.0f%%) per diagram%n",
+                name, unpooled / 1024, pooled / 1024, percent(pooled, unpooled),
+                withPool / 1024, percent(withPool, unpooled));
+    }
+
+    private static double percent(long bytes, long unpooled) {
+        return unpooled > 0 ? 100.0 * bytes / unpooled : 0.0;
+    }
+
+    /**
+     * @param keepPool whether the pool is held with its diagram, so that its table is counted as well
+     * @return the average heap an extracted diagram retains
+     */
+    private static long retainedHeap(Extraction extraction, boolean pooled, boolean keepPool, int extractions)
+            throws IOException {
+        retained = new Object[extractions];
+        long before = LoadBenchmark.usedHeap();
+        for (int i = 0; i < extractions; i++) {
+            StringPool strings = pooled ? new StringPool() : StringPool.NONE;
+            ClassDiagram classDiagram = extraction.extract(strings);
+            retained[i] = keepPool ? new Object[]{classDiagram, strings} : classDiagram;
+        }
+        long after = LoadBenchmark.usedHeap();
+        retained = null;
+        return (after - before) / extractions;
+    }
+
+    private interface Extraction {
+        ClassDiagram extract(StringPool strings) throws IOException;
+    }
+}
@@ -1,7 +1,7 @@
 package org.eclipse.emf.example.driver;
 
 
-import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.loader.ModelSession;
 import org.eclipse.emf.example.models._activity.ActivityDiagram;
 import org.eclipse.emf.example.models._class.ClassDiagram;
 import org.eclipse.emf.example.models._class.ClassStructure;
@@ -14,28 +14,26 @@ import org.eclipse.emf.example.models._sequence.SequenceDiagram;
 import org.eclipse.emf.example.models._sequence.SequenceMessage;
 import org.eclipse.emf.example.models._statemachine.StateMachine;
 import org.eclipse.emf.example.models._usecase.UseCaseDiagram;
-import org.eclipse.emf.example.reader.diagram.*;
-import org.eclipse.uml2.uml.Package;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.List;
 
 public class Driver {
     public static void main(String args[]) throws Exception {
         File model = new File("src/main/resources/model/UML.uml");
-        classDiagramReader(model);
-        packageDiagramReader(model);
-        activityDiagramReader(model);
-        sequenceDiagramReader(model);
-        stateMachineReader(model);
-        useCaseDiagramReader(model);
-        profileReader(model);
+        try (ModelSession session = new ModelSession(model)) {
+            classDiagramReader(session);
+            packageDiagramReader(session);
+            activityDiagramReader(session);
+            sequenceDiagramReader(session);
+            stateMachineReader(session);
+            useCaseDiagramReader(session);
+            profileReader(session);
+        }
     }
 
-    public static void classDiagramReader(File model) throws IOException {
-        Package aPackage = new ModelLoader().loadModel(model);
-        ClassDiagram classDiagram = ClassDiagramReader.getRefModelDetails(aPackage);
+    public static void classDiagramReader(ModelSession session) {
+        ClassDiagram classDiagram = session.getClassDiagram();
         if (classDiagram != null) {
             for (ClassStructure cs : classDiagram.getClasses()) {
                 System.out.println("Class: " + cs.getPackage() + "." + cs.getName());
@@ -48,9 +46,8 @@ public class Driver {
     }
 
 
-    public static void packageDiagramReader(File model) throws IOException {
-        Package aPackage = new ModelLoader().loadModel(model);
-        PackageDiagram packageDiagram = PackageDiagramReader.getRefModelDetails(aPackage);
+    public static void packageDiagramReader(ModelSession session) {
+        PackageDiagram packageDiagram = session.getPackageDiagram();
 
         if (packageDiagram != null) {
             System.out.println(packageDiagram.getPackageStructure().getName());
@@ -58,9 +55,8 @@ public class Driver {
     }
 
 
-    public static void activityDiagramReader(File model) throws IOException {
-        Package aPackage = new ModelLoader().loadModel(model);
-        ActivityDiagram activityDiagram = ActivityDiagramReader.getRefModelDetails(aPackage);
+    public static void activityDiagramReader(ModelSession session) {
+        ActivityDiagram activityDiagram = session.getActivityDiagram();
         if (activityDiagram != null) {
             System.out.println(activityDiagram.getActivityName());
             for (String edges : activityDiagram.getEdges()) {
@@ -70,9 +66,8 @@ public class Driver {
     }
 
 
-    public static void sequenceDiagramReader(File model) throws IOException {
-        Package aPackage = new ModelLoader().loadModel(model);
-        SequenceDiagram sequenceDiagram = SequenceDiagramReader.getRefModelDetails(aPackage);
+    public static void sequenceDiagramReader(ModelSession session) {
+        SequenceDiagram sequenceDiagram = session.getSequenceDiagram();
         if (sequenceDiagram != null) {
             for (SequenceMessage sequenceMessage : sequenceDiagram.getMessages()) {
                 System.out.println(sequenceMessage.getMessageName());
@@ -81,17 +76,15 @@ public class Driver {
     }
 
 
-    public static void stateMachineReader(File model) throws IOException {
-        Package aPackage = new ModelLoader().loadModel(model);
-        List<StateMachine> stateMachines = new StateMachineReader().getRefModelDetails(aPackage);
+    public static void stateMachineReader(ModelSession session) {
+        List<StateMachine> stateMachines = session.getStateMachines();
         for (StateMachine stateMachine : stateMachines) {
             System.out.println(stateMachine.getName());
         }
     }
 
-    public static void useCaseDiagramReader(File model) throws IOException {
-        Package aPackage = new ModelLoader().loadModel(model);
-        UseCaseDiagram useCaseDiagram = UseCaseDiagramReader.getRefModelDetails(aPackage);
+    public static void useCaseDiagramReader(ModelSession session) {
+        UseCaseDiagram useCaseDiagram = session.getUseCaseDiagram();
         if (useCaseDiagram != null) {
             System.out.println(useCaseDiagram.getSystemName());
             for (String actor : useCaseDiagram.getActors()) {
@@ -101,9 +94,8 @@ public class Driver {
     }
 
 
-    public static void profileReader(File model) throws IOException {
-        Package aPackage = new ModelLoader().loadModel(model);
-        ProfileDiagram profileDiagram = UMLProfileReader.getRefModelDetails(aPackage);
+    public static void profileReader(ModelSession session) {
+        ProfileDiagram profileDiagram = session.getProfileDiagram();
         if (profileDiagram != null) {
 
             System.out.println(profileDiagram.getName());
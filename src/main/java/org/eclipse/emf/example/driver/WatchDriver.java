@@ -0,0 +1,41 @@
+package org.eclipse.emf.example.driver;
+
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.models._diff.ClassChange;
+import org.eclipse.emf.example.models._diff.ClassDiagramDiff;
+import org.eclipse.emf.example.watch.ModelWatcher;
+
+import java.io.File;
+
+public class WatchDriver {
+    public static void main(String args[]) throws Exception {
+        File directory = new File(args.length > 0 ? args[0] : "src/main/resources/model");
+        try (ModelWatcher watcher = new ModelWatcher(directory, (file, classDiagram, diff) -> printDiff(file, diff))) {
+            watcher.start();
+            System.out.println("Watching " + directory.getAbsolutePath());
+            Thread.currentThread().join();
+        }
+    }
+
+    public static void printDiff(File file, ClassDiagramDiff diff) {
+        System.out.println("Changed: " + file);
+        for (ClassStructure cs : diff.getAddedClasses()) {
+            System.out.println("  + Class: " + cs.getPackage() + "." + cs.getName());
+        }
+        for (ClassStructure cs : diff.getRemovedClasses()) {
+            System.out.println("  - Class: " + cs.getPackage() + "." + cs.getName());
+        }
+        for (ClassChange change : diff.getChangedClasses()) {
+            ClassStructure cs = change.getAfter();
+            System.out.println("  * Class: " + cs.getPackage() + "." + cs.getName()
+                    + " attributes +" + change.getAddedAttributes().size()
+                    + " -" + change.getRemovedAttributes().size()
+                    + " *" + change.getChangedAttributes().size()
+                    + ", operations +" + change.getAddedOperations().size()
+                    + " -" + change.getRemovedOperations().size()
+                    + " *" + change.getChangedOperations().size()
+                    + ", relations +" + change.getAddedRelations().size()
+                    + " -" + change.getRemovedRelations().size());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.eclipse.emf.example.index;
+
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassStructure;
+
+import java.util.*;
+
+/**
+ * The inheritance closure of the classes of a {@link ClassDiagram}. Every class gets a dense id, its
+ * position in {@link ClassDiagram#getClasses()}, and its transitive ancestors and descendants are kept as
+ * bit sets indexed by id: a subtype test is a single bit lookup, listing ancestors or descendants takes
+ * time proportional to the words of the set.
+ * <p>
+ * Super classes are matched by identity or, if the diagram was not linked, by qualified name; super
+ * classes outside the diagram are ignored. The hierarchy reflects the diagram when it was built.
+ */
+public class ClassHierarchy {
+
+    private final List<ClassStructure> classes;
+    private final Map<ClassStructure, Integer> ids;
+    private final BitSet[] ancestors;
+    private final BitSet[] descendants;
+
+    private ClassHierarchy(List<ClassStructure> classes) {
+        this.classes = classes;
+        this.ids = new IdentityHashMap<>(classes.size());
+        this.ancestors = new BitSet[classes.size()];
+        this.descendants = new BitSet[classes.size()];
+    }
+
+    public static ClassHierarchy of(ClassDiagram classDiagram) {
+        ClassHierarchy classHierarchy = new ClassHierarchy(new ArrayList<>(classDiagram.getClasses()));
+        classHierarchy.build();
+        return classHierarchy;
+    }
+
+    private void build() {
+        Map<String, Integer> idsByName = new HashMap<>();
+        for (int id = 0; id < classes.size(); id++) {
+            ids.put(classes.get(id), id);
+            idsByName.put(ModelIndex.qualifiedName(classes.get(id)), id);
+        }
+
+        int[][] parents = new int[classes.size()][];
+        for (int id = 0; id < classes.size(); id++) {
+            List<ClassStructure> superClasses = classes.get(id).getSuperClasses();
+            int[] parentIds = new int[superClasses.size()];
+            int count = 0;
+            for (ClassStructure superClass : superClasses) {
+                Integer parentId = superClass != null ? ids.get(superClass) : null;
+                if (parentId == null && superClass != null) {
+                    parentId = idsByName.get(ModelIndex.qualifiedName(superClass));
+                }
+                if (parentId != null && parentId != id) {
+                    parentIds[count++] = parentId;
+                }
+            }
+            parents[id] = Arrays.copyOf(parentIds, count);
+        }
+
+        byte[] state = new byte[classes.size()];
+        for (int id = 0; id < classes.size(); id++) {
+            closeAncestors(id, parents, state);
+        }
+
+        for (int id = 0; id < classes.size(); id++) {
+            descendants[id] = new BitSet();
+        }
+        for (int id = 0; id < classes.size(); id++) {
+            for (int ancestor = ancestors[id].nextSetBit(0); ancestor >= 0; ancestor = ancestors[id].nextSetBit(ancestor + 1)) {
+                descendants[ancestor].set(id);
+            }
+        }
+    }
+
+    /**
+     * Computes the ancestors of {@code id} from those of its parents, depth first; a cycle in a malformed
+     * model is cut where it is entered again.
+     */
+    private void closeAncestors(int id, int[][] parents, byte[] state) {
+        if (state[id] != 0) {
+            return;
+        }
+        state[id] = 1;
+        BitSet closure = new BitSet();
+        for (int parent : parents[id]) {
+            closeAncestors(parent, parents, state);
+            closure.set(parent);
+            if (ancestors[parent] != null) {
+                closure.or(ancestors[parent]);
+            }
+        }
+        closure.clear(id);
+        ancestors[id] = closure;
+        state[id] = 2;
+    }
+
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * @return the id of {@code classStructure}, -1 if it is not a class of the diagram
+     */
+    public int getId(ClassStructure classStructure) {
+        Integer id = ids.get(classStructure);
+        return id != null ? id : -1;
+    }
+
+    public ClassStructure getClass(int id) {
+        return classes.get(id);
+    }
+
+    /**
+     * @return whether class {@code subtype} is class {@code supertype} or inherits from it
+     */
+    public boolean isSubtypeOf(int subtype, int supertype) {
+        return subtype == supertype || ancestors[subtype].get(supertype);
+    }
+
+    public boolean isSubtypeOf(ClassStructure subtype, ClassStructure supertype) {
+        int subtypeId = getId(subtype);
+        int supertypeId = getId(supertype);
+        return subtypeId >= 0 && supertypeId >= 0 && isSubtypeOf(subtypeId, supertypeId);
+    }
+
+    /**
+     * @return the ids of the direct and indirect super classes of class {@code id}; a copy
+     */
+    public BitSet getAncestorIds(int id) {
+        return (BitSet) ancestors[id].clone();
+    }
+
+    /**
+     * @return the ids of the direct and indirect subclasses of class {@code id}; a copy
+     */
+    public BitSet getDescendantIds(int id) {
+        return (BitSet) descendants[id].clone();
+    }
+
+    /**
+     * @return the direct and indirect super classes of {@code classStructure}, in id order
+     */
+    public List<ClassStructure> getAncestors(ClassStructure classStructure) {
+        int id = getId(classStructure);
+        return id >= 0 ? classes(ancestors[id]) : Collections.<ClassStructure>emptyList();
+    }
+
+    /**
+     * @return the direct and indirect subclasses of {@code classStructure}, in id order
+     */
+    public List<ClassStructure> getDescendants(ClassStructure classStructure) {
+        int id = getId(classStructure);
+        return id >= 0 ? classes(descendants[id]) : Collections.<ClassStructure>emptyList();
+    }
+
+    private List<ClassStructure> classes(BitSet ids) {
+        List<ClassStructure> result = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            result.add(classes.get(id));
+        }
+        return result;
+    }
+}
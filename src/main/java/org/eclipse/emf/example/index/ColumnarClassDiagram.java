@@ -0,0 +1,1063 @@
+package org.eclipse.emf.example.index;
+
+import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+
+import java.util.*;
+
+/**
+ * A compact, read-only copy of a {@link ClassDiagram} held in parallel primitive arrays instead of an
+ * object graph. Strings are stored once in a dictionary and referenced by int id, -1 standing for
+ * {@code null}; booleans are packed into flag bytes. The members of each class, the parameters of each
+ * operation and so on are contiguous ranges of their arrays, delimited by offset arrays.
+ * <p>
+ * Classes, attributes, operations, parameters, relations, enumerations and instances are numbered in
+ * diagram order; class ids are the positions in {@link ClassDiagram#getClasses()} as in
+ * {@link ClassHierarchy}. They can be read through the int accessors, e.g. {@link #getAttributeType(int)}
+ * for analytics over every attribute, or through the flyweight views, e.g. {@link #getClass(int)}, which
+ * hold nothing but the diagram and an id.
+ * <p>
+ * It holds what the readers extract; bean fields the readers never set, such as imports, operation
+ * bodies or parameter directions, are not kept. {@link #toClassDiagram()} rebuilds an equivalent
+ * {@link ClassDiagram}.
+ */
+public final class ColumnarClassDiagram {
+
+    public static final int ABSTRACT = 1;
+    public static final int FINAL = 2;
+
+    public static final int CLASS = 1;
+    public static final int ENUM = 2;
+    public static final int COLLECTION = 4;
+    public static final int STATIC = 8;
+    /** Set in the return flags of an operation that has a return, whether its type is known or not. */
+    public static final int RETURN = 16;
+
+    public static final int NAVIGABLE_1 = 1;
+    public static final int NAVIGABLE_2 = 2;
+
+    private final String[] strings;
+
+    private final int[] classNames;
+    private final int[] classPackages;
+    private final int[] classVisibilities;
+    private final byte[] classFlags;
+    private final int[] superClassOffsets;
+    private final int[] superClassIds;
+    private final int[] superClassNames;
+    private final int[] superClassPackages;
+    private final int[] ruleOffsets;
+    private final int[] rules;
+    private final int[] classInstanceOffsets;
+    private final int[] classInstanceIds;
+
+    private final int[] attributeOffsets;
+    private final int[] attributeNames;
+    private final int[] attributeTypes;
+    private final int[] attributeVisibilities;
+    private final byte[] attributeFlags;
+
+    private final int[] operationOffsets;
+    private final int[] operationNames;
+    private final int[] operationVisibilities;
+    private final byte[] operationFlags;
+    private final int[] returnTypes;
+    private final byte[] returnFlags;
+    private final int[] parameterOffsets;
+    private final int[] parameterNames;
+    private final int[] parameterTypes;
+    private final int[] parameterVisibilities;
+    private final byte[] parameterFlags;
+
+    private final int[] relationOffsets;
+    private final int[] relationTypes;
+    private final int[] relationClasses;
+    private final int[] relationRoles;
+    private final int[] relationMultiplicities;
+    private final int[] relationVisibilities;
+    private final byte[] relationFlags;
+
+    private final int[] enumerationNames;
+    private final int[] enumerationPackages;
+    private final int[] literalOffsets;
+    private final int[] literals;
+
+    private final int[] instanceNames;
+    private final int[] instancePackages;
+    private final int[] classifierOffsets;
+    private final int[] classifierNames;
+    private final int[] classifierPackages;
+    private final int[] slotOffsets;
+    private final int[] slotNames;
+    private final int[] slotTypes;
+    private final byte[] slotFlags;
+    private final Object[][] slotValues;
+
+    private ColumnarClassDiagram(Builder builder) {
+        strings = builder.strings.toArray(new String[builder.strings.size()]);
+
+        classNames = builder.classNames.toArray();
+        classPackages = builder.classPackages.toArray();
+        classVisibilities = builder.classVisibilities.toArray();
+        classFlags = builder.classFlags.toArray();
+        superClassOffsets = builder.superClassOffsets.toArray();
+        superClassIds = builder.superClassIds.toArray();
+        superClassNames = builder.superClassNames.toArray();
+        superClassPackages = builder.superClassPackages.toArray();
+        ruleOffsets = builder.ruleOffsets.toArray();
+        rules = builder.rules.toArray();
+        classInstanceOffsets = builder.classInstanceOffsets.toArray();
+        classInstanceIds = builder.classInstanceIds.toArray();
+
+        attributeOffsets = builder.attributeOffsets.toArray();
+        attributeNames = builder.attributeNames.toArray();
+        attributeTypes = builder.attributeTypes.toArray();
+        attributeVisibilities = builder.attributeVisibilities.toArray();
+        attributeFlags = builder.attributeFlags.toArray();
+
+        operationOffsets = builder.operationOffsets.toArray();
+        operationNames = builder.operationNames.toArray();
+        operationVisibilities = builder.operationVisibilities.toArray();
+        operationFlags = builder.operationFlags.toArray();
+        returnTypes = builder.returnTypes.toArray();
+        returnFlags = builder.returnFlags.toArray();
+        parameterOffsets = builder.parameterOffsets.toArray();
+        parameterNames = builder.parameterNames.toArray();
+        parameterTypes = builder.parameterTypes.toArray();
+        parameterVisibilities = builder.parameterVisibilities.toArray();
+        parameterFlags = builder.parameterFlags.toArray();
+
+        relationOffsets = builder.relationOffsets.toArray();
+        relationTypes = builder.relationTypes.toArray();
+        relationClasses = builder.relationClasses.toArray();
+        relationRoles = builder.relationRoles.toArray();
+        relationMultiplicities = builder.relationMultiplicities.toArray();
+        relationVisibilities = builder.relationVisibilities.toArray();
+        relationFlags = builder.relationFlags.toArray();
+
+        enumerationNames = builder.enumerationNames.toArray();
+        enumerationPackages = builder.enumerationPackages.toArray();
+        literalOffsets = builder.literalOffsets.toArray();
+        literals = builder.literals.toArray();
+
+        instanceNames = builder.instanceNames.toArray();
+        instancePackages = builder.instancePackages.toArray();
+        classifierOffsets = builder.classifierOffsets.toArray();
+        classifierNames = builder.classifierNames.toArray();
+        classifierPackages = builder.classifierPackages.toArray();
+        slotOffsets = builder.slotOffsets.toArray();
+        slotNames = builder.slotNames.toArray();
+        slotTypes = builder.slotTypes.toArray();
+        slotFlags = builder.slotFlags.toArray();
+        slotValues = builder.slotValues.toArray(new Object[builder.slotValues.size()][]);
+    }
+
+    public static ColumnarClassDiagram of(ClassDiagram classDiagram) {
+        Builder builder = new Builder();
+        builder.add(classDiagram);
+        return new ColumnarClassDiagram(builder);
+    }
+
+    /**
+     * @return the string with dictionary id {@code id}, {@code null} for -1
+     */
+    public String getString(int id) {
+        return id >= 0 ? strings[id] : null;
+    }
+
+    public int getStringCount() {
+        return strings.length;
+    }
+
+    public int getClassCount() {
+        return classNames.length;
+    }
+
+    public int getAttributeCount() {
+        return attributeNames.length;
+    }
+
+    public int getOperationCount() {
+        return operationNames.length;
+    }
+
+    public int getParameterCount() {
+        return parameterNames.length;
+    }
+
+    public int getRelationCount() {
+        return relationTypes.length;
+    }
+
+    public int getEnumerationCount() {
+        return enumerationNames.length;
+    }
+
+    public int getInstanceCount() {
+        return instanceNames.length;
+    }
+
+    public int getClassName(int classId) {
+        return classNames[classId];
+    }
+
+    public int getClassPackage(int classId) {
+        return classPackages[classId];
+    }
+
+    public int getClassFlags(int classId) {
+        return classFlags[classId];
+    }
+
+    /**
+     * @return the id of the first attribute of class {@code classId}; its attributes end where those of the
+     * next class start
+     */
+    public int getAttributeStart(int classId) {
+        return attributeOffsets[classId];
+    }
+
+    public int getAttributeEnd(int classId) {
+        return attributeOffsets[classId + 1];
+    }
+
+    /**
+     * @return the class owning attribute {@code attributeId}
+     */
+    public int getAttributeOwner(int attributeId) {
+        return owner(attributeOffsets, attributeId);
+    }
+
+    public int getAttributeName(int attributeId) {
+        return attributeNames[attributeId];
+    }
+
+    public int getAttributeType(int attributeId) {
+        return attributeTypes[attributeId];
+    }
+
+    public int getAttributeFlags(int attributeId) {
+        return attributeFlags[attributeId];
+    }
+
+    public int getOperationStart(int classId) {
+        return operationOffsets[classId];
+    }
+
+    public int getOperationEnd(int classId) {
+        return operationOffsets[classId + 1];
+    }
+
+    public int getOperationOwner(int operationId) {
+        return owner(operationOffsets, operationId);
+    }
+
+    public int getReturnType(int operationId) {
+        return returnTypes[operationId];
+    }
+
+    public int getParameterStart(int operationId) {
+        return parameterOffsets[operationId];
+    }
+
+    public int getParameterEnd(int operationId) {
+        return parameterOffsets[operationId + 1];
+    }
+
+    public int getParameterType(int parameterId) {
+        return parameterTypes[parameterId];
+    }
+
+    public int getParameterFlags(int parameterId) {
+        return parameterFlags[parameterId];
+    }
+
+    public int getRelationStart(int classId) {
+        return relationOffsets[classId];
+    }
+
+    public int getRelationEnd(int classId) {
+        return relationOffsets[classId + 1];
+    }
+
+    /**
+     * Finds the range an element belongs to in an offset array.
+     */
+    private static int owner(int[] offsets, int id) {
+        int low = 0;
+        int high = offsets.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= id) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    public ClassView getClass(int classId) {
+        return new ClassView(classId);
+    }
+
+    public AttributeView getAttribute(int attributeId) {
+        return new AttributeView(attributeId);
+    }
+
+    public OperationView getOperation(int operationId) {
+        return new OperationView(operationId);
+    }
+
+    public RelationView getRelation(int relationId) {
+        return new RelationView(relationId);
+    }
+
+    public EnumerationView getEnumeration(int enumerationId) {
+        return new EnumerationView(enumerationId);
+    }
+
+    public InstanceView getInstance(int instanceId) {
+        return new InstanceView(instanceId);
+    }
+
+    /**
+     * @return a new {@link ClassDiagram} with the same contents, super classes and instances linked as
+     * in a diagram read from a model
+     */
+    public ClassDiagram toClassDiagram() {
+        ClassDiagram classDiagram = new ClassDiagram();
+        for (int id = 0; id < getClassCount(); id++) {
+            classDiagram.addClass(getClass(id).toClassStructure());
+        }
+        for (int id = 0; id < getEnumerationCount(); id++) {
+            classDiagram.addEnumeration(getEnumeration(id).toEnumStructure());
+        }
+        for (int id = 0; id < getInstanceCount(); id++) {
+            classDiagram.addInstance(getInstance(id).toClassInstance());
+        }
+
+        for (int id = 0; id < getClassCount(); id++) {
+            ClassStructure classStructure = classDiagram.getClasses().get(id);
+            for (int superClass = superClassOffsets[id]; superClass < superClassOffsets[id + 1]; superClass++) {
+                if (superClassIds[superClass] >= 0) {
+                    classStructure.addSuperClass(classDiagram.getClasses().get(superClassIds[superClass]));
+                } else {
+                    ClassStructure placeholder = new ClassStructure();
+                    placeholder.setName(getString(superClassNames[superClass]));
+                    placeholder.setPackage(getString(superClassPackages[superClass]));
+                    classStructure.addSuperClass(placeholder);
+                }
+            }
+            for (int instance = classInstanceOffsets[id]; instance < classInstanceOffsets[id + 1]; instance++) {
+                classStructure.addInstance(classDiagram.getInstances().get(classInstanceIds[instance]));
+            }
+        }
+        return classDiagram;
+    }
+
+    public final class ClassView {
+        private final int id;
+
+        private ClassView(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return getString(classNames[id]);
+        }
+
+        public String getPackage() {
+            return getString(classPackages[id]);
+        }
+
+        public String getVisibility() {
+            return getString(classVisibilities[id]);
+        }
+
+        public boolean isAbstract() {
+            return (classFlags[id] & ABSTRACT) != 0;
+        }
+
+        public boolean isFinal() {
+            return (classFlags[id] & FINAL) != 0;
+        }
+
+        public int getSuperClassCount() {
+            return superClassOffsets[id + 1] - superClassOffsets[id];
+        }
+
+        /**
+         * @return the class id of the {@code index}th super class, -1 if it is not a class of the diagram
+         */
+        public int getSuperClassId(int index) {
+            return superClassIds[superClassOffsets[id] + index];
+        }
+
+        public String getSuperClassName(int index) {
+            return getString(superClassNames[superClassOffsets[id] + index]);
+        }
+
+        public String getSuperClassPackage(int index) {
+            return getString(superClassPackages[superClassOffsets[id] + index]);
+        }
+
+        public int getRuleCount() {
+            return ruleOffsets[id + 1] - ruleOffsets[id];
+        }
+
+        public String getRule(int index) {
+            return getString(rules[ruleOffsets[id] + index]);
+        }
+
+        public int getAttributeCount() {
+            return attributeOffsets[id + 1] - attributeOffsets[id];
+        }
+
+        public AttributeView getAttribute(int index) {
+            return new AttributeView(attributeOffsets[id] + index);
+        }
+
+        public int getOperationCount() {
+            return operationOffsets[id + 1] - operationOffsets[id];
+        }
+
+        public OperationView getOperation(int index) {
+            return new OperationView(operationOffsets[id] + index);
+        }
+
+        public int getRelationCount() {
+            return relationOffsets[id + 1] - relationOffsets[id];
+        }
+
+        public RelationView getRelation(int index) {
+            return new RelationView(relationOffsets[id] + index);
+        }
+
+        public int getInstanceCount() {
+            return classInstanceOffsets[id + 1] - classInstanceOffsets[id];
+        }
+
+        public int getInstanceId(int index) {
+            return classInstanceIds[classInstanceOffsets[id] + index];
+        }
+
+        /**
+         * @return the class with its members; super classes and instances are left to {@link #toClassDiagram()}
+         */
+        private ClassStructure toClassStructure() {
+            ClassStructure classStructure = new ClassStructure();
+            classStructure.setName(getName());
+            classStructure.setPackage(getPackage());
+            classStructure.setVisibility(getVisibility());
+            classStructure.setAbstract(isAbstract());
+            classStructure.setFinal(isFinal());
+            for (int index = 0; index < getRuleCount(); index++) {
+                classStructure.addRules(getRule(index));
+            }
+            for (int index = 0; index < getAttributeCount(); index++) {
+                classStructure.addAttribute(getAttribute(index).toClassAttribute());
+            }
+            for (int index = 0; index < getOperationCount(); index++) {
+                classStructure.addOperation(getOperation(index).toClassOperation());
+            }
+            for (int index = 0; index < getRelationCount(); index++) {
+                classStructure.addRelationship(getRelation(index).toClassRelation());
+            }
+            return classStructure;
+        }
+    }
+
+    public final class AttributeView {
+        private final int id;
+
+        private AttributeView(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return getString(attributeNames[id]);
+        }
+
+        public String getType() {
+            return getString(attributeTypes[id]);
+        }
+
+        public String getVisibility() {
+            return getString(attributeVisibilities[id]);
+        }
+
+        public boolean isClass() {
+            return (attributeFlags[id] & CLASS) != 0;
+        }
+
+        public boolean isEnum() {
+            return (attributeFlags[id] & ENUM) != 0;
+        }
+
+        public boolean isCollection() {
+            return (attributeFlags[id] & COLLECTION) != 0;
+        }
+
+        public boolean isStatic() {
+            return (attributeFlags[id] & STATIC) != 0;
+        }
+
+        private ClassAttribute toClassAttribute() {
+            ClassAttribute attribute = new ClassAttribute();
+            attribute.setName(getName());
+            attribute.setType(getType());
+            attribute.setVisibility(getVisibility());
+            attribute.setClass(isClass());
+            attribute.setEnum(isEnum());
+            attribute.setCollection(isCollection());
+            attribute.setStatic(isStatic());
+            return attribute;
+        }
+    }
+
+    public final class OperationView {
+        private final int id;
+
+        private OperationView(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return getString(operationNames[id]);
+        }
+
+        public String getVisibility() {
+            return getString(operationVisibilities[id]);
+        }
+
+        public boolean isAbstract() {
+            return (operationFlags[id] & ABSTRACT) != 0;
+        }
+
+        public boolean isFinal() {
+            return (operationFlags[id] & FINAL) != 0;
+        }
+
+        public boolean hasReturn() {
+            return (returnFlags[id] & RETURN) != 0;
+        }
+
+        /**
+         * @return the return type, {@code null} if the operation has no return or its type is not known
+         */
+        public String getReturnType() {
+            return getString(returnTypes[id]);
+        }
+
+        public boolean isReturnClass() {
+            return (returnFlags[id] & CLASS) != 0;
+        }
+
+        public boolean isReturnCollection() {
+            return (returnFlags[id] & COLLECTION) != 0;
+        }
+
+        public int getParameterCount() {
+            return parameterOffsets[id + 1] - parameterOffsets[id];
+        }
+
+        public String getParameterName(int index) {
+            return getString(parameterNames[parameterOffsets[id] + index]);
+        }
+
+        public String getParameterType(int index) {
+            return getString(parameterTypes[parameterOffsets[id] + index]);
+        }
+
+        public String getParameterVisibility(int index) {
+            return getString(parameterVisibilities[parameterOffsets[id] + index]);
+        }
+
+        public boolean isParameterClass(int index) {
+            return (parameterFlags[parameterOffsets[id] + index] & CLASS) != 0;
+        }
+
+        public boolean isParameterCollection(int index) {
+            return (parameterFlags[parameterOffsets[id] + index] & COLLECTION) != 0;
+        }
+
+        private ClassOperation toClassOperation() {
+            ClassOperation operation = new ClassOperation();
+            operation.setName(getName());
+            operation.setVisibility(getVisibility());
+            operation.setAbstract(isAbstract());
+            operation.setFinal(isFinal());
+            if (hasReturn()) {
+                operation.setReturnType(new OperationReturn(getReturnType(), isReturnClass(), isReturnCollection()));
+            } else {
+                operation.setReturnType(null);
+            }
+            for (int index = 0; index < getParameterCount(); index++) {
+                OperationParameter parameter = new OperationParameter();
+                parameter.setName(getParameterName(index));
+                parameter.setType(getParameterType(index));
+                parameter.setVisibility(getParameterVisibility(index));
+                parameter.setClass(isParameterClass(index));
+                parameter.setCollection(isParameterCollection(index));
+                operation.addParameter(parameter);
+            }
+            return operation;
+        }
+    }
+
+    public final class RelationView {
+        private final int id;
+
+        private RelationView(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getType() {
+            return getString(relationTypes[id]);
+        }
+
+        public String getVisibility() {
+            return getString(relationVisibilities[id]);
+        }
+
+        public String getClass_1() {
+            return getString(relationClasses[2 * id]);
+        }
+
+        public String getClass_2() {
+            return getString(relationClasses[2 * id + 1]);
+        }
+
+        public String getRole_Name_1() {
+            return getString(relationRoles[2 * id]);
+        }
+
+        public String getRole_Name_2() {
+            return getString(relationRoles[2 * id + 1]);
+        }
+
+        public int getMultipcity_Lower_1() {
+            return relationMultiplicities[4 * id];
+        }
+
+        public int getMultipcity_Uper_1() {
+            return relationMultiplicities[4 * id + 1];
+        }
+
+        public int getMultipcity_Lower_2() {
+            return relationMultiplicities[4 * id + 2];
+        }
+
+        public int getMultipcity_Uper_2() {
+            return relationMultiplicities[4 * id + 3];
+        }
+
+        public boolean isNavigable_1() {
+            return (relationFlags[id] & NAVIGABLE_1) != 0;
+        }
+
+        public boolean isNavigable_2() {
+            return (relationFlags[id] & NAVIGABLE_2) != 0;
+        }
+
+        private ClassRelation toClassRelation() {
+            ClassRelation relation = new ClassRelation();
+            relation.setType(getType());
+            relation.setVisibility(getVisibility());
+            relation.setClass_1(getClass_1());
+            relation.setClass_2(getClass_2());
+            relation.setRole_Name_1(getRole_Name_1());
+            relation.setRole_Name_2(getRole_Name_2());
+            relation.setMultipcity_Lower_1(getMultipcity_Lower_1());
+            relation.setMultipcity_Uper_1(getMultipcity_Uper_1());
+            relation.setMultipcity_Lower_2(getMultipcity_Lower_2());
+            relation.setMultipcity_Uper_2(getMultipcity_Uper_2());
+            relation.setNavigable_1(isNavigable_1());
+            relation.setNavigable_2(isNavigable_2());
+            return relation;
+        }
+    }
+
+    public final class EnumerationView {
+        private final int id;
+
+        private EnumerationView(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return getString(enumerationNames[id]);
+        }
+
+        public String getPackage() {
+            return getString(enumerationPackages[id]);
+        }
+
+        public int getLiteralCount() {
+            return literalOffsets[id + 1] - literalOffsets[id];
+        }
+
+        public String getLiteral(int index) {
+            return getString(literals[literalOffsets[id] + index]);
+        }
+
+        private EnumStructure toEnumStructure() {
+            EnumStructure enumStructure = new EnumStructure();
+            enumStructure.setName(getName());
+            enumStructure.setPackage(getPackage());
+            for (int index = 0; index < getLiteralCount(); index++) {
+                enumStructure.addLiteral(getLiteral(index));
+            }
+            return enumStructure;
+        }
+    }
+
+    public final class InstanceView {
+        private final int id;
+
+        private InstanceView(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return getString(instanceNames[id]);
+        }
+
+        public String getPackage() {
+            return getString(instancePackages[id]);
+        }
+
+        public int getClassifierCount() {
+            return classifierOffsets[id + 1] - classifierOffsets[id];
+        }
+
+        public String getClassifierName(int index) {
+            return getString(classifierNames[classifierOffsets[id] + index]);
+        }
+
+        public String getClassifierPackage(int index) {
+            return getString(classifierPackages[classifierOffsets[id] + index]);
+        }
+
+        public int getSlotCount() {
+            return slotOffsets[id + 1] - slotOffsets[id];
+        }
+
+        public String getSlotName(int index) {
+            return getString(slotNames[slotOffsets[id] + index]);
+        }
+
+        public String getSlotType(int index) {
+            return getString(slotTypes[slotOffsets[id] + index]);
+        }
+
+        public int getSlotFlags(int index) {
+            return slotFlags[slotOffsets[id] + index];
+        }
+
+        /**
+         * @return the values of the {@code index}th slot; a copy
+         */
+        public Object[] getSlotValues(int index) {
+            Object[] values = slotValues[slotOffsets[id] + index];
+            return values != null ? values.clone() : null;
+        }
+
+        private ClassInstance toClassInstance() {
+            ClassInstance classInstance = new ClassInstance();
+            classInstance.setName(getName());
+            classInstance.set_package(getPackage());
+            for (int index = 0; index < getClassifierCount(); index++) {
+                ClassStructure classifier = new ClassStructure();
+                classifier.setName(getClassifierName(index));
+                classifier.setPackage(getClassifierPackage(index));
+                classInstance.getClasses().add(classifier);
+            }
+            for (int index = 0; index < getSlotCount(); index++) {
+                int flags = getSlotFlags(index);
+                classInstance.addAttribute(new InstanceAttribute(getSlotName(index), getSlotType(index),
+                        getSlotValues(index), (flags & CLASS) != 0, (flags & ENUM) != 0, (flags & COLLECTION) != 0));
+            }
+            return classInstance;
+        }
+    }
+
+    private static class Builder {
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+
+        private final IntColumn classNames = new IntColumn();
+        private final IntColumn classPackages = new IntColumn();
+        private final IntColumn classVisibilities = new IntColumn();
+        private final ByteColumn classFlags = new ByteColumn();
+        private final IntColumn superClassOffsets = new IntColumn();
+        private final IntColumn superClassIds = new IntColumn();
+        private final IntColumn superClassNames = new IntColumn();
+        private final IntColumn superClassPackages = new IntColumn();
+        private final IntColumn ruleOffsets = new IntColumn();
+        private final IntColumn rules = new IntColumn();
+        private final IntColumn classInstanceOffsets = new IntColumn();
+        private final IntColumn classInstanceIds = new IntColumn();
+
+        private final IntColumn attributeOffsets = new IntColumn();
+        private final IntColumn attributeNames = new IntColumn();
+        private final IntColumn attributeTypes = new IntColumn();
+        private final IntColumn attributeVisibilities = new IntColumn();
+        private final ByteColumn attributeFlags = new ByteColumn();
+
+        private final IntColumn operationOffsets = new IntColumn();
+        private final IntColumn operationNames = new IntColumn();
+        private final IntColumn operationVisibilities = new IntColumn();
+        private final ByteColumn operationFlags = new ByteColumn();
+        private final IntColumn returnTypes = new IntColumn();
+        private final ByteColumn returnFlags = new ByteColumn();
+        private final IntColumn parameterOffsets = new IntColumn();
+        private final IntColumn parameterNames = new IntColumn();
+        private final IntColumn parameterTypes = new IntColumn();
+        private final IntColumn parameterVisibilities = new IntColumn();
+        private final ByteColumn parameterFlags = new ByteColumn();
+
+        private final IntColumn relationOffsets = new IntColumn();
+        private final IntColumn relationTypes = new IntColumn();
+        private final IntColumn relationClasses = new IntColumn();
+        private final IntColumn relationRoles = new IntColumn();
+        private final IntColumn relationMultiplicities = new IntColumn();
+        private final IntColumn relationVisibilities = new IntColumn();
+        private final ByteColumn relationFlags = new ByteColumn();
+
+        private final IntColumn enumerationNames = new IntColumn();
+        private final IntColumn enumerationPackages = new IntColumn();
+        private final IntColumn literalOffsets = new IntColumn();
+        private final IntColumn literals = new IntColumn();
+
+        private final IntColumn instanceNames = new IntColumn();
+        private final IntColumn instancePackages = new IntColumn();
+        private final IntColumn classifierOffsets = new IntColumn();
+        private final IntColumn classifierNames = new IntColumn();
+        private final IntColumn classifierPackages = new IntColumn();
+        private final IntColumn slotOffsets = new IntColumn();
+        private final IntColumn slotNames = new IntColumn();
+        private final IntColumn slotTypes = new IntColumn();
+        private final ByteColumn slotFlags = new ByteColumn();
+        private final List<Object[]> slotValues = new ArrayList<>();
+
+        private int string(String string) {
+            if (string == null) {
+                return -1;
+            }
+            Integer id = stringIds.get(string);
+            if (id == null) {
+                id = strings.size();
+                strings.add(string);
+                stringIds.put(string, id);
+            }
+            return id;
+        }
+
+        private static int flag(boolean value, int flag) {
+            return value ? flag : 0;
+        }
+
+        private void add(ClassDiagram classDiagram) {
+            Map<ClassStructure, Integer> classIds = new IdentityHashMap<>();
+            Map<String, Integer> classIdsByName = new HashMap<>();
+            int classId = 0;
+            for (ClassStructure classStructure : classDiagram.getClasses()) {
+                classIds.put(classStructure, classId);
+                // the first of several classes with one name wins
+                classIdsByName.putIfAbsent(ModelIndex.qualifiedName(classStructure), classId);
+                classId++;
+            }
+            Map<ClassInstance, Integer> instanceIds = new IdentityHashMap<>();
+            for (ClassInstance classInstance : classDiagram.getInstances()) {
+                instanceIds.put(classInstance, instanceIds.size());
+            }
+
+            for (ClassStructure classStructure : classDiagram.getClasses()) {
+                addClass(classStructure, classIds, classIdsByName, instanceIds);
+            }
+            superClassOffsets.add(superClassIds.size());
+            ruleOffsets.add(rules.size());
+            classInstanceOffsets.add(classInstanceIds.size());
+            attributeOffsets.add(attributeNames.size());
+            operationOffsets.add(operationNames.size());
+            parameterOffsets.add(parameterNames.size());
+            relationOffsets.add(relationTypes.size());
+
+            for (EnumStructure enumStructure : classDiagram.getEnumerations()) {
+                enumerationNames.add(string(enumStructure.getName()));
+                enumerationPackages.add(string(enumStructure.getPackage()));
+                literalOffsets.add(literals.size());
+                for (String literal : enumStructure.getLiterals()) {
+                    literals.add(string(literal));
+                }
+            }
+            literalOffsets.add(literals.size());
+
+            for (ClassInstance classInstance : classDiagram.getInstances()) {
+                addInstance(classInstance);
+            }
+            classifierOffsets.add(classifierNames.size());
+            slotOffsets.add(slotNames.size());
+        }
+
+        private void addClass(ClassStructure classStructure, Map<ClassStructure, Integer> classIds,
+                              Map<String, Integer> classIdsByName, Map<ClassInstance, Integer> instanceIds) {
+            classNames.add(string(classStructure.getName()));
+            classPackages.add(string(classStructure.getPackage()));
+            classVisibilities.add(string(classStructure.getVisibility()));
+            classFlags.add(flag(classStructure.isAbstract(), ABSTRACT) | flag(classStructure.isFinal(), FINAL));
+
+            superClassOffsets.add(superClassIds.size());
+            for (ClassStructure superClass : classStructure.getSuperClasses()) {
+                if (superClass == null) {
+                    continue;
+                }
+                Integer superClassId = classIds.get(superClass);
+                if (superClassId == null) {
+                    superClassId = classIdsByName.get(ModelIndex.qualifiedName(superClass));
+                }
+                superClassIds.add(superClassId != null ? superClassId : -1);
+                superClassNames.add(string(superClass.getName()));
+                superClassPackages.add(string(superClass.getPackage()));
+            }
+
+            ruleOffsets.add(rules.size());
+            for (String rule : classStructure.getRules()) {
+                rules.add(string(rule));
+            }
+
+            classInstanceOffsets.add(classInstanceIds.size());
+            for (ClassInstance classInstance : classStructure.getInstances()) {
+                Integer instanceId = instanceIds.get(classInstance);
+                if (instanceId != null) {
+                    classInstanceIds.add(instanceId);
+                }
+            }
+
+            attributeOffsets.add(attributeNames.size());
+            for (ClassAttribute attribute : classStructure.getAttributes()) {
+                attributeNames.add(string(attribute.getName()));
+                attributeTypes.add(string(attribute.getType()));
+                attributeVisibilities.add(string(attribute.getVisibility()));
+                attributeFlags.add(flag(attribute.isClass(), CLASS) | flag(attribute.isEnum(), ENUM)
+                        | flag(attribute.isCollection(), COLLECTION) | flag(attribute.isStatic(), STATIC));
+            }
+
+            operationOffsets.add(operationNames.size());
+            for (ClassOperation operation : classStructure.getOperations()) {
+                operationNames.add(string(operation.getName()));
+                operationVisibilities.add(string(operation.getVisibility()));
+                operationFlags.add(flag(operation.isAbstract(), ABSTRACT) | flag(operation.isFinal(), FINAL));
+                OperationReturn operationReturn = operation.getReturnType();
+                returnTypes.add(operationReturn != null ? string(operationReturn.getType()) : -1);
+                returnFlags.add(operationReturn != null ? RETURN | flag(operationReturn.isClass(), CLASS)
+                        | flag(operationReturn.isCollection(), COLLECTION) : 0);
+
+                parameterOffsets.add(parameterNames.size());
+                for (OperationParameter parameter : operation.getParameters()) {
+                    parameterNames.add(string(parameter.getName()));
+                    parameterTypes.add(string(parameter.getType()));
+                    parameterVisibilities.add(string(parameter.getVisibility()));
+                    parameterFlags.add(flag(parameter.isClass(), CLASS) | flag(parameter.isCollection(), COLLECTION));
+                }
+            }
+
+            relationOffsets.add(relationTypes.size());
+            for (ClassRelation relation : classStructure.getRelationships()) {
+                relationTypes.add(string(relation.getType()));
+                relationVisibilities.add(string(relation.getVisibility()));
+                relationClasses.add(string(relation.getClass_1()));
+                relationClasses.add(string(relation.getClass_2()));
+                relationRoles.add(string(relation.getRole_Name_1()));
+                relationRoles.add(string(relation.getRole_Name_2()));
+                relationMultiplicities.add(relation.getMultipcity_Lower_1());
+                relationMultiplicities.add(relation.getMultipcity_Uper_1());
+                relationMultiplicities.add(relation.getMultipcity_Lower_2());
+                relationMultiplicities.add(relation.getMultipcity_Uper_2());
+                relationFlags.add(flag(relation.isNavigable_1(), NAVIGABLE_1) | flag(relation.isNavigable_2(), NAVIGABLE_2));
+            }
+        }
+
+        private void addInstance(ClassInstance classInstance) {
+            instanceNames.add(string(classInstance.getName()));
+            instancePackages.add(string(classInstance.get_package()));
+
+            classifierOffsets.add(classifierNames.size());
+            for (ClassStructure classifier : classInstance.getClasses()) {
+                classifierNames.add(string(classifier.getName()));
+                classifierPackages.add(string(classifier.getPackage()));
+            }
+
+            slotOffsets.add(slotNames.size());
+            for (InstanceAttribute attribute : classInstance.getAttributes()) {
+                slotNames.add(string(attribute.getName()));
+                slotTypes.add(string(attribute.getType()));
+                slotFlags.add(flag(attribute.isClass(), CLASS) | flag(attribute.isEnum(), ENUM)
+                        | flag(attribute.isCollection(), COLLECTION));
+                slotValues.add(attribute.getValues() != null ? attribute.getValues().clone() : null);
+            }
+        }
+    }
+
+    private static class IntColumn {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static class ByteColumn {
+        private byte[] values = new byte[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = (byte) value;
+        }
+
+        private byte[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
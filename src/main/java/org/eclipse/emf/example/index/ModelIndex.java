@@ -0,0 +1,220 @@
+package org.eclipse.emf.example.index;
+
+import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.eclipse.emf.example.util.QualifiedNames;
+
+import java.util.*;
+
+/**
+ * Lookups over a {@link ClassDiagram}: classes, enumerations and instances by qualified name and by
+ * package, and for each class its direct subclasses, its instances and the relations of other classes
+ * naming it.
+ * Every lookup is a hash lookup; the lists returned are built once and are unmodifiable.
+ * <p>
+ * The index reflects the diagram when it was built. Relations name their classes by simple name; an end
+ * is matched to the class of that name in the package of the class listing the relation, or to every
+ * class of that name if there is none there.
+ */
+public class ModelIndex {
+
+    private final ClassDiagram classDiagram;
+
+    private final Map<String, ClassStructure> classes;
+    private final Map<String, EnumStructure> enumerations;
+    private final Map<String, ClassInstance> instances;
+
+    private final Map<String, List<ClassStructure>> classesByPackage = new LinkedHashMap<>();
+    private final Map<String, List<EnumStructure>> enumerationsByPackage = new LinkedHashMap<>();
+    private final Map<String, List<ClassInstance>> instancesByPackage = new LinkedHashMap<>();
+
+    private final Map<ClassStructure, List<ClassStructure>> subclasses = new IdentityHashMap<>();
+    private final Map<ClassStructure, List<ClassInstance>> classInstances = new IdentityHashMap<>();
+    private final Map<ClassStructure, List<ClassRelation>> referencingRelations = new IdentityHashMap<>();
+
+    private ModelIndex(ClassDiagram classDiagram) {
+        this.classDiagram = classDiagram;
+        this.classes = new HashMap<>(capacity(classDiagram.getClasses().size()));
+        this.enumerations = new HashMap<>(capacity(classDiagram.getEnumerations().size()));
+        this.instances = new HashMap<>(capacity(classDiagram.getInstances().size()));
+    }
+
+    public static ModelIndex of(ClassDiagram classDiagram) {
+        ModelIndex modelIndex = new ModelIndex(classDiagram);
+        modelIndex.build();
+        return modelIndex;
+    }
+
+    public static String qualifiedName(ClassStructure classStructure) {
+        return QualifiedNames.of(classStructure.getPackage(), classStructure.getName());
+    }
+
+    public static String qualifiedName(EnumStructure enumStructure) {
+        return QualifiedNames.of(enumStructure.getPackage(), enumStructure.getName());
+    }
+
+    public static String qualifiedName(ClassInstance classInstance) {
+        return QualifiedNames.of(classInstance.get_package(), classInstance.getName());
+    }
+
+    private void build() {
+        Map<String, List<ClassStructure>> classesByName = new HashMap<>();
+        for (ClassStructure classStructure : classDiagram.getClasses()) {
+            classes.put(qualifiedName(classStructure), classStructure);
+            add(classesByPackage, packageName(classStructure.getPackage()), classStructure);
+            add(classesByName, classStructure.getName(), classStructure);
+        }
+        for (EnumStructure enumStructure : classDiagram.getEnumerations()) {
+            enumerations.put(qualifiedName(enumStructure), enumStructure);
+            add(enumerationsByPackage, packageName(enumStructure.getPackage()), enumStructure);
+        }
+        for (ClassInstance classInstance : classDiagram.getInstances()) {
+            instances.put(qualifiedName(classInstance), classInstance);
+            add(instancesByPackage, packageName(classInstance.get_package()), classInstance);
+            for (ClassStructure classifier : classInstance.getClasses()) {
+                ClassStructure indexed = classes.get(qualifiedName(classifier));
+                if (indexed != null) {
+                    add(classInstances, indexed, classInstance);
+                }
+            }
+        }
+
+        for (ClassStructure classStructure : classDiagram.getClasses()) {
+            for (ClassStructure superClass : classStructure.getSuperClasses()) {
+                ClassStructure indexed = superClass != null ? classes.get(qualifiedName(superClass)) : null;
+                if (indexed != null) {
+                    add(subclasses, indexed, classStructure);
+                }
+            }
+
+            for (ClassRelation relation : classStructure.getRelationships()) {
+                for (ClassStructure end : ends(relation, classStructure, classesByName)) {
+                    add(referencingRelations, end, relation);
+                }
+            }
+        }
+
+        freeze(classesByPackage);
+        freeze(enumerationsByPackage);
+        freeze(instancesByPackage);
+        freeze(subclasses);
+        freeze(classInstances);
+        freeze(referencingRelations);
+    }
+
+    /**
+     * @return the classes other than {@code owner} that {@code relation} names as its ends
+     */
+    private static Set<ClassStructure> ends(ClassRelation relation, ClassStructure owner,
+                                            Map<String, List<ClassStructure>> classesByName) {
+        Set<ClassStructure> ends = Collections.newSetFromMap(new IdentityHashMap<ClassStructure, Boolean>());
+        for (String name : Arrays.asList(relation.getClass_1(), relation.getClass_2())) {
+            if (name == null) {
+                continue;
+            }
+            if (name.equals(owner.getName())) {
+                continue;
+            }
+            List<ClassStructure> candidates = classesByName.get(name);
+            if (candidates == null) {
+                continue;
+            }
+            boolean samePackage = false;
+            for (ClassStructure candidate : candidates) {
+                if (Objects.equals(candidate.getPackage(), owner.getPackage())) {
+                    ends.add(candidate);
+                    samePackage = true;
+                }
+            }
+            if (!samePackage) {
+                ends.addAll(candidates);
+            }
+        }
+        return ends;
+    }
+
+    public ClassDiagram getClassDiagram() {
+        return classDiagram;
+    }
+
+    /**
+     * @return the class named {@code qualifiedName}, e.g. {@code UML.Classification.Property}, or {@code null}
+     */
+    public ClassStructure getClass(String qualifiedName) {
+        return classes.get(qualifiedName);
+    }
+
+    public EnumStructure getEnumeration(String qualifiedName) {
+        return enumerations.get(qualifiedName);
+    }
+
+    public ClassInstance getInstance(String qualifiedName) {
+        return instances.get(qualifiedName);
+    }
+
+    /**
+     * @return the qualified names of the packages holding classes, enumerations or instances
+     */
+    public Set<String> getPackageNames() {
+        Set<String> packageNames = new LinkedHashSet<>(classesByPackage.keySet());
+        packageNames.addAll(enumerationsByPackage.keySet());
+        packageNames.addAll(instancesByPackage.keySet());
+        return packageNames;
+    }
+
+    public List<ClassStructure> getClasses(String packageName) {
+        return get(classesByPackage, packageName(packageName));
+    }
+
+    public List<EnumStructure> getEnumerations(String packageName) {
+        return get(enumerationsByPackage, packageName(packageName));
+    }
+
+    public List<ClassInstance> getInstances(String packageName) {
+        return get(instancesByPackage, packageName(packageName));
+    }
+
+    public List<ClassStructure> getSubclasses(ClassStructure classStructure) {
+        return get(subclasses, classStructure);
+    }
+
+    public List<ClassInstance> getInstances(ClassStructure classStructure) {
+        return get(classInstances, classStructure);
+    }
+
+    /**
+     * @return the generalizations and associations listed by other classes that name {@code classStructure}
+     * as one of their ends; the relations of the class itself are its {@link ClassStructure#getRelationships()}
+     */
+    public List<ClassRelation> getReferencingRelations(ClassStructure classStructure) {
+        return get(referencingRelations, classStructure);
+    }
+
+    private static String packageName(String packageName) {
+        return packageName != null ? packageName : "";
+    }
+
+    private static <K, V> void add(Map<K, List<V>> map, K key, V value) {
+        List<V> values = map.get(key);
+        if (values == null) {
+            values = new ArrayList<>(2);
+            map.put(key, values);
+        }
+        values.add(value);
+    }
+
+    private static <K, V> List<V> get(Map<K, List<V>> map, K key) {
+        List<V> values = map.get(key);
+        return values != null ? values : Collections.<V>emptyList();
+    }
+
+    private static <K, V> void freeze(Map<K, List<V>> map) {
+        for (Map.Entry<K, List<V>> entry : map.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+}
@@ -0,0 +1,400 @@
+package org.eclipse.emf.example.index;
+
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassRelation;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.util.Keywords;
+
+import java.util.*;
+
+/**
+ * The relations of a {@link ClassDiagram} as a graph over int class ids, the positions of the classes in
+ * {@link ClassDiagram#getClasses()} as in {@link ClassHierarchy}. The edges of each {@link EdgeKind} are
+ * kept in compressed sparse row form, an offset array and a target array, so navigating, searching and
+ * decomposing the graph works on int arrays only.
+ * <p>
+ * A relation listed by both of its classes is one relation of the graph. Relations name their classes by
+ * simple name; an end is matched to the class listing the relation if the names are equal, else to the
+ * first class of that name in the same package or, failing that, in the diagram. Ends that match no class
+ * are left out. The graph reflects the diagram when it was built.
+ */
+public class RelationGraph {
+
+    public enum EdgeKind {
+        /** Between the two classes of an association, in both directions. */
+        ASSOCIATION,
+        /** From the specific class of a generalization to the general one. */
+        GENERALIZATION,
+        /** From a class to the classes it can navigate to through an association. */
+        NAVIGABLE
+    }
+
+    private final List<ClassStructure> classes;
+    private final Map<ClassStructure, Integer> ids;
+    private final List<ClassRelation> relations = new ArrayList<>();
+    private final Adjacency[] adjacencies = new Adjacency[EdgeKind.values().length];
+
+    private RelationGraph(List<ClassStructure> classes) {
+        this.classes = classes;
+        this.ids = new IdentityHashMap<>(classes.size());
+    }
+
+    public static RelationGraph of(ClassDiagram classDiagram) {
+        RelationGraph relationGraph = new RelationGraph(new ArrayList<>(classDiagram.getClasses()));
+        relationGraph.build();
+        return relationGraph;
+    }
+
+    private void build() {
+        Map<String, List<Integer>> idsByName = new HashMap<>();
+        for (int id = 0; id < classes.size(); id++) {
+            ids.put(classes.get(id), id);
+            List<Integer> named = idsByName.get(classes.get(id).getName());
+            if (named == null) {
+                named = new ArrayList<>(1);
+                idsByName.put(classes.get(id).getName(), named);
+            }
+            named.add(id);
+        }
+
+        EdgeList[] edges = new EdgeList[adjacencies.length];
+        for (int kind = 0; kind < edges.length; kind++) {
+            edges[kind] = new EdgeList();
+        }
+
+        Set<ClassRelation> seen = Collections.newSetFromMap(new IdentityHashMap<ClassRelation, Boolean>());
+        Set<RelationKey> keys = new HashSet<>();
+        for (int owner = 0; owner < classes.size(); owner++) {
+            for (ClassRelation relation : classes.get(owner).getRelationships()) {
+                if (!seen.add(relation)) {
+                    continue;
+                }
+                int class1 = end(relation.getClass_1(), owner, idsByName);
+                int class2 = end(relation.getClass_2(), owner, idsByName);
+                if (class1 < 0 || class2 < 0 || !keys.add(new RelationKey(relation, class1, class2))) {
+                    continue;
+                }
+
+                int relationId = relations.size();
+                relations.add(relation);
+                if (Keywords.Generalization.equals(relation.getType())) {
+                    edges[EdgeKind.GENERALIZATION.ordinal()].add(class1, class2, relationId);
+                } else if (Keywords.Association.equals(relation.getType())) {
+                    edges[EdgeKind.ASSOCIATION.ordinal()].add(class1, class2, relationId);
+                    if (class1 != class2) {
+                        edges[EdgeKind.ASSOCIATION.ordinal()].add(class2, class1, relationId);
+                    }
+                    if (relation.isNavigable_1()) {
+                        edges[EdgeKind.NAVIGABLE.ordinal()].add(class2, class1, relationId);
+                    }
+                    if (relation.isNavigable_2()) {
+                        edges[EdgeKind.NAVIGABLE.ordinal()].add(class1, class2, relationId);
+                    }
+                }
+            }
+        }
+
+        for (int kind = 0; kind < adjacencies.length; kind++) {
+            adjacencies[kind] = edges[kind].toAdjacency(classes.size());
+        }
+    }
+
+    private int end(String name, int owner, Map<String, List<Integer>> idsByName) {
+        if (name == null) {
+            return -1;
+        }
+        ClassStructure ownerClass = classes.get(owner);
+        if (name.equals(ownerClass.getName())) {
+            return owner;
+        }
+        List<Integer> named = idsByName.get(name);
+        if (named == null) {
+            return -1;
+        }
+        for (int id : named) {
+            if (Objects.equals(classes.get(id).getPackage(), ownerClass.getPackage())) {
+                return id;
+            }
+        }
+        return named.get(0);
+    }
+
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * @return the id of {@code classStructure}, -1 if it is not a class of the diagram
+     */
+    public int getId(ClassStructure classStructure) {
+        Integer id = ids.get(classStructure);
+        return id != null ? id : -1;
+    }
+
+    public ClassStructure getClass(int id) {
+        return classes.get(id);
+    }
+
+    public int getRelationCount() {
+        return relations.size();
+    }
+
+    public ClassRelation getRelation(int relationId) {
+        return relations.get(relationId);
+    }
+
+    public int getEdgeCount(EdgeKind kind) {
+        return adjacencies[kind.ordinal()].targets.length;
+    }
+
+    public int getDegree(int id, EdgeKind kind) {
+        Adjacency adjacency = adjacencies[kind.ordinal()];
+        return adjacency.offsets[id + 1] - adjacency.offsets[id];
+    }
+
+    /**
+     * @return the class id at the end of the {@code index}th {@code kind} edge leaving class {@code id}
+     */
+    public int getNeighbor(int id, EdgeKind kind, int index) {
+        Adjacency adjacency = adjacencies[kind.ordinal()];
+        return adjacency.targets[adjacency.offsets[id] + index];
+    }
+
+    /**
+     * @return the relation id of the {@code index}th {@code kind} edge leaving class {@code id}
+     */
+    public int getNeighborRelation(int id, EdgeKind kind, int index) {
+        Adjacency adjacency = adjacencies[kind.ordinal()];
+        return adjacency.relations[adjacency.offsets[id] + index];
+    }
+
+    /**
+     * @return the ids of the classes reachable from class {@code from} over edges of {@code kinds},
+     * including {@code from}
+     */
+    public BitSet reachable(int from, EdgeKind... kinds) {
+        BitSet visited = new BitSet(classes.size());
+        int[] queue = new int[classes.size()];
+        int head = 0;
+        int tail = 0;
+        visited.set(from);
+        queue[tail++] = from;
+        while (head < tail) {
+            int id = queue[head++];
+            for (EdgeKind kind : kinds) {
+                Adjacency adjacency = adjacencies[kind.ordinal()];
+                for (int edge = adjacency.offsets[id]; edge < adjacency.offsets[id + 1]; edge++) {
+                    int target = adjacency.targets[edge];
+                    if (!visited.get(target)) {
+                        visited.set(target);
+                        queue[tail++] = target;
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * @return the class ids of a path with the fewest edges of {@code kinds} from class {@code from} to
+     * class {@code to}, both included; an empty array if {@code to} cannot be reached
+     */
+    public int[] shortestPath(int from, int to, EdgeKind... kinds) {
+        int[] previous = new int[classes.size()];
+        Arrays.fill(previous, -1);
+        int[] queue = new int[classes.size()];
+        int head = 0;
+        int tail = 0;
+        previous[from] = from;
+        queue[tail++] = from;
+        while (head < tail && previous[to] < 0) {
+            int id = queue[head++];
+            for (EdgeKind kind : kinds) {
+                Adjacency adjacency = adjacencies[kind.ordinal()];
+                for (int edge = adjacency.offsets[id]; edge < adjacency.offsets[id + 1]; edge++) {
+                    int target = adjacency.targets[edge];
+                    if (previous[target] < 0) {
+                        previous[target] = id;
+                        queue[tail++] = target;
+                    }
+                }
+            }
+        }
+        if (previous[to] < 0) {
+            return new int[0];
+        }
+
+        int length = 1;
+        for (int id = to; id != from; id = previous[id]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int id = to, i = length - 1; i >= 0; id = previous[id], i--) {
+            path[i] = id;
+        }
+        return path;
+    }
+
+    /**
+     * Finds the strongly connected components of the {@code kind} edges with Tarjan's algorithm, run
+     * iteratively so that long chains do not exhaust the call stack.
+     *
+     * @return the component of each class id; components are numbered from 0 in reverse topological order
+     */
+    public int[] stronglyConnectedComponents(EdgeKind kind) {
+        Adjacency adjacency = adjacencies[kind.ordinal()];
+        int size = classes.size();
+        int[] index = new int[size];
+        Arrays.fill(index, -1);
+        int[] lowLink = new int[size];
+        int[] component = new int[size];
+        int[] stack = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] callStack = new int[size];
+        int[] nextEdge = new int[size];
+        int stackSize = 0;
+        int nextIndex = 0;
+        int components = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            nextEdge[root] = adjacency.offsets[root];
+            callStack[depth++] = root;
+
+            while (depth > 0) {
+                int id = callStack[depth - 1];
+                if (nextEdge[id] < adjacency.offsets[id + 1]) {
+                    int target = adjacency.targets[nextEdge[id]++];
+                    if (index[target] < 0) {
+                        index[target] = lowLink[target] = nextIndex++;
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        nextEdge[target] = adjacency.offsets[target];
+                        callStack[depth++] = target;
+                    } else if (onStack[target]) {
+                        lowLink[id] = Math.min(lowLink[id], index[target]);
+                    }
+                } else {
+                    depth--;
+                    if (lowLink[id] == index[id]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            component[member] = components;
+                        } while (member != id);
+                        components++;
+                    }
+                    if (depth > 0) {
+                        int caller = callStack[depth - 1];
+                        lowLink[caller] = Math.min(lowLink[caller], lowLink[id]);
+                    }
+                }
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Readers list a copy of a relation with each of its classes; the copies agree on everything but the
+     * owner, so they are recognized by their resolved classes and their ends.
+     */
+    private static final class RelationKey {
+        private final ClassRelation relation;
+        private final int class1;
+        private final int class2;
+
+        private RelationKey(ClassRelation relation, int class1, int class2) {
+            this.relation = relation;
+            this.class1 = class1;
+            this.class2 = class2;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof RelationKey)) {
+                return false;
+            }
+            RelationKey other = (RelationKey) object;
+            ClassRelation that = other.relation;
+            return class1 == other.class1 && class2 == other.class2
+                    && Objects.equals(relation.getType(), that.getType())
+                    && Objects.equals(relation.getRole_Name_1(), that.getRole_Name_1())
+                    && Objects.equals(relation.getRole_Name_2(), that.getRole_Name_2())
+                    && relation.isNavigable_1() == that.isNavigable_1()
+                    && relation.isNavigable_2() == that.isNavigable_2()
+                    && relation.getMultipcity_Lower_1() == that.getMultipcity_Lower_1()
+                    && relation.getMultipcity_Uper_1() == that.getMultipcity_Uper_1()
+                    && relation.getMultipcity_Lower_2() == that.getMultipcity_Lower_2()
+                    && relation.getMultipcity_Uper_2() == that.getMultipcity_Uper_2();
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 31 * class1 + class2;
+            hash = 31 * hash + Objects.hashCode(relation.getType());
+            hash = 31 * hash + Objects.hashCode(relation.getRole_Name_1());
+            return 31 * hash + Objects.hashCode(relation.getRole_Name_2());
+        }
+    }
+
+    private static class Adjacency {
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] relations;
+
+        private Adjacency(int[] offsets, int[] targets, int[] relations) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.relations = relations;
+        }
+    }
+
+    private static class EdgeList {
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int[] relations = new int[16];
+        private int size;
+
+        private void add(int source, int target, int relation) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                relations = Arrays.copyOf(relations, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            relations[size] = relation;
+            size++;
+        }
+
+        /**
+         * Sorts the edges by source with a counting sort, keeping the order they were added in per source.
+         */
+        private Adjacency toAdjacency(int nodes) {
+            int[] offsets = new int[nodes + 1];
+            for (int edge = 0; edge < size; edge++) {
+                offsets[sources[edge] + 1]++;
+            }
+            for (int node = 0; node < nodes; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+
+            int[] position = Arrays.copyOf(offsets, nodes);
+            int[] sortedTargets = new int[size];
+            int[] sortedRelations = new int[size];
+            for (int edge = 0; edge < size; edge++) {
+                int slot = position[sources[edge]]++;
+                sortedTargets[slot] = targets[edge];
+                sortedRelations[slot] = relations[edge];
+            }
+            return new Adjacency(offsets, sortedTargets, sortedRelations);
+        }
+    }
+}
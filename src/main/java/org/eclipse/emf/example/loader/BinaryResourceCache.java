@@ -0,0 +1,131 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import java.io.*;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Keeps an EMF binary copy of every successfully loaded XMI model and reads that copy
+ * instead of the XMI as long as the source content hash still matches. Cache files are
+ * named {@code <model file>.<sha1>.bin}, so a changed source simply misses and leaves a
+ * stale file that is replaced on the next store.
+ * <p>
+ * Objects read from the binary form are identified by position rather than by xmi:id, so
+ * the cache is meant for models that are read for extraction, not edited and saved back.
+ */
+public class BinaryResourceCache {
+
+    static final String FILE_EXTENSION = "bin";
+
+    private final File directory;
+
+    /**
+     * Stores the binary copies as sidecar files next to their source models.
+     */
+    public BinaryResourceCache() {
+        this(null);
+    }
+
+    /**
+     * @param directory directory holding the binary copies, created on first store;
+     *                  {@code null} stores them next to their source models
+     */
+    public BinaryResourceCache(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    File cacheFile(ModelFingerprint fingerprint) {
+        File source = new File(fingerprint.getPath());
+        File parent = directory != null ? directory : source.getParentFile();
+        return new File(parent, source.getName() + "." + fingerprint.getContentHash() + "." + FILE_EXTENSION);
+    }
+
+    /**
+     * @return the binary resource added to {@code resourceSet}, or {@code null} when there is
+     * no usable copy for this content hash
+     */
+    Resource load(ResourceSet resourceSet, ModelFingerprint fingerprint) {
+        File cacheFile = cacheFile(fingerprint);
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        Resource resource = new BinaryResourceImpl(URI.createFileURI(fingerprint.getPath()));
+        resourceSet.getResources().add(resource);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(cacheFile))) {
+            resource.load(inputStream, Collections.emptyMap());
+            return resource;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable binary cache " + cacheFile + ": " + e.getMessage());
+            resource.unload();
+            resourceSet.getResources().remove(resource);
+            cacheFile.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Writes a binary copy of {@code resource}. Failures only cost the cache entry, the
+     * loaded model itself is left untouched.
+     */
+    void store(Resource resource, ModelFingerprint fingerprint) {
+        File cacheFile = cacheFile(fingerprint);
+        File parent = cacheFile.getParentFile();
+        if (parent == null || (!parent.isDirectory() && !parent.mkdirs())) {
+            return;
+        }
+
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", parent);
+
+            EcoreUtil.Copier copier = new EcoreUtil.Copier(false);
+            Collection<EObject> copies = copier.copyAll(resource.getContents());
+            copier.copyReferences();
+
+            Resource binaryResource = new BinaryResourceImpl(resource.getURI());
+            binaryResource.getContents().addAll(copies);
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+                binaryResource.save(outputStream, Collections.emptyMap());
+            }
+
+            deleteStale(cacheFile, new File(fingerprint.getPath()).getName());
+            if (!tempFile.renameTo(cacheFile)) {
+                tempFile.delete();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not write binary cache " + cacheFile + ": " + e.getMessage());
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static void deleteStale(File cacheFile, String sourceName) {
+        final String prefix = sourceName + ".";
+        final String suffix = "." + FILE_EXTENSION;
+        File[] stale = cacheFile.getParentFile().listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String fileName) {
+                return fileName.startsWith(prefix) && fileName.endsWith(suffix)
+                        && fileName.length() == prefix.length() + 40 + suffix.length();
+            }
+        });
+        if (stale != null) {
+            for (File file : stale) {
+                file.delete();
+            }
+        }
+    }
+}
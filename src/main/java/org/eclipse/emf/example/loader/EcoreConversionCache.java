@@ -0,0 +1,239 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.eclipse.uml2.uml.resource.UMLResource;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Keeps the UML packages converted from Ecore models, keyed by the content hash of the Ecore file
+ * and the conversion options, so that loading the same metamodel again skips both the parse and
+ * the conversion. The least recently used conversions are unloaded once more than
+ * {@link #getMaxEntries()} are held.
+ * <p>
+ * With a directory, every conversion is also saved there as {@code <model file>.<sha1>.<options>.uml}
+ * and read back on later runs. Like {@link ModelCache}, cached packages are shared between callers
+ * and must be treated as read-only, and a conversion is only unloaded once no caller holds a
+ * reference to it anymore.
+ */
+public class EcoreConversionCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    private final int maxEntries;
+    private final File directory;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Package, Entry> referenced = new IdentityHashMap<>();
+
+    public EcoreConversionCache() {
+        this(DEFAULT_MAX_ENTRIES, null);
+    }
+
+    /**
+     * @param directory directory the conversions are saved to, created on first store;
+     *                  {@code null} keeps them in memory only
+     */
+    public EcoreConversionCache(File directory) {
+        this(DEFAULT_MAX_ENTRIES, directory);
+    }
+
+    public EcoreConversionCache(int maxEntries, File directory) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.directory = directory;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the package converted before from the same content with the same options, read from
+     * the directory if it is no longer in memory, or {@code null}
+     */
+    synchronized Package get(ModelFingerprint fingerprint, Map<String, String> options) {
+        String key = key(fingerprint, options);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return reference(entry);
+        }
+
+        if (directory == null) {
+            return null;
+        }
+        File cacheFile = cacheFile(fingerprint, options);
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        ResourceSet resourceSet = ModelLoader.createResourceSet();
+        try {
+            Resource resource = resourceSet.getResource(URI.createFileURI(cacheFile.getPath()), true);
+            Package _package = (Package) EcoreUtil.getObjectByType(resource.getContents(), UMLPackage.Literals.PACKAGE);
+            if (_package != null) {
+                entry = new Entry(_package, resourceSet);
+                add(key, entry);
+                return reference(entry);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Ignoring unreadable conversion cache " + cacheFile + ": " + e.getMessage());
+        }
+        ModelLoader.unload(resourceSet);
+        cacheFile.delete();
+        return null;
+    }
+
+    /**
+     * Keeps {@code _package}, converted from the Ecore model with {@code fingerprint}; the cache takes
+     * over the ResourceSet the Ecore model was loaded into, and counts a reference for the caller.
+     */
+    synchronized void put(ModelFingerprint fingerprint, Map<String, String> options, Package _package,
+                          ResourceSet resourceSet) {
+        Entry entry = new Entry(_package, resourceSet);
+        add(key(fingerprint, options), entry);
+        reference(entry);
+        if (directory != null) {
+            save(fingerprint, options, _package, resourceSet);
+        }
+    }
+
+    /**
+     * Drops one reference to {@code _package}. The conversion stays cached; if it was evicted in the
+     * meantime, releasing its last reference unloads it.
+     *
+     * @return {@code false} if the cache does not own {@code _package}
+     */
+    synchronized boolean release(Package _package) {
+        Entry entry = referenced.get(_package);
+        if (entry == null) {
+            return false;
+        }
+        if (--entry.references == 0) {
+            referenced.remove(_package);
+            if (entry.evicted) {
+                unload(entry);
+            }
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            evict(entry);
+        }
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void add(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null && previous.resourceSet != entry.resourceSet) {
+            evict(previous);
+        }
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            evict(eldest);
+        }
+    }
+
+    private Package reference(Entry entry) {
+        entry.references++;
+        referenced.put(entry._package, entry);
+        return entry._package;
+    }
+
+    /**
+     * Unloads an entry that left the cache, or leaves that to the release of its last reference.
+     */
+    private static void evict(Entry entry) {
+        entry.evicted = true;
+        if (entry.references == 0) {
+            unload(entry);
+        }
+    }
+
+    private void save(ModelFingerprint fingerprint, Map<String, String> options, Package _package,
+                      ResourceSet resourceSet) {
+        File cacheFile = cacheFile(fingerprint, options);
+        if (cacheFile.isFile() || (!directory.isDirectory() && !directory.mkdirs())) {
+            return;
+        }
+
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", directory);
+
+            // the package moves into a resource named after the cache file, so that its references
+            // to the loaded libraries are written relative to where it is read back from
+            Resource resource = UMLResource.Factory.INSTANCE.createResource(URI.createFileURI(cacheFile.getPath()));
+            resourceSet.getResources().add(resource);
+            resource.getContents().add(_package);
+
+            Map<String, Object> saveOptions = new HashMap<>();
+            saveOptions.put(XMLResource.OPTION_ENCODING, "UTF-8");
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+                resource.save(outputStream, saveOptions);
+            }
+
+            if (!tempFile.renameTo(cacheFile)) {
+                tempFile.delete();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not write conversion cache " + cacheFile + ": " + e.getMessage());
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    File cacheFile(ModelFingerprint fingerprint, Map<String, String> options) {
+        String sourceName = new File(fingerprint.getPath()).getName();
+        return new File(directory, sourceName + "." + fingerprint.getContentHash() + "." + optionsKey(options)
+                + "." + UMLResource.FILE_EXTENSION);
+    }
+
+    private static String key(ModelFingerprint fingerprint, Map<String, String> options) {
+        return fingerprint.getContentHash() + "." + optionsKey(options);
+    }
+
+    private static String optionsKey(Map<String, String> options) {
+        return String.format("%08x", new TreeMap<>(options).toString().hashCode());
+    }
+
+    private static void unload(Entry entry) {
+        if (entry.resourceSet != null) {
+            ModelLoader.unload(entry.resourceSet);
+        }
+    }
+
+    private static class Entry {
+        private final Package _package;
+        private final ResourceSet resourceSet;
+        private int references;
+        private boolean evicted;
+
+        private Entry(Package _package, ResourceSet resourceSet) {
+            this._package = _package;
+            this.resourceSet = resourceSet;
+        }
+    }
+}
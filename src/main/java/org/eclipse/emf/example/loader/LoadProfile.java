@@ -0,0 +1,76 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.XMLParserPool;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMLParserPoolImpl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Named sets of XMI load options accepted by {@link ModelLoader#loadModel(java.io.File, LoadProfile)}.
+ * <ul>
+ * <li>{@link #SAFE}: the plain options the loader always used, nothing shared between loads.</li>
+ * <li>{@link #FAST}: reuses SAX parsers and the XML name to feature lookups across loads, defers
+ * IDREF resolution and attachment to the end of the parse and keeps a URI to resource map.</li>
+ * <li>{@link #LOW_MEMORY}: reuses SAX parsers but keeps no lookup caches, and drops the records
+ * of unknown XMI content once the model is loaded.</li>
+ * </ul>
+ */
+public enum LoadProfile {
+
+    SAFE,
+    FAST,
+    LOW_MEMORY;
+
+    private static final XMLParserPool PARSER_POOL = new XMLParserPoolImpl();
+    private static final Map<Object, EStructuralFeature> NAME_TO_FEATURE_MAP =
+            Collections.synchronizedMap(new HashMap<Object, EStructuralFeature>());
+
+    public Map<String, Object> loadOptions() {
+        Map<String, Object> options = new HashMap<>();
+        options.put(XMLResource.OPTION_EXTENDED_META_DATA, Boolean.TRUE);
+        options.put(XMLResource.OPTION_RECORD_UNKNOWN_FEATURE, Boolean.TRUE);
+        options.put(XMLResource.OPTION_ENCODING, "UTF-8");
+
+        switch (this) {
+            case FAST:
+                options.put(XMLResource.OPTION_USE_PARSER_POOL, PARSER_POOL);
+                options.put(XMLResource.OPTION_USE_XML_NAME_TO_FEATURE_MAP, NAME_TO_FEATURE_MAP);
+                options.put(XMLResource.OPTION_DEFER_IDREF_RESOLUTION, Boolean.TRUE);
+                options.put(XMLResource.OPTION_DEFER_ATTACHMENT, Boolean.TRUE);
+                options.put(XMLResource.OPTION_USE_DEPRECATED_METHODS, Boolean.FALSE);
+                options.put(XMLResource.OPTION_CONFIGURATION_CACHE, Boolean.TRUE);
+                break;
+            case LOW_MEMORY:
+                options.put(XMLResource.OPTION_USE_PARSER_POOL, PARSER_POOL);
+                options.put(XMLResource.OPTION_DEFER_IDREF_RESOLUTION, Boolean.TRUE);
+                options.put(XMLResource.OPTION_USE_DEPRECATED_METHODS, Boolean.FALSE);
+                break;
+            default:
+                break;
+        }
+        return options;
+    }
+
+    void configure(ResourceSet resourceSet) {
+        if (this == FAST && resourceSet instanceof ResourceSetImpl) {
+            ResourceSetImpl resourceSetImpl = (ResourceSetImpl) resourceSet;
+            if (resourceSetImpl.getURIResourceMap() == null) {
+                resourceSetImpl.setURIResourceMap(new HashMap<URI, Resource>());
+            }
+        }
+    }
+
+    void loaded(Resource resource) {
+        if (this == LOW_MEMORY && resource instanceof XMLResource) {
+            ((XMLResource) resource).getEObjectToExtensionMap().clear();
+        }
+    }
+}
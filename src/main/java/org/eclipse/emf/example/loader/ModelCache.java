@@ -0,0 +1,218 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.uml2.uml.Package;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of loaded models keyed by canonical path. An entry is returned as long as the
+ * file keeps its modification time and size, or, if those changed, its content hash.
+ * Entries are evicted least recently used first once either the entry count or the heap
+ * budget is exceeded, and the evicted resources are unloaded.
+ * <p>
+ * The cache is thread-safe and may be shared by loaders on different threads. Cached packages
+ * are shared between callers and must be treated as read-only. Every package handed out counts as
+ * a reference until {@link ModelLoader#release(Package)}; an entry that is evicted or invalidated
+ * while referenced stays loaded until its last reference is released.
+ */
+public class ModelCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+    public static final long DEFAULT_MAX_HEAP_BYTES = 512L * 1024 * 1024;
+
+    /**
+     * Rough heap held by one object of a loaded UML graph, its lists, strings and adapters included,
+     * used to weigh entries against the heap budget. Entries are weighed by their objects rather than
+     * by the size of their file, which says little for gzip and zip compressed models.
+     */
+    static final int HEAP_BYTES_PER_OBJECT = 1024;
+
+    private final int maxEntries;
+    private final long maxHeapBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Package, Entry> referenced = new IdentityHashMap<>();
+    private long heapBytes;
+
+    public ModelCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_HEAP_BYTES);
+    }
+
+    public ModelCache(int maxEntries, long maxHeapBytes) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.maxHeapBytes = maxHeapBytes;
+    }
+
+    public synchronized Package get(File file) throws IOException {
+        String path = ModelFingerprint.canonicalPath(file);
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+
+        File canonicalFile = new File(path);
+        if (entry.fingerprint.isUnchanged(canonicalFile)) {
+            return reference(entry);
+        }
+
+        if (canonicalFile.exists() && entry.fingerprint.getLength() == canonicalFile.length()
+                && entry.fingerprint.getContentHash().equals(ModelFingerprint.contentHash(canonicalFile))) {
+            entry.fingerprint = entry.fingerprint.withTimestamp(canonicalFile);
+            return reference(entry);
+        }
+
+        remove(path);
+        return null;
+    }
+
+    void put(ModelFingerprint fingerprint, Resource resource, Package _package) {
+        if (_package == null) {
+            return;
+        }
+        // counted before taking the lock, the package is not shared yet
+        put(new Entry(fingerprint, resource, _package, estimateHeapBytes(_package)));
+    }
+
+    private synchronized void put(Entry entry) {
+        remove(entry.fingerprint.getPath());
+
+        entries.put(entry.fingerprint.getPath(), entry);
+        heapBytes += entry.heapBytes;
+        // the loader that put the package hands it out
+        reference(entry);
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || heapBytes > maxHeapBytes) && entries.size() > 1) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            heapBytes -= eldest.heapBytes;
+            evict(eldest);
+        }
+    }
+
+    public synchronized void invalidate(File file) throws IOException {
+        remove(ModelFingerprint.canonicalPath(file));
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            evict(entry);
+        }
+        entries.clear();
+        heapBytes = 0;
+    }
+
+    /**
+     * Drops one reference to {@code _package}. The package stays cached; if it was evicted in the
+     * meantime, releasing its last reference unloads it.
+     *
+     * @return {@code false} if the cache does not own {@code _package}
+     */
+    synchronized boolean release(Package _package) {
+        Entry entry = referenced.get(_package);
+        if (entry == null) {
+            return false;
+        }
+        if (--entry.references == 0) {
+            referenced.remove(_package);
+            if (entry.evicted) {
+                unload(entry);
+            }
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEstimatedHeapBytes() {
+        return heapBytes;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    private void remove(String path) {
+        Entry entry = entries.remove(path);
+        if (entry != null) {
+            heapBytes -= entry.heapBytes;
+            evict(entry);
+        }
+    }
+
+    /**
+     * @return the estimated heap held by the resource of {@code _package}, or by the package alone if it
+     * has none
+     */
+    static long estimateHeapBytes(Package _package) {
+        Resource resource = _package.eResource();
+        Iterator<EObject> iterator = resource != null ? resource.getAllContents() : _package.eAllContents();
+        long objects = resource != null ? 0 : 1;
+        for (; iterator.hasNext(); iterator.next()) {
+            objects++;
+        }
+        return objects * HEAP_BYTES_PER_OBJECT;
+    }
+
+    private Package reference(Entry entry) {
+        entry.references++;
+        referenced.put(entry._package, entry);
+        return entry._package;
+    }
+
+    /**
+     * Unloads an entry that left the cache, or leaves that to the release of its last reference.
+     */
+    private static void evict(Entry entry) {
+        entry.evicted = true;
+        if (entry.references == 0) {
+            unload(entry);
+        }
+    }
+
+    /**
+     * Unloads every resource of the entry's ResourceSet, which the cache owns, including the
+     * libraries the model pulled in.
+     */
+    private static void unload(Entry entry) {
+        if (entry.resourceSet != null) {
+            ModelLoader.unload(entry.resourceSet);
+        } else {
+            ModelLoader.unload(entry.resource);
+        }
+    }
+
+    private static class Entry {
+        private ModelFingerprint fingerprint;
+        private final Resource resource;
+        private final ResourceSet resourceSet;
+        private final Package _package;
+        private final long heapBytes;
+        private int references;
+        private boolean evicted;
+
+        private Entry(ModelFingerprint fingerprint, Resource resource, Package _package, long heapBytes) {
+            this.fingerprint = fingerprint;
+            this.resource = resource;
+            this.resourceSet = resource != null ? resource.getResourceSet() : null;
+            this._package = _package;
+            this.heapBytes = heapBytes;
+        }
+    }
+}
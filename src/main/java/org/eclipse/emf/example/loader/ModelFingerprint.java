@@ -0,0 +1,91 @@
+package org.eclipse.emf.example.loader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Identity of a model file at one point in time: canonical path, modification time, size
+ * and a SHA-1 digest of its content.
+ */
+final class ModelFingerprint {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String path;
+    private final long lastModified;
+    private final long length;
+    private final String contentHash;
+
+    private ModelFingerprint(String path, long lastModified, long length, String contentHash) {
+        this.path = path;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.contentHash = contentHash;
+    }
+
+    static ModelFingerprint of(File file) throws IOException {
+        File canonicalFile = file.getCanonicalFile();
+        return new ModelFingerprint(canonicalFile.getPath(), canonicalFile.lastModified(),
+                canonicalFile.length(), contentHash(canonicalFile));
+    }
+
+    static String canonicalPath(File file) throws IOException {
+        return file.getCanonicalPath();
+    }
+
+    /**
+     * Cheap check that does not read the file: same path, modification time and size.
+     */
+    boolean isUnchanged(File file) {
+        return lastModified == file.lastModified() && length == file.length();
+    }
+
+    static String contentHash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream inputStream = new FileInputStream(file)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        byte[] bytes = digest.digest();
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    long getLastModified() {
+        return lastModified;
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    String getContentHash() {
+        return contentHash;
+    }
+
+    ModelFingerprint withTimestamp(File file) {
+        return new ModelFingerprint(path, file.lastModified(), file.length(), contentHash);
+    }
+}
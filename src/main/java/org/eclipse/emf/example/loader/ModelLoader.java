@@ -2,11 +2,14 @@ package org.eclipse.emf.example.loader;
 
 
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.ResourceFactoryRegistryImpl;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.ecore.xmi.XMLResource;
@@ -14,6 +17,7 @@ import org.eclipse.emf.ecore.xmi.impl.EcoreResourceFactoryImpl;
 import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
 import org.eclipse.emf.ecore.xmi.impl.XMLResourceFactoryImpl;
 import org.eclipse.emf.example.util.ConvertProperties;
+import org.eclipse.emf.example.util.ModelStreams;
 import org.eclipse.emf.mapping.ecore2xml.Ecore2XMLPackage;
 import org.eclipse.emf.mapping.ecore2xml.util.Ecore2XMLResource;
 import org.eclipse.uml2.uml.Model;
@@ -24,26 +28,92 @@ import org.eclipse.uml2.uml.resource.UML22UMLResource;
 import org.eclipse.uml2.uml.resource.UMLResource;
 import org.eclipse.uml2.uml.util.UMLUtil;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.net.URL;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Loads UML and Ecore model files into UML packages.
+ * <p>
+ * Every loader owns its ResourceSet: a loader must only be used by one thread at a time, while
+ * any number of loaders may load concurrently. The package and resource factory registries are
+ * filled once per JVM by {@link #bootstrap()} and shared read-only by all ResourceSets; models
+ * that register further packages while loading do so in their own ResourceSet only. {@link ModelCache} and
+ * {@link BinaryResourceCache} instances may be shared between loaders.
+ */
 public class ModelLoader {
 
-    private static ResourceSet RESOURCE_SET = null;
+    private static final EPackage.Registry PACKAGE_REGISTRY = new EPackageRegistryImpl(EPackage.Registry.INSTANCE);
+    private static final Resource.Factory.Registry RESOURCE_FACTORY_REGISTRY = new ResourceFactoryRegistryImpl();
+
+    private static volatile boolean bootstrapped = false;
+    private static long bootstrapNanos = 0;
+
+    private final ResourceSet resourceSet;
+    private final ModelCache modelCache;
+    private final Map<Package, Resource> sourceResources = new WeakHashMap<>();
+    private BinaryResourceCache binaryResourceCache;
+    private EcoreConversionCache ecoreConversionCache;
 
     public ModelLoader() {
-        RESOURCE_SET = new ResourceSetImpl();
-        registerPackages(getResourceSet());
-        registerResourceFactories();
+        this(null);
+    }
+
+    /**
+     * @param modelCache cache consulted before parsing and filled after every load, may be
+     *                   shared between loaders; {@code null} always parses the file
+     */
+    public ModelLoader(ModelCache modelCache) {
+        this.modelCache = modelCache;
+        this.resourceSet = createResourceSet();
+    }
+
+    /**
+     * Fills the shared package and resource factory registries and maps the UML plugin URI to
+     * its jar. Runs once per JVM; every later call returns immediately, so it may be called
+     * eagerly at application startup to keep that cost out of the first load.
+     */
+    public static void bootstrap() {
+        if (bootstrapped) {
+            return;
+        }
+        synchronized (ModelLoader.class) {
+            if (bootstrapped) {
+                return;
+            }
+            long start = System.nanoTime();
+            registerPackages(PACKAGE_REGISTRY);
+            registerResourceFactories(RESOURCE_FACTORY_REGISTRY);
+            registerPlatformPluginURI();
+            bootstrapNanos = System.nanoTime() - start;
+            bootstrapped = true;
+        }
+    }
+
+    /**
+     * @return time spent in {@link #bootstrap()}, 0 while it has not run
+     */
+    public static long getBootstrapNanos() {
+        return bootstrapped ? bootstrapNanos : 0;
+    }
+
+    /**
+     * @return a ResourceSet backed by the shared registries; writes to its package registry stay local
+     */
+    public static ResourceSet createResourceSet() {
+        bootstrap();
+        ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.setPackageRegistry(new EPackageRegistryImpl(PACKAGE_REGISTRY));
+        resourceSet.setResourceFactoryRegistry(RESOURCE_FACTORY_REGISTRY);
+        return resourceSet;
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private static void registerResourceFactories() {
-        Map extensionFactoryMap = Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap();
+    private static void registerResourceFactories(Resource.Factory.Registry registry) {
+        Map extensionFactoryMap = registry.getExtensionToFactoryMap();
         extensionFactoryMap.put(UMLResource.FILE_EXTENSION, UMLResource.Factory.INSTANCE);
         //extensionFactoryMap.put(UMLResource.FILE_EXTENSION, UML22UMLResource.Factory.INSTANCE);
         extensionFactoryMap.put(UML22UMLResource.FILE_EXTENSION, UML22UMLResource.Factory.INSTANCE);
@@ -63,8 +133,8 @@ public class ModelLoader {
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private static void registerPackages(ResourceSet resourceSet) {
-        Map packageRegistry = resourceSet.getPackageRegistry();
+    private static void registerPackages(EPackage.Registry registry) {
+        Map packageRegistry = registry;
         packageRegistry.put(EcorePackage.eNS_URI, EcorePackage.eINSTANCE);
         packageRegistry.put(Ecore2XMLPackage.eNS_URI, Ecore2XMLPackage.eINSTANCE);
         packageRegistry.put(UMLPackage.eNS_URI, UMLPackage.eINSTANCE);
@@ -78,23 +148,88 @@ public class ModelLoader {
 
     }
 
-    public static ResourceSet getResourceSet() {
-        if (RESOURCE_SET == null) {
-            RESOURCE_SET = new ResourceSetImpl();
-            registerPackages(getResourceSet());
-            registerResourceFactories();
+    public ResourceSet getResourceSet() {
+        return resourceSet;
+    }
+
+    private Resource registerModel(ResourceSet resourceSet, File file, LoadProfile profile) throws IOException {
+        return registerModel(resourceSet, file, profile, null);
+    }
+
+    private Resource registerModel(ResourceSet resourceSet, File file, LoadProfile profile,
+                                   PackageSelection selection) throws IOException {
+
+        Resource resource;
+
+        Map<String, Object> options = profile.loadOptions();
+
+        profile.configure(resourceSet);
+        byte[] selected = selection != null ? selection.filter(file) : null;
+        if (selected != null) {
+            // only the selected part of the XMI is parsed, under the name of the model file
+            resource = resourceSet.createResource(URI.createFileURI(modelFile(file).getPath()));
+            resource.load(new ByteArrayInputStream(selected), options);
+        } else if (ModelStreams.isCompressed(file)) {
+            // the resource is named after the model inside the archive, so that its factory is
+            // chosen by the model extension and relative references resolve next to the archive
+            resource = resourceSet.createResource(URI.createFileURI(modelFile(file).getPath()));
+            try (InputStream inputStream = ModelStreams.open(file)) {
+                resource.load(inputStream, options);
+            }
+        } else {
+            resource = resourceSet.createResource(URI.createFileURI(file.getCanonicalPath()));
+            resource.load(options);
+        }
+        profile.loaded(resource);
+        return resource;
+    }
+
+    private static File modelFile(File file) throws IOException {
+        return new File(file.getCanonicalFile().getParentFile(), ModelStreams.modelName(file));
+    }
+
+    /**
+     * Saves {@code _package} to {@code file}, zipped with {@code Resource.OPTION_ZIP} when the file is
+     * named {@code .umlz} or {@code .zip} and gzipped when it is named {@code .gz}. A package that is
+     * not contained in a resource yet is added to a new resource of this loader's ResourceSet.
+     */
+    public void saveModel(Package _package, File file) throws IOException {
+        Map<String, Object> options = new HashMap<>();
+        options.put(XMLResource.OPTION_ENCODING, "UTF-8");
+
+        Resource resource = _package.eResource();
+        if (resource == null) {
+            resource = resourceSet.createResource(URI.createFileURI(modelFile(file).getPath()));
+            resource.getContents().add(_package);
+        }
+
+        URI uri = resource.getURI();
+        try {
+            if (ModelStreams.isGzip(file)) {
+                resource.setURI(URI.createFileURI(modelFile(file).getPath()));
+                try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(file))) {
+                    resource.save(outputStream, options);
+                }
+            } else {
+                if (ModelStreams.isZip(file)) {
+                    options.put(Resource.OPTION_ZIP, Boolean.TRUE);
+                }
+                resource.setURI(URI.createFileURI(file.getCanonicalPath()));
+                resource.save(options);
+            }
+        } finally {
+            resource.setURI(uri);
         }
-        return RESOURCE_SET;
     }
 
-    private Resource registerModel(File file) throws IOException {
+    private static void registerPlatformPluginURI() {
 
         final char PKG_SEPARATOR = '.';
         final char DIR_SEPARATOR = '/';
 
         String scannedPackage = "org.eclipse.uml2.uml";
         String scannedPath = scannedPackage.replace(PKG_SEPARATOR, DIR_SEPARATOR);
-        URL url = getClass().getClassLoader().getResource(scannedPath);
+        URL url = ModelLoader.class.getClassLoader().getResource(scannedPath);
         if (url != null) {
             String pathToJar;
             if (url.getPath().contains("file:")) {
@@ -107,32 +242,274 @@ public class ModelLoader {
                     URI.createURI("jar:file:" + pathToJar + "!/"));
 
         }
+    }
+
+    /**
+     * Loads {@code file}; call {@link #release(Package)} once the model is no longer needed. Loading a
+     * file again while the copy loaded before is not released yet loads a second copy, in a
+     * ResourceSet of its own.
+     */
+    public Package loadModel(File file) throws IOException {
+        return loadModel(file, LoadProfile.SAFE);
+    }
 
+    public Package loadModel(File file, LoadProfile profile) throws IOException {
+        return loadModel(file, profile, null);
+    }
 
-        Resource resource;
+    /**
+     * Loads only the packages named by {@code selection} and what they reference, see
+     * {@link PackageSelection}; the rest of the file is skipped before it is parsed. A selective load
+     * bypasses the model and binary caches, which hold whole models.
+     *
+     * @param selection packages to keep, {@code null} keeps the whole model
+     */
+    public Package loadModel(File file, LoadProfile profile, PackageSelection selection) throws IOException {
+        String modelName = ModelStreams.modelName(file);
+        if (!modelName.endsWith("uml") && !modelName.endsWith("ecore")) {
+            return null;
+        }
 
-        Map<String, Object> options = new HashMap<>();
-        options.put(XMLResource.OPTION_EXTENDED_META_DATA, Boolean.TRUE);
-        options.put(XMLResource.OPTION_RECORD_UNKNOWN_FEATURE, Boolean.TRUE);
-        options.put(XMLResource.OPTION_ENCODING, "UTF-8");
+        if (selection != null && !modelName.endsWith("uml")) {
+            throw new IllegalArgumentException("Only UML models can be loaded selectively: " + file);
+        }
 
-        resource = getResourceSet().createResource(URI.createFileURI(file.getCanonicalPath()));
-        resource.load(options);
-        return resource;
+        // selective loads hold part of a model, which must then not be shared through a cache
+        ModelCache modelCache = selection == null ? this.modelCache : null;
+        EcoreConversionCache conversionCache = selection == null ? ecoreConversionCache : null;
+        BinaryResourceCache binaryResourceCache = selection == null ? this.binaryResourceCache : null;
+        if (modelCache != null) {
+            Package cached = modelCache.get(file);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ModelFingerprint fingerprint = null;
+        if (modelCache != null || binaryResourceCache != null || conversionCache != null) {
+            fingerprint = ModelFingerprint.of(file);
+        }
+        if (conversionCache != null) {
+            Package converted = conversionCache.get(fingerprint, ConvertProperties.optionsToProcess());
+            if (converted != null) {
+                return converted;
+            }
+        }
+
+        // cached models keep a ResourceSet of their own, so that evicting them never touches
+        // the ResourceSet this loader's thread is working on, and so does a second copy of a
+        // model whose first copy a caller still holds
+        ResourceSet loadResourceSet = modelCache != null || conversionCache != null || isHeld(file)
+                ? createResourceSet() : resourceSet;
+        unloadPrevious(loadResourceSet, file);
+
+        Resource resource = null;
+        if (binaryResourceCache != null) {
+            resource = binaryResourceCache.load(loadResourceSet, fingerprint);
+        }
+        boolean loadedFromBinary = resource != null;
+        if (!loadedFromBinary) {
+            resource = registerModel(loadResourceSet, file, profile, selection);
+        }
+
+        Package _package;
+        if (modelName.endsWith("uml")) {
+            _package = loadUMLModel(resource, fingerprint, conversionCache);
+        } else {
+            _package = loadEcoreModel(resource, fingerprint, conversionCache);
+        }
+        boolean converted = _package != null && _package.eResource() != resource;
+
+        if (binaryResourceCache != null && !loadedFromBinary && _package != null) {
+            binaryResourceCache.store(resource, fingerprint);
+        }
+        if (_package != null) {
+            // packages converted from Ecore live outside the resource they were read from, and a
+            // held resource must not be unloaded by the next load of the same file
+            sourceResources.put(_package, resource);
+        }
+        // a conversion cache already owns the ResourceSet of the packages it converted
+        if (modelCache != null && !(converted && conversionCache != null)) {
+            modelCache.put(fingerprint, resource, _package);
+        }
+        return _package;
     }
 
-    public Package loadModel(File file) throws IOException {
-        if (file.getName().endsWith("uml")) {
-            return loadUMLModel(file);
-        } else if (file.getName().equals("ecore")) {
-            return loadEcoreModel(file);
+    /**
+     * Loads an Ecore model without converting it to UML, for readers working on Ecore directly;
+     * release it with {@link #release(EPackage)}.
+     */
+    public EPackage loadEcorePackage(File file) throws IOException {
+        unloadPrevious(resourceSet, file);
+        Resource resource = registerModel(resourceSet, file, LoadProfile.SAFE);
+        return (EPackage) EcoreUtil.getObjectByType(resource.getContents(), EcorePackage.Literals.EPACKAGE);
+    }
+
+    public Map<File, CompletableFuture<Package>> loadModels(Collection<File> files, Executor executor) {
+        return loadModels(files, LoadProfile.SAFE, executor);
+    }
+
+    /**
+     * Loads every file on {@code executor}. Each load runs on a loader of its own, with its own
+     * ResourceSet, sharing this loader's model, binary and conversion caches.
+     *
+     * @return one future per file, in the iteration order of {@code files}; each completes as soon
+     * as its file is loaded, or exceptionally with the load failure
+     */
+    public Map<File, CompletableFuture<Package>> loadModels(Collection<File> files, final LoadProfile profile,
+                                                            Executor executor) {
+        final BinaryResourceCache binaryCache = binaryResourceCache;
+        final EcoreConversionCache conversionCache = ecoreConversionCache;
+        Map<File, CompletableFuture<Package>> futures = new LinkedHashMap<>();
+        for (final File file : files) {
+            if (futures.containsKey(file)) {
+                continue;
+            }
+            final CompletableFuture<Package> future = new CompletableFuture<>();
+            futures.put(file, future);
+            executor.execute(() -> {
+                try {
+                    ModelLoader modelLoader = new ModelLoader(modelCache);
+                    modelLoader.setBinaryResourceCache(binaryCache);
+                    modelLoader.setEcoreConversionCache(conversionCache);
+                    future.complete(modelLoader.loadModel(file, profile));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+        return futures;
+    }
+
+    /**
+     * Unloads the model {@code _package} was loaded from, clears its adapters and removes it from
+     * its ResourceSet. A package from the model or conversion cache only loses this caller's
+     * reference; the cache unloads it once it is evicted and no caller holds it anymore. Objects extracted by the readers
+     * stay usable, the package itself must not be used afterwards by this caller.
+     */
+    public void release(Package _package) {
+        if (_package == null) {
+            return;
+        }
+
+        Resource resource = sourceResources.remove(_package);
+        if (modelCache != null && modelCache.release(_package)) {
+            return;
+        }
+        // conversions belong to the conversion cache, whether converted now or taken from memory,
+        // where they may be in no resource at all
+        if (ecoreConversionCache != null && ecoreConversionCache.release(_package)) {
+            return;
+        }
+        if (resource == null) {
+            resource = _package.eResource();
+        }
+        if (resource == null) {
+            clearAdapters(_package);
+            return;
+        }
+
+        ResourceSet owner = resource.getResourceSet();
+        if (owner != null && owner != resourceSet) {
+            // loads that could not use this loader's ResourceSet got one of their own, with the
+            // libraries they pulled in
+            unload(owner);
+        } else {
+            unload(resource);
+        }
+    }
+
+    public void release(EPackage ePackage) {
+        if (ePackage != null && ePackage.eResource() != null) {
+            unload(ePackage.eResource());
+        }
+    }
+
+    /**
+     * @return whether a copy of {@code file} in this loader's ResourceSet was handed out and not released
+     */
+    private boolean isHeld(File file) throws IOException {
+        for (URI uri : Arrays.asList(URI.createFileURI(file.getCanonicalPath()),
+                URI.createFileURI(modelFile(file).getPath()))) {
+            Resource previous = resourceSet.getResource(uri, false);
+            if (previous != null && sourceResources.containsValue(previous)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unloads what an earlier, released or failed, load of {@code file} left in {@code resourceSet},
+     * so that loading the same file repeatedly keeps a single copy of it.
+     */
+    private static void unloadPrevious(ResourceSet resourceSet, File file) throws IOException {
+        for (URI uri : Arrays.asList(URI.createFileURI(file.getCanonicalPath()),
+                URI.createFileURI(modelFile(file).getPath()))) {
+            Resource previous = resourceSet.getResource(uri, false);
+            if (previous != null) {
+                unload(previous);
+            }
         }
-        return null;
     }
 
-    private Package loadUMLModel(File file) throws IOException {
+    static void unload(Resource resource) {
+        ResourceSet resourceSet = resource.getResourceSet();
+        if (resource.isLoaded()) {
+            resource.unload();
+        }
+        resource.eAdapters().clear();
+        if (resourceSet != null) {
+            resourceSet.getResources().remove(resource);
+        }
+    }
+
+    static void unload(ResourceSet resourceSet) {
+        for (Resource resource : new ArrayList<>(resourceSet.getResources())) {
+            unload(resource);
+        }
+        resourceSet.eAdapters().clear();
+    }
+
+    private static void clearAdapters(EObject eObject) {
+        eObject.eAdapters().clear();
+        for (Iterator<EObject> iterator = eObject.eAllContents(); iterator.hasNext(); ) {
+            iterator.next().eAdapters().clear();
+        }
+    }
+
+    public ModelCache getModelCache() {
+        return modelCache;
+    }
+
+    public BinaryResourceCache getBinaryResourceCache() {
+        return binaryResourceCache;
+    }
+
+    /**
+     * Opts in to reading and writing EMF binary copies of the loaded XMI models.
+     *
+     * @param binaryResourceCache cache to use, {@code null} always parses the XMI
+     */
+    public void setBinaryResourceCache(BinaryResourceCache binaryResourceCache) {
+        this.binaryResourceCache = binaryResourceCache;
+    }
+
+    public EcoreConversionCache getEcoreConversionCache() {
+        return ecoreConversionCache;
+    }
+
+    /**
+     * Opts in to keeping the UML packages converted from Ecore models.
+     *
+     * @param ecoreConversionCache cache to use, may be shared between loaders; {@code null} converts on every load
+     */
+    public void setEcoreConversionCache(EcoreConversionCache ecoreConversionCache) {
+        this.ecoreConversionCache = ecoreConversionCache;
+    }
 
-        Resource resource = registerModel(file);
+    private Package loadUMLModel(Resource resource, ModelFingerprint fingerprint,
+                                 EcoreConversionCache conversionCache) {
 
         Package _package;
 
@@ -152,23 +529,15 @@ public class ModelLoader {
             EPackage _package2 = (EPackage) EcoreUtil.getObjectByType(resource.getContents(),
                     EcorePackage.Literals.EPACKAGE);
             if (_package2 != null) {
-                Collection<Package> ecorePackages =
-                        UMLUtil.convertFromEcore(_package2, ConvertProperties.optionsToProcess());
-
-                if (ecorePackages != null && !ecorePackages.isEmpty()) {
-                    _package = (Package) ecorePackages.toArray()[0];
-                }
-
-
+                _package = convertFromEcore(_package2, fingerprint, conversionCache);
             }
         }
         return _package;
 
     }
 
-    private Package loadEcoreModel(File file) throws IOException {
-
-        Resource resource = registerModel(file);
+    private Package loadEcoreModel(Resource resource, ModelFingerprint fingerprint,
+                                   EcoreConversionCache conversionCache) {
 
         EPackage _package;
 
@@ -178,17 +547,30 @@ public class ModelLoader {
         Package _UMLPackage = null;
 
         if (_package != null) {
-            Collection<Package> ecorePackages =
-                    UMLUtil.convertFromEcore(_package, ConvertProperties.optionsToProcess());
-            if (ecorePackages != null && !ecorePackages.isEmpty()) {
-                _UMLPackage = (Package) ecorePackages.toArray()[0];
-            }
+            _UMLPackage = convertFromEcore(_package, fingerprint, conversionCache);
         }
 
         return _UMLPackage;
 
     }
 
+    private static Package convertFromEcore(EPackage ePackage, ModelFingerprint fingerprint,
+                                            EcoreConversionCache conversionCache) {
+        Map<String, String> options = ConvertProperties.optionsToProcess();
+
+        Package _package = null;
+        // the cache is keyed on the options as passed, not as UML2 completes them
+        Collection<Package> ecorePackages = UMLUtil.convertFromEcore(ePackage, new HashMap<>(options));
+        if (ecorePackages != null && !ecorePackages.isEmpty()) {
+            _package = ecorePackages.iterator().next();
+        }
+
+        if (_package != null && conversionCache != null && ePackage.eResource() != null) {
+            conversionCache.put(fingerprint, options, _package, ePackage.eResource().getResourceSet());
+        }
+        return _package;
+    }
+
     @SuppressWarnings("unused")
     private void registerPathmaps(URI uri) {
         URIConverter.URI_MAP.put(URI.createURI(UMLResource.LIBRARIES_PATHMAP),
@@ -0,0 +1,181 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.example.index.ClassHierarchy;
+import org.eclipse.emf.example.index.ModelIndex;
+import org.eclipse.emf.example.index.RelationGraph;
+import org.eclipse.emf.example.models._activity.ActivityDiagram;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._package.PackageDiagram;
+import org.eclipse.emf.example.models._package.PackageStructure;
+import org.eclipse.emf.example.models._profile.ProfileDiagram;
+import org.eclipse.emf.example.models._sequence.SequenceDiagram;
+import org.eclipse.emf.example.models._statemachine.StateMachine;
+import org.eclipse.emf.example.models._usecase.UseCaseDiagram;
+import org.eclipse.emf.example.reader.PackageReader;
+import org.eclipse.emf.example.reader.diagram.*;
+import org.eclipse.uml2.uml.Package;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Loads a model once and hands out every diagram view from that single loaded package.
+ * Each view is read on first request and kept for the lifetime of the session; the class
+ * and package diagrams share one traversal of the package tree.
+ * <p>
+ * Closing the session releases the loaded model; views read before stay available, views
+ * requested afterwards are empty.
+ */
+public class ModelSession implements AutoCloseable {
+
+    private final File file;
+    private final ModelLoader modelLoader;
+    private Package _package;
+
+    private PackageStructure packageStructure;
+    private ClassDiagram classDiagram;
+    private ModelIndex modelIndex;
+    private ClassHierarchy classHierarchy;
+    private RelationGraph relationGraph;
+    private PackageDiagram packageDiagram;
+    private ActivityDiagram activityDiagram;
+    private SequenceDiagram sequenceDiagram;
+    private List<StateMachine> stateMachines;
+    private UseCaseDiagram useCaseDiagram;
+    private ProfileDiagram profileDiagram;
+
+    public ModelSession(File file) throws IOException {
+        this(file, new ModelLoader());
+    }
+
+    public ModelSession(File file, ModelLoader modelLoader) throws IOException {
+        this.file = file;
+        this.modelLoader = modelLoader;
+        this._package = modelLoader.loadModel(file);
+    }
+
+    /**
+     * Reads only the packages named by {@code selection} and what they reference.
+     */
+    public ModelSession(File file, ModelLoader modelLoader, PackageSelection selection) throws IOException {
+        this.file = file;
+        this.modelLoader = modelLoader;
+        this._package = modelLoader.loadModel(file, LoadProfile.SAFE, selection);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public Package getPackage() {
+        return _package;
+    }
+
+    public PackageStructure getPackageStructure() {
+        if (packageStructure == null && _package != null) {
+            String packageName = _package.getName() != null ? _package.getName() : "";
+            packageStructure = PackageReader.readPackage(_package.getPackagedElements(), packageName);
+        }
+        return packageStructure;
+    }
+
+    public ClassDiagram getClassDiagram() {
+        if (classDiagram == null && getPackageStructure() != null) {
+            classDiagram = ClassDiagramReader.getRefModelDetails(getPackageStructure());
+        }
+        return classDiagram;
+    }
+
+    /**
+     * @return lookups over the class diagram, built with it
+     */
+    public ModelIndex getModelIndex() {
+        if (modelIndex == null && getClassDiagram() != null) {
+            modelIndex = ModelIndex.of(getClassDiagram());
+        }
+        return modelIndex;
+    }
+
+    public ClassHierarchy getClassHierarchy() {
+        if (classHierarchy == null && getClassDiagram() != null) {
+            classHierarchy = ClassHierarchy.of(getClassDiagram());
+        }
+        return classHierarchy;
+    }
+
+    public RelationGraph getRelationGraph() {
+        if (relationGraph == null && getClassDiagram() != null) {
+            relationGraph = RelationGraph.of(getClassDiagram());
+        }
+        return relationGraph;
+    }
+
+    public PackageDiagram getPackageDiagram() {
+        if (packageDiagram == null && getPackageStructure() != null) {
+            packageDiagram = PackageDiagramReader.getRefModelDetails(getPackageStructure());
+        }
+        return packageDiagram;
+    }
+
+    public ActivityDiagram getActivityDiagram() {
+        if (activityDiagram == null) {
+            activityDiagram = ActivityDiagramReader.getRefModelDetails(_package);
+        }
+        return activityDiagram;
+    }
+
+    public SequenceDiagram getSequenceDiagram() {
+        if (sequenceDiagram == null) {
+            sequenceDiagram = SequenceDiagramReader.getRefModelDetails(_package);
+        }
+        return sequenceDiagram;
+    }
+
+    public List<StateMachine> getStateMachines() {
+        if (stateMachines == null) {
+            stateMachines = new StateMachineReader().getRefModelDetails(_package);
+        }
+        return stateMachines;
+    }
+
+    public UseCaseDiagram getUseCaseDiagram() {
+        if (useCaseDiagram == null) {
+            useCaseDiagram = UseCaseDiagramReader.getRefModelDetails(_package);
+        }
+        return useCaseDiagram;
+    }
+
+    public ProfileDiagram getProfileDiagram() {
+        if (profileDiagram == null) {
+            profileDiagram = UMLProfileReader.getRefModelDetails(_package);
+        }
+        return profileDiagram;
+    }
+
+    /**
+     * Reads every diagram view in one go, e.g. before handing the session to code that
+     * only consumes the extracted models.
+     */
+    public ModelSession readAll() {
+        getClassDiagram();
+        getPackageDiagram();
+        getActivityDiagram();
+        getSequenceDiagram();
+        getStateMachines();
+        getUseCaseDiagram();
+        getProfileDiagram();
+        return this;
+    }
+
+    /**
+     * Releases the loaded model, see {@link ModelLoader#release(Package)}.
+     */
+    @Override
+    public void close() {
+        if (_package != null) {
+            modelLoader.release(_package);
+            _package = null;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.example.util.ModelStreams;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Cuts the XMI of a UML model down to the packages of a {@link PackageSelection} before EMF parses it,
+ * in two SAX passes over the file. The first pass records the packages, the elements they own directly
+ * ("units") and the ids each of them refers to; the second writes the XMI again without the units that
+ * are neither selected nor referenced, transitively, from what is kept.
+ * <p>
+ * A package that only contains or is referenced by kept elements stays as a shell: its own content,
+ * e.g. its package imports, and the units that are kept. Objects next to the model, e.g. stereotype
+ * applications, are left out if they refer to an element that is left out.
+ */
+final class PackageFilter {
+
+    private static final Set<String> PACKAGE_KINDS = new HashSet<>(Arrays.asList("Package", "Model", "Profile"));
+    private static final Set<String> VALUE_ATTRIBUTES = new HashSet<>(Arrays.asList(
+            "name", "xmi:id", "xmi:uuid", "xmi:type", "xmi:version", "value", "visibility"));
+
+    private PackageFilter() {
+    }
+
+    /**
+     * @return the XMI of {@code file} holding only what {@code selection} needs, UTF-8 encoded, or
+     * {@code null} if the selection covers the whole model
+     * @throws IllegalArgumentException if a selected name matches no package or the file holds no UML package
+     */
+    static byte[] filter(File file, PackageSelection selection) throws IOException {
+        Scan index = new Scan(null);
+        parse(file, index);
+        if (index.root == null) {
+            throw new IllegalArgumentException("No UML package in " + file);
+        }
+
+        Selection kept = new Selection(index);
+        if (!kept.select(selection)) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            Scan write = new Scan(writer);
+            write.kept = kept;
+            write.nodes = index.nodes;
+            parse(file, write);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void parse(File file, Scan scan) throws IOException {
+        try (InputStream inputStream = ModelStreams.open(file)) {
+            ModelStreams.newSAXParser().parse(inputStream, scan);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Could not read " + file + ": " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The root package, a package or unit of the package tree, or an object next to the model.
+     */
+    private static class Node {
+        private final Node parent;
+        private final int depth;
+        private final boolean isPackage;
+        private final boolean extra;
+        private final String qualifiedName;
+        private final List<Node> children = new ArrayList<>();
+        private final List<String> references = new ArrayList<>();
+
+        private Node(Node parent, int depth, boolean isPackage, boolean extra, String qualifiedName) {
+            this.parent = parent;
+            this.depth = depth;
+            this.isPackage = isPackage;
+            this.extra = extra;
+            this.qualifiedName = qualifiedName;
+            if (parent != null) {
+                parent.children.add(this);
+            }
+        }
+    }
+
+    private static class Selection {
+        private final Scan index;
+        private final Set<Node> whole = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+        private final Set<Node> shells = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+        private final Set<Node> extras = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+        private final Deque<Node> pending = new ArrayDeque<>();
+
+        private Selection(Scan index) {
+            this.index = index;
+        }
+
+        /**
+         * @return {@code false} if the root package is selected, so that nothing is left out
+         */
+        private boolean select(PackageSelection selection) {
+            Node root = index.root;
+            Map<String, Node> packages = new HashMap<>();
+            for (Node node : index.nodes) {
+                if (node.isPackage && node != root && !node.extra) {
+                    packages.put(node.qualifiedName, node);
+                }
+            }
+
+            Set<String> unknown = new LinkedHashSet<>();
+            List<Node> selected = new ArrayList<>();
+            for (String qualifiedName : selection.getQualifiedNames()) {
+                Node node = packages.get(qualifiedName);
+                if (node == null && root.qualifiedName != null && qualifiedName.startsWith(root.qualifiedName + ".")) {
+                    node = packages.get(qualifiedName.substring(root.qualifiedName.length() + 1));
+                }
+                if (node == null && qualifiedName.equals(root.qualifiedName)) {
+                    node = root;
+                }
+
+                if (node == null) {
+                    unknown.add(qualifiedName);
+                } else {
+                    selected.add(node);
+                }
+            }
+            if (!unknown.isEmpty()) {
+                throw new IllegalArgumentException("No package " + unknown + " in "
+                        + (root.qualifiedName != null ? root.qualifiedName : "the model"));
+            }
+            if (selected.contains(root)) {
+                return false;
+            }
+
+            shell(root);
+            for (Node node : selected) {
+                keepWhole(node);
+            }
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                if (isWhole(node)) {
+                    followSubtree(node);
+                } else {
+                    follow(node);
+                }
+            }
+
+            for (Node node : index.nodes) {
+                if (node.extra && isPresent(node.references)) {
+                    extras.add(node);
+                }
+            }
+            return true;
+        }
+
+        private void followSubtree(Node node) {
+            follow(node);
+            for (Node child : node.children) {
+                followSubtree(child);
+            }
+        }
+
+        private void follow(Node node) {
+            for (String reference : node.references) {
+                List<Node> targets = index.ids.get(reference);
+                if (targets == null) {
+                    continue;
+                }
+                for (Node target : targets) {
+                    if (target.extra || isWhole(target)) {
+                        continue;
+                    }
+                    if (target.isPackage) {
+                        shell(target);
+                    } else {
+                        keepWhole(target);
+                    }
+                }
+            }
+        }
+
+        private void keepWhole(Node node) {
+            if (whole.add(node)) {
+                pending.push(node);
+                if (node.parent != null) {
+                    shell(node.parent);
+                }
+            }
+        }
+
+        private void shell(Node node) {
+            for (Node container = node; container != null && shells.add(container); container = container.parent) {
+                pending.push(container);
+            }
+        }
+
+        private boolean isWhole(Node node) {
+            for (Node container = node; container != null; container = container.parent) {
+                if (whole.contains(container)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isPresent(List<String> references) {
+            for (String reference : references) {
+                List<Node> targets = index.ids.get(reference);
+                if (targets == null) {
+                    continue;
+                }
+                for (Node target : targets) {
+                    if (!target.extra && !isWritten(target)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean isWritten(Node node) {
+            if (node.extra) {
+                return extras.contains(node);
+            }
+            return isWhole(node) || (node.isPackage && shells.contains(node));
+        }
+    }
+
+    /**
+     * Walks the XMI, building the nodes on the first pass and writing what is kept on the second. Both
+     * passes create the nodes in the same order, so the second pass finds them by position.
+     */
+    private static class Scan extends DefaultHandler {
+        private final Writer writer;
+        private List<Node> nodes = new ArrayList<>();
+        private Map<String, List<Node>> ids = new HashMap<>();
+        private Selection kept;
+        private Node root;
+
+        private final List<Node> elements = new ArrayList<>();
+        private boolean wrapped;
+        private int nextNode;
+        private int skipped;
+
+        private Scan(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void startDocument() {
+            write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            int depth = elements.size();
+            Node current = depth > 0 ? elements.get(depth - 1) : null;
+            if (skipped > 0) {
+                skipped++;
+                elements.add(current);
+                return;
+            }
+
+            Node node = null;
+            String kind = kind(attributes.getValue("xmi:type"), qName);
+            if (depth == 0) {
+                if ("xmi:XMI".equals(qName)) {
+                    wrapped = true;
+                } else if (PACKAGE_KINDS.contains(kind)) {
+                    node = root(depth, attributes);
+                } else {
+                    throw new SAXException("No UML package at the root");
+                }
+            } else if (depth == 1 && wrapped) {
+                node = root == null && PACKAGE_KINDS.contains(kind)
+                        ? root(depth, attributes) : node(null, depth, false, true, null);
+            } else if ("packagedElement".equals(qName) && current != null && current.isPackage
+                    && !current.extra && current.depth == depth - 1) {
+                boolean isPackage = PACKAGE_KINDS.contains(kind);
+                String name = attributes.getValue("name");
+                String qualifiedName = null;
+                if (isPackage) {
+                    qualifiedName = current == root || current.qualifiedName == null
+                            ? name : current.qualifiedName + "." + name;
+                }
+                node = node(current, depth, isPackage, false, qualifiedName);
+            }
+
+            if (node != null) {
+                current = node;
+                if (writer != null && !kept.isWritten(node)) {
+                    skipped = 1;
+                    elements.add(current);
+                    return;
+                }
+            }
+            elements.add(current);
+
+            if (writer == null) {
+                index(current, attributes);
+            } else {
+                write("<" + qName);
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    write(" " + attributes.getQName(i) + "=\"");
+                    escape(attributes.getValue(i), true);
+                    write("\"");
+                }
+                write(">");
+            }
+        }
+
+        private Node root(int depth, Attributes attributes) {
+            root = node(null, depth, true, false, attributes.getValue("name"));
+            return root;
+        }
+
+        private Node node(Node parent, int depth, boolean isPackage, boolean extra, String qualifiedName) {
+            if (writer != null) {
+                return nodes.get(nextNode++);
+            }
+            Node node = new Node(parent, depth, isPackage, extra, qualifiedName);
+            nodes.add(node);
+            return node;
+        }
+
+        /**
+         * Records the id of the element and every local id its attributes may refer to, with the node
+         * containing it.
+         */
+        private void index(Node node, Attributes attributes) {
+            if (node == null) {
+                return;
+            }
+            String id = attributes.getValue("xmi:id");
+            if (id != null) {
+                List<Node> owners = ids.get(id);
+                if (owners == null) {
+                    owners = new ArrayList<>(1);
+                    ids.put(id, owners);
+                }
+                owners.add(node);
+            }
+            for (int i = 0; i < attributes.getLength(); i++) {
+                String name = attributes.getQName(i);
+                if (VALUE_ATTRIBUTES.contains(name) || name.startsWith("xmlns")) {
+                    continue;
+                }
+                for (String token : attributes.getValue(i).split("\\s+")) {
+                    int hash = token.indexOf('#');
+                    if (hash > 0) {
+                        // a reference into another resource
+                        continue;
+                    }
+                    token = token.substring(hash + 1);
+                    if (!token.isEmpty()) {
+                        node.references.add(token);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            elements.remove(elements.size() - 1);
+            if (skipped > 0) {
+                skipped--;
+                return;
+            }
+            write("</" + qName + ">");
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (skipped == 0 && writer != null) {
+                escape(new String(ch, start, length), false);
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            characters(ch, start, length);
+        }
+
+        private void escape(String text, boolean attribute) {
+            StringBuilder escaped = new StringBuilder(text.length() + 16);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '&':
+                        escaped.append("&amp;");
+                        break;
+                    case '<':
+                        escaped.append("&lt;");
+                        break;
+                    case '>':
+                        escaped.append("&gt;");
+                        break;
+                    case '"':
+                        escaped.append(attribute ? "&quot;" : "\"");
+                        break;
+                    case '\n':
+                        escaped.append(attribute ? "&#10;" : "\n");
+                        break;
+                    case '\r':
+                        escaped.append("&#13;");
+                        break;
+                    case '\t':
+                        escaped.append(attribute ? "&#9;" : "\t");
+                        break;
+                    default:
+                        escaped.append(c);
+                }
+            }
+            write(escaped.toString());
+        }
+
+        private void write(String text) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.write(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String kind(String xmiType, String qName) {
+            String type = xmiType != null ? xmiType : qName;
+            return type.substring(type.indexOf(':') + 1);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.eclipse.emf.example.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Qualified names of the packages a caller wants from a model, accepted by
+ * {@link ModelLoader#loadModel(java.io.File, LoadProfile, PackageSelection)}.
+ * <p>
+ * Names may use {@code .} or {@code ::} as separator and may include or leave out the name of
+ * the root package, e.g. {@code UML.Classification} or {@code Classification}.
+ * <p>
+ * The selected packages are kept whole, together with every element they reference, transitively,
+ * and the packages containing those. Everything else is cut from the XMI before EMF parses it, so
+ * that it is never turned into objects; only UML models can be loaded selectively.
+ */
+public final class PackageSelection {
+
+    private final Set<String> qualifiedNames;
+
+    private PackageSelection(Set<String> qualifiedNames) {
+        this.qualifiedNames = qualifiedNames;
+    }
+
+    public static PackageSelection of(String... qualifiedNames) {
+        return of(Arrays.asList(qualifiedNames));
+    }
+
+    public static PackageSelection of(Collection<String> qualifiedNames) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String qualifiedName : qualifiedNames) {
+            String name = qualifiedName.trim().replace("::", ".");
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("No package selected");
+        }
+        return new PackageSelection(Collections.unmodifiableSet(names));
+    }
+
+    public Set<String> getQualifiedNames() {
+        return qualifiedNames;
+    }
+
+    /**
+     * @return the XMI of {@code file} cut down to the selection, {@code null} if it selects the whole model
+     * @throws IllegalArgumentException if a selected name matches no package of the model
+     */
+    byte[] filter(File file) throws IOException {
+        return PackageFilter.filter(file, this);
+    }
+
+    @Override
+    public String toString() {
+        return qualifiedNames.toString();
+    }
+}
@@ -2,6 +2,7 @@ package org.eclipse.emf.example.models._class;
 
 
 import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.eclipse.emf.example.models._snapshot.ClassDiagramSnapshot;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -49,5 +50,12 @@ public class ClassDiagram implements Serializable {
         this.enumerations.add(enumeration);
     }
 
+    /**
+     * @return an immutable copy of the diagram that can be shared between threads
+     */
+    public ClassDiagramSnapshot freeze() {
+        return ClassDiagramSnapshot.of(this);
+    }
+
 
 }
@@ -0,0 +1,138 @@
+package org.eclipse.emf.example.models._diff;
+
+import org.eclipse.emf.example.models._class.ClassAttribute;
+import org.eclipse.emf.example.models._class.ClassOperation;
+import org.eclipse.emf.example.models._class.ClassRelation;
+import org.eclipse.emf.example.models._class.ClassStructure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClassChange {
+
+    private ClassStructure before;
+    private ClassStructure after;
+    private boolean declarationChanged;
+    private List<ClassAttribute> addedAttributes = new ArrayList<>();
+    private List<ClassAttribute> removedAttributes = new ArrayList<>();
+    private List<ClassAttribute> changedAttributes = new ArrayList<>();
+    private List<ClassOperation> addedOperations = new ArrayList<>();
+    private List<ClassOperation> removedOperations = new ArrayList<>();
+    private List<ClassOperation> changedOperations = new ArrayList<>();
+    private List<ClassRelation> addedRelations = new ArrayList<>();
+    private List<ClassRelation> removedRelations = new ArrayList<>();
+
+    public ClassChange() {
+    }
+
+    public ClassChange(ClassStructure before, ClassStructure after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public boolean isEmpty() {
+        return !declarationChanged
+                && addedAttributes.isEmpty() && removedAttributes.isEmpty() && changedAttributes.isEmpty()
+                && addedOperations.isEmpty() && removedOperations.isEmpty() && changedOperations.isEmpty()
+                && addedRelations.isEmpty() && removedRelations.isEmpty();
+    }
+
+    public ClassStructure getBefore() {
+        return before;
+    }
+
+    public void setBefore(ClassStructure before) {
+        this.before = before;
+    }
+
+    public ClassStructure getAfter() {
+        return after;
+    }
+
+    public void setAfter(ClassStructure after) {
+        this.after = after;
+    }
+
+    /**
+     * @return whether visibility, abstract or final, super classes or rules of the class changed
+     */
+    public boolean isDeclarationChanged() {
+        return declarationChanged;
+    }
+
+    public void setDeclarationChanged(boolean declarationChanged) {
+        this.declarationChanged = declarationChanged;
+    }
+
+    public List<ClassAttribute> getAddedAttributes() {
+        return addedAttributes;
+    }
+
+    public void setAddedAttributes(List<ClassAttribute> addedAttributes) {
+        this.addedAttributes = addedAttributes;
+    }
+
+    public List<ClassAttribute> getRemovedAttributes() {
+        return removedAttributes;
+    }
+
+    public void setRemovedAttributes(List<ClassAttribute> removedAttributes) {
+        this.removedAttributes = removedAttributes;
+    }
+
+    /**
+     * @return the new version of every attribute whose name stayed but whose type, visibility or
+     * multiplicity changed
+     */
+    public List<ClassAttribute> getChangedAttributes() {
+        return changedAttributes;
+    }
+
+    public void setChangedAttributes(List<ClassAttribute> changedAttributes) {
+        this.changedAttributes = changedAttributes;
+    }
+
+    public List<ClassOperation> getAddedOperations() {
+        return addedOperations;
+    }
+
+    public void setAddedOperations(List<ClassOperation> addedOperations) {
+        this.addedOperations = addedOperations;
+    }
+
+    public List<ClassOperation> getRemovedOperations() {
+        return removedOperations;
+    }
+
+    public void setRemovedOperations(List<ClassOperation> removedOperations) {
+        this.removedOperations = removedOperations;
+    }
+
+    /**
+     * @return the new version of every operation whose name and parameter types stayed but whose
+     * return type, visibility, modifiers or parameter names changed
+     */
+    public List<ClassOperation> getChangedOperations() {
+        return changedOperations;
+    }
+
+    public void setChangedOperations(List<ClassOperation> changedOperations) {
+        this.changedOperations = changedOperations;
+    }
+
+    public List<ClassRelation> getAddedRelations() {
+        return addedRelations;
+    }
+
+    public void setAddedRelations(List<ClassRelation> addedRelations) {
+        this.addedRelations = addedRelations;
+    }
+
+    public List<ClassRelation> getRemovedRelations() {
+        return removedRelations;
+    }
+
+    public void setRemovedRelations(List<ClassRelation> removedRelations) {
+        this.removedRelations = removedRelations;
+    }
+}
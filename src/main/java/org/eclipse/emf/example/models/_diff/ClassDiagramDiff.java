@@ -0,0 +1,73 @@
+package org.eclipse.emf.example.models._diff;
+
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClassDiagramDiff {
+
+    private List<ClassStructure> addedClasses = new ArrayList<>();
+    private List<ClassStructure> removedClasses = new ArrayList<>();
+    private List<ClassChange> changedClasses = new ArrayList<>();
+    private List<EnumStructure> addedEnumerations = new ArrayList<>();
+    private List<EnumStructure> removedEnumerations = new ArrayList<>();
+    private List<EnumStructure> changedEnumerations = new ArrayList<>();
+
+    public boolean isEmpty() {
+        return addedClasses.isEmpty() && removedClasses.isEmpty() && changedClasses.isEmpty()
+                && addedEnumerations.isEmpty() && removedEnumerations.isEmpty() && changedEnumerations.isEmpty();
+    }
+
+    public List<ClassStructure> getAddedClasses() {
+        return addedClasses;
+    }
+
+    public void setAddedClasses(List<ClassStructure> addedClasses) {
+        this.addedClasses = addedClasses;
+    }
+
+    public List<ClassStructure> getRemovedClasses() {
+        return removedClasses;
+    }
+
+    public void setRemovedClasses(List<ClassStructure> removedClasses) {
+        this.removedClasses = removedClasses;
+    }
+
+    public List<ClassChange> getChangedClasses() {
+        return changedClasses;
+    }
+
+    public void setChangedClasses(List<ClassChange> changedClasses) {
+        this.changedClasses = changedClasses;
+    }
+
+    public List<EnumStructure> getAddedEnumerations() {
+        return addedEnumerations;
+    }
+
+    public void setAddedEnumerations(List<EnumStructure> addedEnumerations) {
+        this.addedEnumerations = addedEnumerations;
+    }
+
+    public List<EnumStructure> getRemovedEnumerations() {
+        return removedEnumerations;
+    }
+
+    public void setRemovedEnumerations(List<EnumStructure> removedEnumerations) {
+        this.removedEnumerations = removedEnumerations;
+    }
+
+    /**
+     * @return the new version of every enumeration whose literals changed
+     */
+    public List<EnumStructure> getChangedEnumerations() {
+        return changedEnumerations;
+    }
+
+    public void setChangedEnumerations(List<EnumStructure> changedEnumerations) {
+        this.changedEnumerations = changedEnumerations;
+    }
+}
@@ -0,0 +1,88 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.ClassAttribute;
+
+import java.util.Objects;
+
+public final class AttributeSnapshot {
+    private final String name;
+    private final String type;
+    private final String visibility;
+    private final boolean isClass;
+    private final boolean isEnum;
+    private final boolean isCollection;
+    private final boolean isStatic;
+
+    private AttributeSnapshot(ClassAttribute attribute) {
+        this.name = attribute.getName();
+        this.type = attribute.getType();
+        this.visibility = attribute.getVisibility();
+        this.isClass = attribute.isClass();
+        this.isEnum = attribute.isEnum();
+        this.isCollection = attribute.isCollection();
+        this.isStatic = attribute.isStatic();
+    }
+
+    public static AttributeSnapshot of(ClassAttribute attribute) {
+        return new AttributeSnapshot(attribute);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getVisibility() {
+        return visibility;
+    }
+
+    public boolean isClass() {
+        return isClass;
+    }
+
+    public boolean isEnum() {
+        return isEnum;
+    }
+
+    public boolean isCollection() {
+        return isCollection;
+    }
+
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    public ClassAttribute toClassAttribute() {
+        ClassAttribute attribute = new ClassAttribute();
+        attribute.setName(name);
+        attribute.setType(type);
+        attribute.setVisibility(visibility);
+        attribute.setClass(isClass);
+        attribute.setEnum(isEnum);
+        attribute.setCollection(isCollection);
+        attribute.setStatic(isStatic);
+        return attribute;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AttributeSnapshot)) {
+            return false;
+        }
+        AttributeSnapshot that = (AttributeSnapshot) o;
+        return isClass == that.isClass && isEnum == that.isEnum && isCollection == that.isCollection
+                && isStatic == that.isStatic && Objects.equals(name, that.name) && Objects.equals(type, that.type)
+                && Objects.equals(visibility, that.visibility);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, type, visibility, isClass, isEnum, isCollection, isStatic);
+    }
+}
@@ -0,0 +1,276 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassInstance;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+
+import java.util.*;
+
+/**
+ * An immutable copy of a {@link ClassDiagram}, see {@link ClassDiagram#freeze()}. Every field of the
+ * snapshot and of its classes, enumerations and instances is final and every list is unmodifiable, so a
+ * snapshot can be published to and read by any number of threads without copying or locking.
+ * <p>
+ * Updates return a new snapshot that shares everything the update leaves unchanged: replacing a class
+ * copies the list of class references, not the classes, and keeps the lookups of the previous snapshot.
+ * Classes, enumerations and instances are looked up by qualified name; the first of a name wins.
+ */
+public final class ClassDiagramSnapshot {
+
+    private final List<ClassSnapshot> classes;
+    private final List<EnumSnapshot> enumerations;
+    private final List<InstanceSnapshot> instances;
+
+    private final Map<String, Integer> classIds;
+    private final Map<String, Integer> enumerationIds;
+    private final Map<String, Integer> instanceIds;
+    private final Map<String, List<InstanceSnapshot>> instancesByClass;
+
+    private ClassDiagramSnapshot(List<ClassSnapshot> classes, List<EnumSnapshot> enumerations,
+                                 List<InstanceSnapshot> instances, Map<String, Integer> classIds,
+                                 Map<String, Integer> enumerationIds, Map<String, Integer> instanceIds,
+                                 Map<String, List<InstanceSnapshot>> instancesByClass) {
+        this.classes = classes;
+        this.enumerations = enumerations;
+        this.instances = instances;
+        this.classIds = classIds != null ? classIds : classIds(classes);
+        this.enumerationIds = enumerationIds != null ? enumerationIds : enumerationIds(enumerations);
+        this.instanceIds = instanceIds != null ? instanceIds : instanceIds(instances);
+        this.instancesByClass = instancesByClass != null ? instancesByClass : instancesByClass(instances);
+    }
+
+    public static ClassDiagramSnapshot of(ClassDiagram classDiagram) {
+        return of(classDiagram, null);
+    }
+
+    /**
+     * Freezes {@code classDiagram}, reusing the classes, enumerations and instances of {@code previous}
+     * that did not change, so that consumers of both snapshots can tell them apart by identity.
+     *
+     * @param previous a snapshot of an earlier extraction of the same model, or {@code null}
+     */
+    public static ClassDiagramSnapshot of(ClassDiagram classDiagram, ClassDiagramSnapshot previous) {
+        List<ClassSnapshot> classes = new ArrayList<>(classDiagram.getClasses().size());
+        for (ClassStructure classStructure : classDiagram.getClasses()) {
+            ClassSnapshot classSnapshot = ClassSnapshot.of(classStructure);
+            ClassSnapshot previousClass = previous != null ? previous.getClass(classSnapshot.getQualifiedName()) : null;
+            classes.add(classSnapshot.equals(previousClass) ? previousClass : classSnapshot);
+        }
+        List<EnumSnapshot> enumerations = new ArrayList<>(classDiagram.getEnumerations().size());
+        for (EnumStructure enumStructure : classDiagram.getEnumerations()) {
+            EnumSnapshot enumSnapshot = EnumSnapshot.of(enumStructure);
+            EnumSnapshot previousEnum = previous != null ? previous.getEnumeration(enumSnapshot.getQualifiedName()) : null;
+            enumerations.add(enumSnapshot.equals(previousEnum) ? previousEnum : enumSnapshot);
+        }
+        List<InstanceSnapshot> instances = new ArrayList<>(classDiagram.getInstances().size());
+        for (ClassInstance classInstance : classDiagram.getInstances()) {
+            InstanceSnapshot instanceSnapshot = InstanceSnapshot.of(classInstance);
+            InstanceSnapshot previousInstance = previous != null ? previous.getInstance(instanceSnapshot.getQualifiedName()) : null;
+            instances.add(instanceSnapshot.equals(previousInstance) ? previousInstance : instanceSnapshot);
+        }
+
+        if (previous != null && classes.equals(previous.classes) && enumerations.equals(previous.enumerations)
+                && instances.equals(previous.instances)) {
+            return previous;
+        }
+        return new ClassDiagramSnapshot(Snapshots.list(classes), Snapshots.list(enumerations),
+                Snapshots.list(instances), null, null, null, null);
+    }
+
+    public List<ClassSnapshot> getClasses() {
+        return classes;
+    }
+
+    public List<EnumSnapshot> getEnumerations() {
+        return enumerations;
+    }
+
+    public List<InstanceSnapshot> getInstances() {
+        return instances;
+    }
+
+    /**
+     * @return the class named {@code qualifiedName}, e.g. {@code UML.Classification.Property}, or {@code null}
+     */
+    public ClassSnapshot getClass(String qualifiedName) {
+        Integer id = classIds.get(qualifiedName);
+        return id != null ? classes.get(id) : null;
+    }
+
+    public EnumSnapshot getEnumeration(String qualifiedName) {
+        Integer id = enumerationIds.get(qualifiedName);
+        return id != null ? enumerations.get(id) : null;
+    }
+
+    public InstanceSnapshot getInstance(String qualifiedName) {
+        Integer id = instanceIds.get(qualifiedName);
+        return id != null ? instances.get(id) : null;
+    }
+
+    /**
+     * @return the direct super classes of {@code classSnapshot} in this snapshot; those outside the diagram
+     * are only named by {@link ClassSnapshot#getSuperClassNames()}
+     */
+    public List<ClassSnapshot> getSuperClasses(ClassSnapshot classSnapshot) {
+        List<ClassSnapshot> superClasses = new ArrayList<>(classSnapshot.getSuperClassNames().size());
+        for (String superClassName : classSnapshot.getSuperClassNames()) {
+            ClassSnapshot superClass = getClass(superClassName);
+            if (superClass != null) {
+                superClasses.add(superClass);
+            }
+        }
+        return superClasses;
+    }
+
+    public List<InstanceSnapshot> getInstances(ClassSnapshot classSnapshot) {
+        List<InstanceSnapshot> classInstances = instancesByClass.get(classSnapshot.getQualifiedName());
+        return classInstances != null ? classInstances : Collections.<InstanceSnapshot>emptyList();
+    }
+
+    public ClassDiagramSnapshot withClass(ClassStructure classStructure) {
+        return withClass(ClassSnapshot.of(classStructure));
+    }
+
+    /**
+     * @return a snapshot with {@code classSnapshot} replacing the class of the same qualified name, or
+     * added after the other classes if there is none
+     */
+    public ClassDiagramSnapshot withClass(ClassSnapshot classSnapshot) {
+        Integer id = classIds.get(classSnapshot.getQualifiedName());
+        if (id != null && classes.get(id).equals(classSnapshot)) {
+            return this;
+        }
+        return new ClassDiagramSnapshot(Snapshots.with(classes, id != null ? id : -1, classSnapshot), enumerations,
+                instances, id != null ? classIds : null, enumerationIds, instanceIds, instancesByClass);
+    }
+
+    public ClassDiagramSnapshot withoutClass(String qualifiedName) {
+        Integer id = classIds.get(qualifiedName);
+        if (id == null) {
+            return this;
+        }
+        return new ClassDiagramSnapshot(Snapshots.without(classes, id), enumerations, instances, null,
+                enumerationIds, instanceIds, instancesByClass);
+    }
+
+    public ClassDiagramSnapshot withEnumeration(EnumSnapshot enumSnapshot) {
+        Integer id = enumerationIds.get(enumSnapshot.getQualifiedName());
+        if (id != null && enumerations.get(id).equals(enumSnapshot)) {
+            return this;
+        }
+        return new ClassDiagramSnapshot(classes, Snapshots.with(enumerations, id != null ? id : -1, enumSnapshot),
+                instances, classIds, id != null ? enumerationIds : null, instanceIds, instancesByClass);
+    }
+
+    public ClassDiagramSnapshot withoutEnumeration(String qualifiedName) {
+        Integer id = enumerationIds.get(qualifiedName);
+        if (id == null) {
+            return this;
+        }
+        return new ClassDiagramSnapshot(classes, Snapshots.without(enumerations, id), instances, classIds, null,
+                instanceIds, instancesByClass);
+    }
+
+    public ClassDiagramSnapshot withInstance(InstanceSnapshot instanceSnapshot) {
+        Integer id = instanceIds.get(instanceSnapshot.getQualifiedName());
+        if (id != null && instances.get(id).equals(instanceSnapshot)) {
+            return this;
+        }
+        return new ClassDiagramSnapshot(classes, enumerations,
+                Snapshots.with(instances, id != null ? id : -1, instanceSnapshot), classIds, enumerationIds,
+                id != null ? instanceIds : null, null);
+    }
+
+    public ClassDiagramSnapshot withoutInstance(String qualifiedName) {
+        Integer id = instanceIds.get(qualifiedName);
+        if (id == null) {
+            return this;
+        }
+        return new ClassDiagramSnapshot(classes, enumerations, Snapshots.without(instances, id), classIds,
+                enumerationIds, null, null);
+    }
+
+    /**
+     * @return a new, mutable {@link ClassDiagram} with the contents of the snapshot, super classes and
+     * instances linked as in a diagram read from a model
+     */
+    public ClassDiagram toClassDiagram() {
+        ClassDiagram classDiagram = new ClassDiagram();
+        for (ClassSnapshot classSnapshot : classes) {
+            classDiagram.addClass(classSnapshot.toClassStructure());
+        }
+        for (EnumSnapshot enumSnapshot : enumerations) {
+            classDiagram.addEnumeration(enumSnapshot.toEnumStructure());
+        }
+        for (InstanceSnapshot instanceSnapshot : instances) {
+            classDiagram.addInstance(instanceSnapshot.toClassInstance());
+        }
+
+        for (int i = 0; i < classes.size(); i++) {
+            List<String> superClassNames = classes.get(i).getSuperClassNames();
+            List<ClassStructure> superClasses = classDiagram.getClasses().get(i).getSuperClasses();
+            for (int j = 0; j < superClassNames.size(); j++) {
+                Integer id = classIds.get(superClassNames.get(j));
+                if (id != null) {
+                    superClasses.set(j, classDiagram.getClasses().get(id));
+                }
+            }
+        }
+        for (int i = 0; i < instances.size(); i++) {
+            for (String className : instances.get(i).getClassNames()) {
+                Integer id = classIds.get(className);
+                if (id != null) {
+                    classDiagram.getClasses().get(id).addInstance(classDiagram.getInstances().get(i));
+                }
+            }
+        }
+        return classDiagram;
+    }
+
+    private static Map<String, Integer> classIds(List<ClassSnapshot> classes) {
+        Map<String, Integer> ids = new HashMap<>(capacity(classes.size()));
+        for (int id = 0; id < classes.size(); id++) {
+            ids.putIfAbsent(classes.get(id).getQualifiedName(), id);
+        }
+        return Collections.unmodifiableMap(ids);
+    }
+
+    private static Map<String, Integer> enumerationIds(List<EnumSnapshot> enumerations) {
+        Map<String, Integer> ids = new HashMap<>(capacity(enumerations.size()));
+        for (int id = 0; id < enumerations.size(); id++) {
+            ids.putIfAbsent(enumerations.get(id).getQualifiedName(), id);
+        }
+        return Collections.unmodifiableMap(ids);
+    }
+
+    private static Map<String, Integer> instanceIds(List<InstanceSnapshot> instances) {
+        Map<String, Integer> ids = new HashMap<>(capacity(instances.size()));
+        for (int id = 0; id < instances.size(); id++) {
+            ids.putIfAbsent(instances.get(id).getQualifiedName(), id);
+        }
+        return Collections.unmodifiableMap(ids);
+    }
+
+    private static Map<String, List<InstanceSnapshot>> instancesByClass(List<InstanceSnapshot> instances) {
+        Map<String, List<InstanceSnapshot>> instancesByClass = new HashMap<>();
+        for (InstanceSnapshot instanceSnapshot : instances) {
+            for (String className : instanceSnapshot.getClassNames()) {
+                List<InstanceSnapshot> classInstances = instancesByClass.get(className);
+                if (classInstances == null) {
+                    classInstances = new ArrayList<>(2);
+                    instancesByClass.put(className, classInstances);
+                }
+                classInstances.add(instanceSnapshot);
+            }
+        }
+        for (Map.Entry<String, List<InstanceSnapshot>> entry : instancesByClass.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(instancesByClass);
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+}
@@ -0,0 +1,179 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.util.QualifiedNames;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable copy of a {@link ClassStructure}. Super classes are referenced by qualified name and
+ * instances are found through the {@link ClassDiagramSnapshot}, so a class stays valid, and can be shared
+ * between snapshots, when the classes it refers to are replaced.
+ */
+public final class ClassSnapshot {
+    private final String _package;
+    private final String name;
+    private final String visibility;
+    private final boolean _abstract;
+    private final boolean _final;
+    private final List<String> rules;
+    private final List<String> superClassNames;
+    private final List<String> superClassPackages;
+    private final List<AttributeSnapshot> attributes;
+    private final List<OperationSnapshot> operations;
+    private final List<RelationSnapshot> relationships;
+
+    private ClassSnapshot(ClassStructure classStructure) {
+        this._package = classStructure.getPackage();
+        this.name = classStructure.getName();
+        this.visibility = classStructure.getVisibility();
+        this._abstract = classStructure.isAbstract();
+        this._final = classStructure.isFinal();
+        this.rules = Snapshots.list(classStructure.getRules());
+
+        List<String> superClassNames = new ArrayList<>(classStructure.getSuperClasses().size());
+        List<String> superClassPackages = new ArrayList<>(classStructure.getSuperClasses().size());
+        for (ClassStructure superClass : classStructure.getSuperClasses()) {
+            if (superClass != null) {
+                superClassNames.add(QualifiedNames.of(superClass.getPackage(), superClass.getName()));
+                superClassPackages.add(superClass.getPackage());
+            }
+        }
+        this.superClassNames = Snapshots.list(superClassNames);
+        this.superClassPackages = Snapshots.list(superClassPackages);
+
+        List<AttributeSnapshot> attributes = new ArrayList<>(classStructure.getAttributes().size());
+        for (ClassAttribute attribute : classStructure.getAttributes()) {
+            attributes.add(AttributeSnapshot.of(attribute));
+        }
+        this.attributes = Snapshots.list(attributes);
+
+        List<OperationSnapshot> operations = new ArrayList<>(classStructure.getOperations().size());
+        for (ClassOperation operation : classStructure.getOperations()) {
+            operations.add(OperationSnapshot.of(operation));
+        }
+        this.operations = Snapshots.list(operations);
+
+        List<RelationSnapshot> relationships = new ArrayList<>(classStructure.getRelationships().size());
+        for (ClassRelation relation : classStructure.getRelationships()) {
+            relationships.add(RelationSnapshot.of(relation));
+        }
+        this.relationships = Snapshots.list(relationships);
+    }
+
+    public static ClassSnapshot of(ClassStructure classStructure) {
+        return new ClassSnapshot(classStructure);
+    }
+
+    public String getPackage() {
+        return _package;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getQualifiedName() {
+        return QualifiedNames.of(_package, name);
+    }
+
+    public String getVisibility() {
+        return visibility;
+    }
+
+    public boolean isAbstract() {
+        return _abstract;
+    }
+
+    public boolean isFinal() {
+        return _final;
+    }
+
+    public List<String> getRules() {
+        return rules;
+    }
+
+    /**
+     * @return the qualified names of the direct super classes, including those outside the diagram
+     */
+    public List<String> getSuperClassNames() {
+        return superClassNames;
+    }
+
+    public List<AttributeSnapshot> getAttributes() {
+        return attributes;
+    }
+
+    public List<OperationSnapshot> getOperations() {
+        return operations;
+    }
+
+    public List<RelationSnapshot> getRelationships() {
+        return relationships;
+    }
+
+    /**
+     * @return the class with placeholder super classes holding only a package and name, and no instances
+     */
+    public ClassStructure toClassStructure() {
+        ClassStructure classStructure = new ClassStructure();
+        classStructure.setPackage(_package);
+        classStructure.setName(name);
+        classStructure.setVisibility(visibility);
+        classStructure.setAbstract(_abstract);
+        classStructure.setFinal(_final);
+        for (String rule : rules) {
+            classStructure.addRules(rule);
+        }
+        for (int i = 0; i < superClassNames.size(); i++) {
+            classStructure.addSuperClass(placeholder(superClassPackages.get(i), superClassNames.get(i)));
+        }
+        for (AttributeSnapshot attribute : attributes) {
+            classStructure.addAttribute(attribute.toClassAttribute());
+        }
+        for (OperationSnapshot operation : operations) {
+            classStructure.addOperation(operation.toClassOperation());
+        }
+        for (RelationSnapshot relation : relationships) {
+            classStructure.addRelationship(relation.toClassRelation());
+        }
+        return classStructure;
+    }
+
+    /**
+     * @param _package the package as read, kept apart since {@link QualifiedNames#of(String, String)} drops
+     *                 an empty one
+     */
+    static ClassStructure placeholder(String _package, String qualifiedName) {
+        ClassStructure placeholder = new ClassStructure();
+        placeholder.setPackage(_package);
+        placeholder.setName(_package == null || _package.isEmpty() || qualifiedName == null
+                ? qualifiedName : qualifiedName.substring(_package.length() + 1));
+        return placeholder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ClassSnapshot)) {
+            return false;
+        }
+        ClassSnapshot that = (ClassSnapshot) o;
+        return _abstract == that._abstract && _final == that._final && Objects.equals(_package, that._package)
+                && Objects.equals(name, that.name) && Objects.equals(visibility, that.visibility)
+                && rules.equals(that.rules) && superClassNames.equals(that.superClassNames)
+                && superClassPackages.equals(that.superClassPackages)
+                && attributes.equals(that.attributes) && operations.equals(that.operations)
+                && relationships.equals(that.relationships);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(_package, name, visibility, _abstract, _final, rules, superClassNames,
+                superClassPackages, attributes, operations, relationships);
+    }
+}
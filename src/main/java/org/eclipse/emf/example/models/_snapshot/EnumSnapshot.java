@@ -0,0 +1,67 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.eclipse.emf.example.util.QualifiedNames;
+
+import java.util.List;
+import java.util.Objects;
+
+public final class EnumSnapshot {
+    private final String _package;
+    private final String name;
+    private final List<String> literals;
+
+    private EnumSnapshot(EnumStructure enumStructure) {
+        this._package = enumStructure.getPackage();
+        this.name = enumStructure.getName();
+        this.literals = Snapshots.list(enumStructure.getLiterals());
+    }
+
+    public static EnumSnapshot of(EnumStructure enumStructure) {
+        return new EnumSnapshot(enumStructure);
+    }
+
+    public String getPackage() {
+        return _package;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getQualifiedName() {
+        return QualifiedNames.of(_package, name);
+    }
+
+    public List<String> getLiterals() {
+        return literals;
+    }
+
+    public EnumStructure toEnumStructure() {
+        EnumStructure enumStructure = new EnumStructure();
+        enumStructure.setPackage(_package);
+        enumStructure.setName(name);
+        for (String literal : literals) {
+            enumStructure.addLiteral(literal);
+        }
+        return enumStructure;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EnumSnapshot)) {
+            return false;
+        }
+        EnumSnapshot that = (EnumSnapshot) o;
+        return Objects.equals(_package, that._package) && Objects.equals(name, that.name)
+                && literals.equals(that.literals);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(_package, name, literals);
+    }
+}
@@ -0,0 +1,80 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.InstanceAttribute;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A slot of an instance. Its values are the strings, numbers and booleans the readers extract.
+ */
+public final class InstanceAttributeSnapshot {
+    private final String name;
+    private final String type;
+    private final List<Object> values;
+    private final boolean isClass;
+    private final boolean isEnum;
+    private final boolean isCollection;
+
+    private InstanceAttributeSnapshot(InstanceAttribute attribute) {
+        this.name = attribute.getName();
+        this.type = attribute.getType();
+        this.values = attribute.getValues() != null
+                ? Snapshots.list(Arrays.asList(attribute.getValues())) : Collections.emptyList();
+        this.isClass = attribute.isClass();
+        this.isEnum = attribute.isEnum();
+        this.isCollection = attribute.isCollection();
+    }
+
+    public static InstanceAttributeSnapshot of(InstanceAttribute attribute) {
+        return new InstanceAttributeSnapshot(attribute);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    public boolean isClass() {
+        return isClass;
+    }
+
+    public boolean isEnum() {
+        return isEnum;
+    }
+
+    public boolean isCollection() {
+        return isCollection;
+    }
+
+    public InstanceAttribute toInstanceAttribute() {
+        return new InstanceAttribute(name, type, values.toArray(), isClass, isEnum, isCollection);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InstanceAttributeSnapshot)) {
+            return false;
+        }
+        InstanceAttributeSnapshot that = (InstanceAttributeSnapshot) o;
+        return isClass == that.isClass && isEnum == that.isEnum && isCollection == that.isCollection
+                && Objects.equals(name, that.name) && Objects.equals(type, that.type) && values.equals(that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, type, values, isClass, isEnum, isCollection);
+    }
+}
@@ -0,0 +1,98 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.ClassInstance;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.models._class.InstanceAttribute;
+import org.eclipse.emf.example.util.QualifiedNames;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class InstanceSnapshot {
+    private final String _package;
+    private final String name;
+    private final List<String> classNames;
+    private final List<String> classPackages;
+    private final List<InstanceAttributeSnapshot> attributes;
+
+    private InstanceSnapshot(ClassInstance classInstance) {
+        this._package = classInstance.get_package();
+        this.name = classInstance.getName();
+        List<String> classNames = new ArrayList<>(classInstance.getClasses().size());
+        List<String> classPackages = new ArrayList<>(classInstance.getClasses().size());
+        for (ClassStructure classStructure : classInstance.getClasses()) {
+            classNames.add(QualifiedNames.of(classStructure.getPackage(), classStructure.getName()));
+            classPackages.add(classStructure.getPackage());
+        }
+        this.classNames = Snapshots.list(classNames);
+        this.classPackages = Snapshots.list(classPackages);
+        List<InstanceAttributeSnapshot> attributes = new ArrayList<>(classInstance.getAttributes().size());
+        for (InstanceAttribute attribute : classInstance.getAttributes()) {
+            attributes.add(InstanceAttributeSnapshot.of(attribute));
+        }
+        this.attributes = Snapshots.list(attributes);
+    }
+
+    public static InstanceSnapshot of(ClassInstance classInstance) {
+        return new InstanceSnapshot(classInstance);
+    }
+
+    public String getPackage() {
+        return _package;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getQualifiedName() {
+        return QualifiedNames.of(_package, name);
+    }
+
+    /**
+     * @return the qualified names of the classifiers of the instance
+     */
+    public List<String> getClassNames() {
+        return classNames;
+    }
+
+    public List<InstanceAttributeSnapshot> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return the instance with placeholder classifiers holding only a package and name
+     */
+    public ClassInstance toClassInstance() {
+        ClassInstance classInstance = new ClassInstance();
+        classInstance.set_package(_package);
+        classInstance.setName(name);
+        for (int i = 0; i < classNames.size(); i++) {
+            classInstance.getClasses().add(ClassSnapshot.placeholder(classPackages.get(i), classNames.get(i)));
+        }
+        for (InstanceAttributeSnapshot attribute : attributes) {
+            classInstance.addAttribute(attribute.toInstanceAttribute());
+        }
+        return classInstance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InstanceSnapshot)) {
+            return false;
+        }
+        InstanceSnapshot that = (InstanceSnapshot) o;
+        return Objects.equals(_package, that._package) && Objects.equals(name, that.name)
+                && classNames.equals(that.classNames) && classPackages.equals(that.classPackages)
+                && attributes.equals(that.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(_package, name, classNames, classPackages, attributes);
+    }
+}
@@ -0,0 +1,115 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.ClassOperation;
+import org.eclipse.emf.example.models._class.OperationParameter;
+import org.eclipse.emf.example.models._class.OperationReturn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class OperationSnapshot {
+    private final String name;
+    private final String visibility;
+    private final boolean _abstract;
+    private final boolean _final;
+    private final boolean returns;
+    private final String returnType;
+    private final boolean returnClass;
+    private final boolean returnCollection;
+    private final List<ParameterSnapshot> parameters;
+
+    private OperationSnapshot(ClassOperation operation) {
+        this.name = operation.getName();
+        this.visibility = operation.getVisibility();
+        this._abstract = operation.isAbstract();
+        this._final = operation.isFinal();
+        OperationReturn operationReturn = operation.getReturnType();
+        this.returns = operationReturn != null;
+        this.returnType = returns ? operationReturn.getType() : null;
+        this.returnClass = returns && operationReturn.isClass();
+        this.returnCollection = returns && operationReturn.isCollection();
+        List<ParameterSnapshot> parameters = new ArrayList<>(operation.getParameters().size());
+        for (OperationParameter parameter : operation.getParameters()) {
+            parameters.add(ParameterSnapshot.of(parameter));
+        }
+        this.parameters = Snapshots.list(parameters);
+    }
+
+    public static OperationSnapshot of(ClassOperation operation) {
+        return new OperationSnapshot(operation);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getVisibility() {
+        return visibility;
+    }
+
+    public boolean isAbstract() {
+        return _abstract;
+    }
+
+    public boolean isFinal() {
+        return _final;
+    }
+
+    /**
+     * @return whether the operation has a return; {@link #getReturnType()} may be {@code null} even then
+     */
+    public boolean hasReturn() {
+        return returns;
+    }
+
+    public String getReturnType() {
+        return returnType;
+    }
+
+    public boolean isReturnClass() {
+        return returnClass;
+    }
+
+    public boolean isReturnCollection() {
+        return returnCollection;
+    }
+
+    public List<ParameterSnapshot> getParameters() {
+        return parameters;
+    }
+
+    public ClassOperation toClassOperation() {
+        ClassOperation operation = new ClassOperation();
+        operation.setName(name);
+        operation.setVisibility(visibility);
+        operation.setAbstract(_abstract);
+        operation.setFinal(_final);
+        operation.setReturnType(returns ? new OperationReturn(returnType, returnClass, returnCollection) : null);
+        for (ParameterSnapshot parameter : parameters) {
+            operation.addParameter(parameter.toOperationParameter());
+        }
+        return operation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OperationSnapshot)) {
+            return false;
+        }
+        OperationSnapshot that = (OperationSnapshot) o;
+        return _abstract == that._abstract && _final == that._final && returns == that.returns
+                && returnClass == that.returnClass && returnCollection == that.returnCollection
+                && Objects.equals(name, that.name) && Objects.equals(visibility, that.visibility)
+                && Objects.equals(returnType, that.returnType) && parameters.equals(that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, visibility, _abstract, _final, returns, returnType, returnClass, returnCollection,
+                parameters);
+    }
+}
@@ -0,0 +1,73 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.OperationParameter;
+
+import java.util.Objects;
+
+public final class ParameterSnapshot {
+    private final String name;
+    private final String type;
+    private final String visibility;
+    private final boolean isClass;
+    private final boolean isCollection;
+
+    private ParameterSnapshot(OperationParameter parameter) {
+        this.name = parameter.getName();
+        this.type = parameter.getType();
+        this.visibility = parameter.getVisibility();
+        this.isClass = parameter.isClass();
+        this.isCollection = parameter.isCollection();
+    }
+
+    public static ParameterSnapshot of(OperationParameter parameter) {
+        return new ParameterSnapshot(parameter);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getVisibility() {
+        return visibility;
+    }
+
+    public boolean isClass() {
+        return isClass;
+    }
+
+    public boolean isCollection() {
+        return isCollection;
+    }
+
+    public OperationParameter toOperationParameter() {
+        OperationParameter parameter = new OperationParameter();
+        parameter.setName(name);
+        parameter.setType(type);
+        parameter.setVisibility(visibility);
+        parameter.setClass(isClass);
+        parameter.setCollection(isCollection);
+        return parameter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ParameterSnapshot)) {
+            return false;
+        }
+        ParameterSnapshot that = (ParameterSnapshot) o;
+        return isClass == that.isClass && isCollection == that.isCollection && Objects.equals(name, that.name)
+                && Objects.equals(type, that.type) && Objects.equals(visibility, that.visibility);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, type, visibility, isClass, isCollection);
+    }
+}
@@ -0,0 +1,127 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.ClassRelation;
+
+import java.util.Objects;
+
+public final class RelationSnapshot {
+    private final String type;
+    private final String class_1;
+    private final String class_2;
+    private final String role_Name_1;
+    private final String role_Name_2;
+    private final boolean navigable_1;
+    private final boolean navigable_2;
+    private final int multipcity_Lower_1;
+    private final int multipcity_Uper_1;
+    private final int multipcity_Lower_2;
+    private final int multipcity_Uper_2;
+    private final String visibility;
+
+    private RelationSnapshot(ClassRelation relation) {
+        this.type = relation.getType();
+        this.class_1 = relation.getClass_1();
+        this.class_2 = relation.getClass_2();
+        this.role_Name_1 = relation.getRole_Name_1();
+        this.role_Name_2 = relation.getRole_Name_2();
+        this.navigable_1 = relation.isNavigable_1();
+        this.navigable_2 = relation.isNavigable_2();
+        this.multipcity_Lower_1 = relation.getMultipcity_Lower_1();
+        this.multipcity_Uper_1 = relation.getMultipcity_Uper_1();
+        this.multipcity_Lower_2 = relation.getMultipcity_Lower_2();
+        this.multipcity_Uper_2 = relation.getMultipcity_Uper_2();
+        this.visibility = relation.getVisibility();
+    }
+
+    public static RelationSnapshot of(ClassRelation relation) {
+        return new RelationSnapshot(relation);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getClass_1() {
+        return class_1;
+    }
+
+    public String getClass_2() {
+        return class_2;
+    }
+
+    public String getRole_Name_1() {
+        return role_Name_1;
+    }
+
+    public String getRole_Name_2() {
+        return role_Name_2;
+    }
+
+    public boolean isNavigable_1() {
+        return navigable_1;
+    }
+
+    public boolean isNavigable_2() {
+        return navigable_2;
+    }
+
+    public int getMultipcity_Lower_1() {
+        return multipcity_Lower_1;
+    }
+
+    public int getMultipcity_Uper_1() {
+        return multipcity_Uper_1;
+    }
+
+    public int getMultipcity_Lower_2() {
+        return multipcity_Lower_2;
+    }
+
+    public int getMultipcity_Uper_2() {
+        return multipcity_Uper_2;
+    }
+
+    public String getVisibility() {
+        return visibility;
+    }
+
+    public ClassRelation toClassRelation() {
+        ClassRelation relation = new ClassRelation();
+        relation.setType(type);
+        relation.setClass_1(class_1);
+        relation.setClass_2(class_2);
+        relation.setRole_Name_1(role_Name_1);
+        relation.setRole_Name_2(role_Name_2);
+        relation.setNavigable_1(navigable_1);
+        relation.setNavigable_2(navigable_2);
+        relation.setMultipcity_Lower_1(multipcity_Lower_1);
+        relation.setMultipcity_Uper_1(multipcity_Uper_1);
+        relation.setMultipcity_Lower_2(multipcity_Lower_2);
+        relation.setMultipcity_Uper_2(multipcity_Uper_2);
+        relation.setVisibility(visibility);
+        return relation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RelationSnapshot)) {
+            return false;
+        }
+        RelationSnapshot that = (RelationSnapshot) o;
+        return navigable_1 == that.navigable_1 && navigable_2 == that.navigable_2
+                && multipcity_Lower_1 == that.multipcity_Lower_1 && multipcity_Uper_1 == that.multipcity_Uper_1
+                && multipcity_Lower_2 == that.multipcity_Lower_2 && multipcity_Uper_2 == that.multipcity_Uper_2
+                && Objects.equals(type, that.type) && Objects.equals(class_1, that.class_1)
+                && Objects.equals(class_2, that.class_2) && Objects.equals(role_Name_1, that.role_Name_1)
+                && Objects.equals(role_Name_2, that.role_Name_2) && Objects.equals(visibility, that.visibility);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, class_1, class_2, role_Name_1, role_Name_2, navigable_1, navigable_2,
+                multipcity_Lower_1, multipcity_Uper_1, multipcity_Lower_2, multipcity_Uper_2, visibility);
+    }
+}
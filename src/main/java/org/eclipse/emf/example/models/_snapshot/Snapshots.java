@@ -0,0 +1,35 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class Snapshots {
+
+    static <T> List<T> list(List<T> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    /**
+     * @return {@code values} with {@code value} at {@code index}, or appended for -1; unchanged elements are shared
+     */
+    static <T> List<T> with(List<T> values, int index, T value) {
+        List<T> copy = new ArrayList<>(values.size() + 1);
+        copy.addAll(values);
+        if (index >= 0) {
+            copy.set(index, value);
+        } else {
+            copy.add(value);
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    static <T> List<T> without(List<T> values, int index) {
+        List<T> copy = new ArrayList<>(values);
+        copy.remove(index);
+        return Collections.unmodifiableList(copy);
+    }
+}
@@ -1,8 +1,9 @@
 package org.eclipse.emf.example.reader;
 
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.reader.type.ProxyFragment;
+import org.eclipse.emf.example.reader.type.TypeDescriptor;
 import org.eclipse.emf.example.util.Keywords;
 import org.eclipse.uml2.uml.*;
 import org.eclipse.uml2.uml.Class;
@@ -15,6 +16,14 @@ public class ClassStructureReader {
 
 
     public static ClassStructure readClass(Element element, String packageName) {
+        return readClass(element, packageName, new ExtractionContext());
+    }
+
+    /**
+     * Reads {@code element} converting its members through {@code context}, so that members inherited
+     * by several classes of one extraction are converted only once.
+     */
+    public static ClassStructure readClass(Element element, String packageName, ExtractionContext context) {
         ClassStructure classStructure = new ClassStructure();
         Class _class = (Class) element;
         List<String> rules = new ArrayList<>();
@@ -33,8 +42,8 @@ public class ClassStructureReader {
         for (Class superClass : _class.getSuperClasses()) {
 
             ClassStructure superClassStructure = new ClassStructure();
-            classStructure.setName(superClass.getName());
-            classStructure.setPackage(superClass.getPackage().getName());
+            superClassStructure.setName(context.intern(superClass.getName()));
+            superClassStructure.setPackage(context.packageName(superClass.getPackage()));
             classStructure.getSuperClasses().add(superClassStructure);
 
         }
@@ -47,23 +56,23 @@ public class ClassStructureReader {
         classStructure.setRules(rules);
         classStructure.setAbstract(_class.isAbstract());
         classStructure.setFinal(_class.isLeaf());
-        classStructure.setName(_class.getName());
-        classStructure.setAttributes(readAttribute(_class.getOwnedAttributes()));
-        classStructure.setOperations(readClassOperations(_class.getOwnedOperations()));
-        classStructure.setRelationships(readClassRelations(_class.getRelationships()));
+        classStructure.setName(context.intern(_class.getName()));
+        classStructure.setAttributes(readAttribute(_class.getOwnedAttributes(), context));
+        classStructure.setOperations(readClassOperations(_class.getOwnedOperations(), context));
+        classStructure.setRelationships(readClassRelations(_class.getRelationships(), context));
 
 
         for (NamedElement inheritedElement : _class.getInheritedMembers()) {
 
             if (inheritedElement instanceof Property) {
                 Property property = (Property) inheritedElement;
-                ClassAttribute attribute = readAttribute(property);
+                ClassAttribute attribute = context.readAttribute(property);
                 if (attribute != null && attribute.getName() != null) {
                     classStructure.addAttribute(attribute);
                 }
             } else if (inheritedElement instanceof Operation) {
                 Operation operation = (Operation) inheritedElement;
-                ClassOperation classOperation = readClassOperation(operation);
+                ClassOperation classOperation = context.readClassOperation(operation);
                 if (classOperation != null) {
                     classStructure.addOperation(classOperation);
                 }
@@ -77,12 +86,17 @@ public class ClassStructureReader {
 
 
     public static ArrayList<ClassRelation> readClassRelations(EList<Relationship> classRelationships) {
+        return readClassRelations(classRelationships, new ExtractionContext());
+    }
+
+    public static ArrayList<ClassRelation> readClassRelations(EList<Relationship> classRelationships,
+                                                              ExtractionContext context) {
         ArrayList<ClassRelation> list = new ArrayList<>();
         for (Relationship relationship : classRelationships) {
             if (relationship.eClass() == UMLPackage.Literals.ASSOCIATION) {
-                list.add(readAssociation(relationship));
+                list.add(readAssociation(relationship, context));
             } else if (relationship.eClass() == UMLPackage.Literals.GENERALIZATION) {
-                list.add(readGeneralization(relationship));
+                list.add(readGeneralization(relationship, context));
             }
 
         }
@@ -91,11 +105,16 @@ public class ClassStructureReader {
 
 
     public static ArrayList<ClassOperation> readClassOperations(List<Operation> ownedOperations) {
+        return readClassOperations(ownedOperations, new ExtractionContext());
+    }
+
+    public static ArrayList<ClassOperation> readClassOperations(List<Operation> ownedOperations,
+                                                                ExtractionContext context) {
         ArrayList<ClassOperation> operations = new ArrayList<>();
         if (!ownedOperations.isEmpty()) {
             for (Operation operation : ownedOperations) {
 
-                ClassOperation classOperation = readClassOperation(operation);
+                ClassOperation classOperation = context.readClassOperation(operation);
                 if (classOperation != null) {
                     operations.add(classOperation);
                 }
@@ -106,9 +125,16 @@ public class ClassStructureReader {
     }
 
     public static ClassOperation readClassOperation(Operation operation) {
+        return readClassOperation(operation, new ExtractionContext());
+    }
+
+    /**
+     * Converts {@code operation}, resolving the types of its parameters through {@code context}.
+     */
+    public static ClassOperation readClassOperation(Operation operation, ExtractionContext context) {
 
         ClassOperation classOperation = new ClassOperation();
-        classOperation.setName(operation.getName());
+        classOperation.setName(context.intern(operation.getName()));
         classOperation.setVisibility(operation.getVisibility().toString());
         classOperation.setReturnType(new OperationReturn());
 
@@ -116,124 +142,25 @@ public class ClassStructureReader {
         if (!parameters.isEmpty()) {
             for (Parameter parameter : parameters) {
 
-                boolean returnType = false;
-
-
-                ParameterDirectionKind direction = parameter.getDirection();
-                if (direction != null && direction.getValue() == 3) {
-                    returnType = true;
+                TypeDescriptor type = context.resolveType(parameter.getType());
+                if (type == null) {
+                    continue;
                 }
+                boolean collection = type.isCollection(parameter.getUpper());
 
-                OperationParameter operationParameter = new OperationParameter();
-
-                if (parameter
-                        .getType() instanceof PrimitiveTypeImpl) {
-                    PrimitiveTypeImpl primitiveType = (PrimitiveTypeImpl) (parameter.getType());
-                    if (returnType) {
-                        if (primitiveType.getName() == null || primitiveType.getName().equals("")) {
-                            OperationReturn methodReturn = new OperationReturn();
-                            methodReturn.setType(primitiveType.eProxyURI().fragment());
-                            if (parameter.getUpper() == -1) {
-                                methodReturn.setCollection(true);
-                            }
-                            classOperation.setReturnType(methodReturn);
-                        } else {
-                            OperationReturn methodReturn = new OperationReturn();
-                            methodReturn.setType(primitiveType.getName());
-                            if (parameter.getUpper() == -1) {
-                                methodReturn.setCollection(true);
-                            }
-                            classOperation.setReturnType(methodReturn);
-
-                        }
-
-                    } else {
-                        operationParameter.setName(parameter.getName());
-
-                        if (primitiveType.getName() == null || primitiveType.getName().equals("")) {
-                            operationParameter.setType(primitiveType.eProxyURI().fragment());
-                            if (parameter.getUpper() == -1) {
-                                operationParameter.setCollection(true);
-                            }
-                        } else {
-                            if (parameter.getUpper() == -1) {
-                                operationParameter.setCollection(true);
-                            }
-                            operationParameter.setType(primitiveType.getName());
-                        }
-                        classOperation.getParameters().add(operationParameter);
-                    }
-                } else if (parameter
-                        .getType() instanceof Enumeration) {
-
-                    Enumeration enumeration = (Enumeration) (parameter.getType());
-
-                    if (returnType) {
-                        OperationReturn methodReturn = new OperationReturn();
-                        methodReturn.setType(enumeration.getName());
-                        if (parameter.getUpper() == -1) {
-                            methodReturn.setCollection(true);
-                        }
-                        classOperation.setReturnType(methodReturn);
-
-                    } else {
-
-                        operationParameter.setName(parameter.getName());
-                        operationParameter.setVisibility(parameter.getVisibility().toString());
-                        operationParameter.setType(enumeration.getName());
-                        if (parameter.getUpper() == -1) {
-                            operationParameter.setCollection(true);
-                        }
-                        classOperation.getParameters().add(operationParameter);
-                    }
-
-                } else if (parameter
-                        .getType() instanceof Class) {
-                    Class _class = (Class) (parameter.getType());
-                    if (returnType) {
-                        OperationReturn methodReturn = new OperationReturn();
-                        methodReturn.setType(_class.getName());
-                        methodReturn.setClass(true);
-                        if (parameter.getUpper() == -1) {
-                            methodReturn.setCollection(true);
-                        }
-                        classOperation.setReturnType(methodReturn);
-
-                    } else {
-
-                        operationParameter.setName(parameter.getName());
-                        operationParameter.setVisibility(parameter.getVisibility().toString());
-                        operationParameter.setType(_class.getName());
-                        operationParameter.setClass(true);
-
-                        if (parameter.getUpper() == -1) {
-                            operationParameter.setCollection(true);
-                        }
-                        classOperation.getParameters().add(operationParameter);
-                    }
-                } else if (parameter
-                        .getType() instanceof InterfaceImpl) {
-
-                    InterfaceImpl prim = (InterfaceImpl) (parameter.getType());
-                    URI proxy = prim.eProxyURI();
-                    String proxyFragment = proxy.fragment();
-                    String arrtibuteType = attributeInterface(proxyFragment);
-                    operationParameter.setType(arrtibuteType);
-
-                    if (returnType) {
-                        OperationReturn methodReturn = new OperationReturn();
-                        methodReturn.setType(arrtibuteType);
-                        if (operationParameter.isCollection()) {
-                            methodReturn.setCollection(true);
-                        }
-                        classOperation.setReturnType(methodReturn);
-
-                    } else {
-                        operationParameter.setType(arrtibuteType);
-                        operationParameter.setName(parameter.getName());
+                ParameterDirectionKind direction = parameter.getDirection();
+                if (direction == ParameterDirectionKind.RETURN_LITERAL) {
+                    classOperation.setReturnType(new OperationReturn(type.getName(), type.isClass(), collection));
+                } else {
+                    OperationParameter operationParameter = new OperationParameter();
+                    operationParameter.setName(context.intern(parameter.getName()));
+                    if (type.getKind() != TypeDescriptor.Kind.PRIMITIVE) {
                         operationParameter.setVisibility(parameter.getVisibility().toString());
-                        classOperation.getParameters().add(operationParameter);
                     }
+                    operationParameter.setType(type.getName());
+                    operationParameter.setClass(type.isClass());
+                    operationParameter.setCollection(collection);
+                    classOperation.getParameters().add(operationParameter);
                 }
 
             }
@@ -245,10 +172,14 @@ public class ClassStructureReader {
 
 
     public static List<ClassAttribute> readAttribute( EList<Property> ownedAttributes) {
+        return readAttribute(ownedAttributes, new ExtractionContext());
+    }
+
+    public static List<ClassAttribute> readAttribute(EList<Property> ownedAttributes, ExtractionContext context) {
         List<ClassAttribute> attributes = new ArrayList<>();
         if (!ownedAttributes.isEmpty()) {
             for (Property property : ownedAttributes) {
-                ClassAttribute attribute = readAttribute(property);
+                ClassAttribute attribute = context.readAttribute(property);
                 if (attribute != null && attribute.getName() != null) {
                     attributes.add(attribute);
                 }
@@ -258,65 +189,32 @@ public class ClassStructureReader {
     }
 
     public static ClassAttribute readAttribute(Property property) {
+        return readAttribute(property, new ExtractionContext());
+    }
 
-        ClassAttribute attribute = new ClassAttribute();
-        if (property.getType() instanceof PrimitiveTypeImpl) {
-            attribute.setName(property.getName());
-            attribute.setVisibility(property.getVisibility().toString());
-            PrimitiveTypeImpl prim = (PrimitiveTypeImpl) (property.getType());
-            if (prim.getName() == null || prim.getName().equals("")) {
-                attribute.setType(prim.eProxyURI().fragment());
-            } else {
-                attribute.setType(prim.getName());
-            }
-
-            if (property.getUpper() == -1) {
-                attribute.setCollection(true);
-            }
-
-        } else if (property
-                .getType() instanceof EnumerationImpl) {
-
-            EnumerationImpl impl = (EnumerationImpl) (property.getType());
-            attribute.setName(property.getName());
-            attribute.setVisibility(property.getVisibility().toString());
-            attribute.setType(impl.getName());
-            attribute.setEnum(true);
-
-            if (property.getUpper() == -1) {
-                attribute.setCollection(true);
-            }
-
-        } else if (property.getType() instanceof ClassImpl) {
-
-            ClassImpl impl = (ClassImpl) (property.getType());
-            attribute.setName(property.getName());
-            attribute.setVisibility(property.getVisibility().toString());
-            attribute.setType(impl.getName());
-            attribute.setClass(true);
-
-            if (property.getUpper() == -1) {
-                attribute.setCollection(true);
-            }
-
-        } else if (property
-                .getType() instanceof InterfaceImpl) {
-
-            InterfaceImpl prim = (InterfaceImpl) (property.getType());
-            URI proxy = prim.eProxyURI();
-            String proxyFragment = proxy.fragment();
-            attribute.setCollection(attributeInterfaceCollection(proxyFragment));
-            String arrtibuteType = attributeInterface(proxyFragment);
-            attribute.setType(arrtibuteType);
-            attribute.setName(property.getName());
-            attribute.setVisibility(property.getVisibility().toString());
+    /**
+     * Converts {@code property}, resolving its type through {@code context}; properties of a type no
+     * resolver handles are returned without a name.
+     */
+    public static ClassAttribute readAttribute(Property property, ExtractionContext context) {
 
+        ClassAttribute attribute = new ClassAttribute();
+        TypeDescriptor type = context.resolveType(property.getType());
+        if (type == null) {
+            return attribute;
         }
+
+        attribute.setName(context.intern(property.getName()));
+        attribute.setVisibility(property.getVisibility().toString());
+        attribute.setType(type.getName());
+        attribute.setClass(type.isClass());
+        attribute.setEnum(type.isEnum());
+        attribute.setCollection(type.isCollection(property.getUpper()));
         return attribute;
     }
 
 
-    private static ClassRelation readGeneralization(Element element) {
+    private static ClassRelation readGeneralization(Element element, ExtractionContext context) {
         Generalization generalization = (Generalization) element;
         ClassRelation relation = new ClassRelation();
         relation.setType(Keywords.Generalization);
@@ -326,9 +224,9 @@ public class ClassStructureReader {
                 ClassImpl relationClass = (ClassImpl) elements;
                 if (first) {
                     first = false;
-                    relation.setClass_1(relationClass.getName());
+                    relation.setClass_1(context.intern(relationClass.getName()));
                 } else {
-                    relation.setClass_2(relationClass.getName());
+                    relation.setClass_2(context.intern(relationClass.getName()));
                 }
 
             }
@@ -337,7 +235,7 @@ public class ClassStructureReader {
     }
 
 
-    private static  ClassRelation readAssociation(Element element) {
+    private static  ClassRelation readAssociation(Element element, ExtractionContext context) {
         Association association = (Association) element;
 
         ClassRelation relation = new ClassRelation();
@@ -349,9 +247,9 @@ public class ClassStructureReader {
                     first = false;
                     relation.setVisibility(end.getVisibility().toString());
 
-                    relation.setClass_1(end.getType().getName());
+                    relation.setClass_1(context.intern(end.getType().getName()));
                     if (end.getName() != null && !end.getName().isEmpty()) {
-                        relation.setRole_Name_1(end.getName());
+                        relation.setRole_Name_1(context.intern(end.getName()));
                     } else {
                         relation.setRole_Name_1("");
                     }
@@ -375,9 +273,9 @@ public class ClassStructureReader {
 
                 } else {
 
-                    relation.setClass_2(end.getType().getName());
+                    relation.setClass_2(context.intern(end.getType().getName()));
                     if (end.getName() != null && !end.getName().isEmpty()) {
-                        relation.setRole_Name_2(end.getName());
+                        relation.setRole_Name_2(context.intern(end.getName()));
                     } else {
                         relation.setRole_Name_2("");
                     }
@@ -408,51 +306,11 @@ public class ClassStructureReader {
     }
 
 
-    private static boolean attributeInterfaceCollection(String proxyFragment) {
-        boolean isCollection = false;
-        if (proxyFragment != null && !proxyFragment.isEmpty()) {
-            if (proxyFragment.contains("java.util.List") || proxyFragment.contains("java.util.ArrayList")) {
-                isCollection = true;
-            }
-        }
-
-        return isCollection;
+    public static boolean attributeInterfaceCollection(String proxyFragment) {
+        return ProxyFragment.parse(proxyFragment).isCollection();
     }
 
-    private static String attributeInterface(String proxyFragment) {
-        String arrtibuteType = "";
-        boolean isCollection = false;
-        if (proxyFragment != null && !proxyFragment.isEmpty()) {
-
-            String collectionType = "";
-            if (proxyFragment.contains("java.util.List")) {
-                isCollection = true;
-                collectionType = "java.util.List";
-            } else if (proxyFragment.contains("java.util.ArrayList")) {
-                isCollection = true;
-                collectionType = "java.util.ArrayList";
-            }
-
-
-            if (isCollection) {
-                int startIndex = proxyFragment.indexOf(collectionType + "[project^id=");
-                startIndex += (collectionType + "[project^id=").length();
-                String temp =
-                        proxyFragment.substring(startIndex, proxyFragment.indexOf("]$uml.Interface"));
-                arrtibuteType = collectionType + "<" + temp + ">";
-
-            } else {
-
-                int startIndex = proxyFragment.indexOf(collectionType + "[project^id=");
-                startIndex += ("[project^id=").length();
-
-                arrtibuteType =
-                        proxyFragment.substring(startIndex, proxyFragment.indexOf("]$uml.Interface"));
-            }
-
-
-        }
-
-        return arrtibuteType;
+    public static String attributeInterface(String proxyFragment) {
+        return ProxyFragment.parse(proxyFragment).getTypeName();
     }
 }
@@ -7,13 +7,18 @@ import org.eclipse.uml2.uml.PackageableElement;
 
 public class EnumerationReader {
     public static EnumStructure readEnumeration(PackageableElement element, String packageName) {
+        return readEnumeration(element, packageName, new ExtractionContext());
+    }
+
+    public static EnumStructure readEnumeration(PackageableElement element, String packageName,
+                                                ExtractionContext context) {
 
         EnumStructure structure = new EnumStructure();
         Enumeration enumeration = (Enumeration) element;
-        structure.setName(enumeration.getName());
+        structure.setName(context.intern(enumeration.getName()));
         structure.setPackage(packageName);
         for (EnumerationLiteral literal : enumeration.getOwnedLiterals()) {
-            structure.addLiteral(literal.getName());
+            structure.addLiteral(context.intern(literal.getName()));
         }
 
         return structure;
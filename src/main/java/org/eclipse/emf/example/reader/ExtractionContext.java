@@ -0,0 +1,168 @@
+package org.eclipse.emf.example.reader;
+
+import org.eclipse.emf.example.models._class.ClassAttribute;
+import org.eclipse.emf.example.models._class.ClassOperation;
+import org.eclipse.emf.example.reader.type.TypeDescriptor;
+import org.eclipse.emf.example.reader.type.TypeResolverRegistry;
+import org.eclipse.emf.example.util.StringPool;
+import org.eclipse.uml2.uml.Operation;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.Type;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State shared by the readers during one extraction. Every {@link Property} and {@link Operation} is
+ * converted once and the result shared by the class owning it and by every class inheriting it, so
+ * the extracted attributes and operations must be treated as read-only. Types are resolved once
+ * through the {@link TypeResolverRegistry} of the context, and the strings stored in the extracted
+ * structures are taken from its {@link StringPool}.
+ * <p>
+ * A context holds on to the model elements it saw; use one per extraction and drop it afterwards.
+ * Only a context created as concurrent may be shared by threads, see
+ * {@link PackageReader#readPackage(Package, String, java.util.concurrent.ForkJoinPool, ExtractionContext)}.
+ */
+public class ExtractionContext {
+
+    private static final TypeDescriptor UNRESOLVED =
+            new TypeDescriptor(TypeDescriptor.Kind.OTHER, null, TypeDescriptor.CollectionKind.NONE);
+
+    private final TypeResolverRegistry typeResolvers;
+    private final StringPool strings;
+    private final Map<Type, TypeDescriptor> types;
+    private final Map<Property, ClassAttribute> attributes;
+    private final Map<Operation, ClassOperation> operations;
+    private final Map<Package, String> packageNames;
+    private final boolean concurrent;
+    private volatile boolean readSequentially;
+
+    public ExtractionContext() {
+        this(TypeResolverRegistry.getDefault());
+    }
+
+    public ExtractionContext(TypeResolverRegistry typeResolvers) {
+        this(typeResolvers, false);
+    }
+
+    /**
+     * @param concurrent whether threads reading parts of one model in parallel share the context; each
+     *                   element is then still converted to a single shared result
+     */
+    public ExtractionContext(TypeResolverRegistry typeResolvers, boolean concurrent) {
+        this(typeResolvers, concurrent, new StringPool());
+    }
+
+    /**
+     * @param strings pool the extracted strings are taken from, e.g. one shared by the extractions of a
+     *                batch, or {@link StringPool#NONE}
+     */
+    public ExtractionContext(TypeResolverRegistry typeResolvers, boolean concurrent, StringPool strings) {
+        this.typeResolvers = typeResolvers;
+        this.strings = strings;
+        this.types = newMap(concurrent);
+        this.attributes = newMap(concurrent);
+        this.operations = newMap(concurrent);
+        this.packageNames = newMap(concurrent);
+        this.concurrent = concurrent;
+    }
+
+    private static <K, V> Map<K, V> newMap(boolean concurrent) {
+        // model elements do not override equals, so a concurrent map keys them by identity as well
+        return concurrent ? new ConcurrentHashMap<K, V>() : new IdentityHashMap<K, V>();
+    }
+
+    public TypeResolverRegistry getTypeResolvers() {
+        return typeResolvers;
+    }
+
+    public StringPool getStrings() {
+        return strings;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * @return whether a parallel read with this context fell back to reading the model sequentially
+     */
+    public boolean isReadSequentially() {
+        return readSequentially;
+    }
+
+    void setReadSequentially(boolean readSequentially) {
+        this.readSequentially = readSequentially;
+    }
+
+    public String intern(String string) {
+        return strings.intern(string);
+    }
+
+    /**
+     * @return the descriptor of {@code type}, {@code null} if {@code type} is {@code null} or no resolver
+     * handles it
+     */
+    public TypeDescriptor resolveType(Type type) {
+        if (type == null) {
+            return null;
+        }
+        TypeDescriptor descriptor = types.get(type);
+        if (descriptor == null) {
+            descriptor = typeResolvers.resolve(type);
+            if (descriptor != null && descriptor.getName() != null) {
+                // distinct proxies of one type, e.g. of a primitive type, each carry their own copy of the name
+                String name = strings.intern(descriptor.getName());
+                if (name != descriptor.getName()) {
+                    descriptor = new TypeDescriptor(descriptor.getKind(), name, descriptor.getCollectionKind());
+                }
+            }
+            TypeDescriptor previous = types.putIfAbsent(type, descriptor != null ? descriptor : UNRESOLVED);
+            if (previous != null) {
+                descriptor = previous;
+            }
+        }
+        return descriptor != UNRESOLVED ? descriptor : null;
+    }
+
+    public ClassAttribute readAttribute(Property property) {
+        ClassAttribute attribute = attributes.get(property);
+        if (attribute == null) {
+            attribute = ClassStructureReader.readAttribute(property, this);
+            ClassAttribute previous = attributes.putIfAbsent(property, attribute);
+            if (previous != null) {
+                attribute = previous;
+            }
+        }
+        return attribute;
+    }
+
+    public ClassOperation readClassOperation(Operation operation) {
+        ClassOperation classOperation = operations.get(operation);
+        if (classOperation == null) {
+            classOperation = ClassStructureReader.readClassOperation(operation, this);
+            ClassOperation previous = operations.putIfAbsent(operation, classOperation);
+            if (previous != null) {
+                classOperation = previous;
+            }
+        }
+        return classOperation;
+    }
+
+    /**
+     * @see PackageReader#packageName(Package)
+     */
+    public String packageName(Package _package) {
+        if (_package == null) {
+            return "";
+        }
+        String packageName = packageNames.get(_package);
+        if (packageName == null) {
+            packageName = strings.intern(PackageReader.packageName(_package));
+            packageNames.put(_package, packageName);
+        }
+        return packageName;
+    }
+}
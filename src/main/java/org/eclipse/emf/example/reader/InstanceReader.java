@@ -12,11 +12,16 @@ public class InstanceReader {
 
 
     public static ClassInstance readInstance(PackageableElement element, String packageName) {
+        return readInstance(element, packageName, new ExtractionContext());
+    }
+
+    public static ClassInstance readInstance(PackageableElement element, String packageName,
+                                             ExtractionContext context) {
         ClassInstance classInstance = new ClassInstance();
         InstanceSpecification instance = (InstanceSpecification) element;
         if (instance.getName() != null && !instance.getName().isEmpty()) {
 
-            classInstance.setName(instance.getName());
+            classInstance.setName(context.intern(instance.getName()));
             classInstance.set_package(packageName);
 
             for (Slot slot : instance.getSlots()) {
@@ -24,8 +29,8 @@ public class InstanceReader {
                 StructuralFeature feature = slot.getDefiningFeature();
 
                 InstanceAttribute attribute = new InstanceAttribute();
-                attribute.setName(feature.getName());
-                attribute.setType(feature.getType().getName());
+                attribute.setName(context.intern(feature.getName()));
+                attribute.setType(context.intern(feature.getType().getName()));
 
                 List<Object> values = new ArrayList<>();
                 for (ValueSpecification valueSpecification : slot.getValues()) {
@@ -38,7 +43,7 @@ public class InstanceReader {
                         InstanceSpecification valueInstanceSpecification = instanceValue.getInstance();
 
                         if (valueInstanceSpecification != null) {
-                            values.add(valueInstanceSpecification.getName());
+                            values.add(context.intern(valueInstanceSpecification.getName()));
                         }
 
 
@@ -49,7 +54,7 @@ public class InstanceReader {
 
                         if (literalSpecification instanceof LiteralString) {
                             LiteralString literal = (LiteralString) literalSpecification;
-                            values.add(literal.getValue());
+                            values.add(context.intern(literal.getValue()));
 
                         } else if (literalSpecification instanceof LiteralInteger) {
                             LiteralInteger literal = (LiteralInteger) literalSpecification;
@@ -85,8 +90,8 @@ public class InstanceReader {
             for (Classifier classifier : instance.getClassifiers()) {
                 if (instance.getName() != null && classifier.getName() != null) {
                     ClassStructure classStructure = new ClassStructure();
-                    classStructure.setName(classifier.getName());
-                    classStructure.setPackage(classifier.getPackage().getName());
+                    classStructure.setName(context.intern(classifier.getName()));
+                    classStructure.setPackage(context.packageName(classifier.getPackage()));
                     classInstance.getClasses().add(classStructure);
                 }
             }
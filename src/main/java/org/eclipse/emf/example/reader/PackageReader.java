@@ -1,51 +1,225 @@
 package org.eclipse.emf.example.reader;
 
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.example.models._class.ClassInstance;
 import org.eclipse.emf.example.models._class.ClassStructure;
 import org.eclipse.emf.example.models._enum.EnumStructure;
 import org.eclipse.emf.example.models._package.PackageStructure;
+import org.eclipse.emf.example.reader.type.TypeResolverRegistry;
+import org.eclipse.uml2.uml.*;
+import org.eclipse.uml2.uml.Class;
 import org.eclipse.uml2.uml.Package;
-import org.eclipse.uml2.uml.PackageableElement;
-import org.eclipse.uml2.uml.UMLPackage;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class PackageReader {
 
     public static PackageStructure readPackage(EList<PackageableElement> packageableElements, String packageName) {
+        return readPackage(packageableElements, packageName, new ExtractionContext());
+    }
+
+    public static PackageStructure readPackage(EList<PackageableElement> packageableElements, String packageName,
+                                               ExtractionContext context) {
 
         PackageStructure packageStructure = new PackageStructure();
         packageStructure.setName(packageName);
 
         for (PackageableElement element : packageableElements) {
 
-            if (element.eClass() == UMLPackage.Literals.CLASS) {
-                ClassStructure classStructure = ClassStructureReader.readClass(element, packageName);
-                packageStructure.getClasses().add(classStructure);
-            } else if (element.eClass() == UMLPackage.Literals.ENUMERATION) {
-                EnumStructure enumStructure = EnumerationReader.readEnumeration(element, packageName);
-                packageStructure.getEnums().add(enumStructure);
-            } else if (element.eClass() == UMLPackage.eINSTANCE.getInstanceSpecification()) {
-                ClassInstance classInstance = InstanceReader.readInstance(element, packageName);
-                packageStructure.getInstances().add(classInstance);
-            } else if (element.eClass() == UMLPackage.Literals.PACKAGE) {
+            if (element.eClass() == UMLPackage.Literals.PACKAGE) {
                 Package _package = (Package) element;
-                String newPackageName;
-
-                if (packageName.equals("")) {
-                    newPackageName = _package.getName() != null
-                            ? _package.getName()
-                            : packageName;
-                } else {
-                    newPackageName = _package.getName() != null
-                            ? packageName + "." + _package.getName()
-                            : packageName;
-                }
-                PackageStructure nustedPackageStructure = readPackage(_package.getPackagedElements(), newPackageName);
+                PackageStructure nustedPackageStructure = readPackage(_package.getPackagedElements(),
+                        context.intern(subpackageName(packageName, _package)), context);
                 packageStructure.getPackages().add(nustedPackageStructure);
+            } else {
+                readElement(element, packageName, context, packageStructure);
             }
         }
         return packageStructure;
     }
 
+    /**
+     * Reads the package tree of {@code _package} on {@code pool}, each package in its own task. The result
+     * is the same, in the same order, as reading the tree sequentially.
+     * <p>
+     * EMF models are not thread-safe, and resolving a proxy or computing a derived member such as the
+     * inherited members of a class modifies the model. So every proxy is resolved and the derived members
+     * the readers use are computed on the calling thread first; the tasks then only read the model. A model
+     * with proxies that cannot be resolved, e.g. to Java types, is read sequentially, since its proxies
+     * would be resolved again on every access; use
+     * {@link #readPackage(Package, String, ForkJoinPool, ExtractionContext)} to learn whether that
+     * happened. Nothing else may modify the model meanwhile.
+     */
+    public static PackageStructure readPackage(Package _package, String packageName, ForkJoinPool pool) {
+        return readPackage(_package, packageName, pool, new ExtractionContext(TypeResolverRegistry.getDefault(), true));
+    }
+
+    /**
+     * Reads the package tree of {@code _package} on {@code pool} with {@code context}, which must be
+     * concurrent. {@link ExtractionContext#isReadSequentially()} tells afterwards whether the model had
+     * to be read sequentially instead.
+     */
+    public static PackageStructure readPackage(Package _package, String packageName, ForkJoinPool pool,
+                                               ExtractionContext context) {
+        if (!context.isConcurrent()) {
+            throw new IllegalArgumentException("A parallel read needs a concurrent ExtractionContext");
+        }
+        boolean parallel = prepare(_package);
+        context.setReadSequentially(!parallel);
+        if (!parallel) {
+            return readPackage(_package.getPackagedElements(), packageName, context);
+        }
+        return pool.invoke(new ReadPackageTask(_package.getPackagedElements(), packageName, context));
+    }
+
+    private static void readElement(PackageableElement element, String packageName, ExtractionContext context,
+                                    PackageStructure packageStructure) {
+        if (element.eClass() == UMLPackage.Literals.CLASS) {
+            ClassStructure classStructure = ClassStructureReader.readClass(element, packageName, context);
+            packageStructure.getClasses().add(classStructure);
+        } else if (element.eClass() == UMLPackage.Literals.ENUMERATION) {
+            EnumStructure enumStructure = EnumerationReader.readEnumeration(element, packageName, context);
+            packageStructure.getEnums().add(enumStructure);
+        } else if (element.eClass() == UMLPackage.eINSTANCE.getInstanceSpecification()) {
+            ClassInstance classInstance = InstanceReader.readInstance(element, packageName, context);
+            packageStructure.getInstances().add(classInstance);
+        }
+    }
+
+    private static String subpackageName(String packageName, Package _package) {
+        if (packageName.equals("")) {
+            return _package.getName() != null
+                    ? _package.getName()
+                    : packageName;
+        }
+        return _package.getName() != null
+                ? packageName + "." + _package.getName()
+                : packageName;
+    }
+
+    /**
+     * @return the name reading the package tree from its outermost package gives {@code _package}: the
+     * names of it and its nesting packages joined with {@code .}
+     */
+    public static String packageName(Package _package) {
+        if (_package == null) {
+            return "";
+        }
+        return subpackageName(packageName(_package.getNestingPackage()), _package);
+    }
+
+    /**
+     * Resolves the proxies of the model and computes every derived feature the readers call on it: UML2 keeps
+     * these in a CacheAdapter that is shared by all threads and not thread-safe, so the tasks must only find
+     * them cached. That is, for the classes of the tree and their super classes, the inherited members,
+     * relationships and their related elements, super classes and package; for the classifiers of instances,
+     * the package; for properties, the navigability and upper bound; and for parameters, the upper bound. A
+     * reader that calls another derived feature must warm it here as well.
+     *
+     * @return {@code false} if the resources read contain proxies that could not be resolved
+     */
+    private static boolean prepare(Package _package) {
+        Resource resource = _package.eResource();
+        if (resource != null && resource.getResourceSet() != null) {
+            EcoreUtil.resolveAll(resource.getResourceSet());
+        } else {
+            EcoreUtil.resolveAll(_package);
+        }
+
+        Set<Class> prepared = Collections.newSetFromMap(new IdentityHashMap<Class, Boolean>());
+        for (Iterator<EObject> iterator = _package.eAllContents(); iterator.hasNext(); ) {
+            EObject object = iterator.next();
+            if (object instanceof Class) {
+                prepareClass((Class) object, prepared);
+            } else if (object instanceof InstanceSpecification) {
+                for (Classifier classifier : ((InstanceSpecification) object).getClassifiers()) {
+                    classifier.getPackage();
+                    if (classifier instanceof Class) {
+                        prepareClass((Class) classifier, prepared);
+                    }
+                }
+            }
+        }
+
+        Set<Object> read = new LinkedHashSet<>();
+        read.add(resource != null ? resource : _package);
+        for (Class _class : prepared) {
+            if (_class.eResource() != null) {
+                read.add(_class.eResource());
+            }
+        }
+        return EcoreUtil.ProxyCrossReferencer.find(read).isEmpty();
+    }
+
+    private static void prepareClass(Class _class, Set<Class> prepared) {
+        if (!prepared.add(_class)) {
+            return;
+        }
+        _class.getPackage();
+        _class.getInheritedMembers();
+        for (Relationship relationship : _class.getRelationships()) {
+            relationship.getRelatedElements();
+            if (relationship instanceof Association) {
+                for (Property end : ((Association) relationship).getMemberEnds()) {
+                    end.isNavigable();
+                }
+            }
+        }
+        for (Property property : _class.getOwnedAttributes()) {
+            property.isNavigable();
+            property.getUpper();
+        }
+        for (Operation operation : _class.getOwnedOperations()) {
+            for (Parameter parameter : operation.getOwnedParameters()) {
+                parameter.getUpper();
+            }
+        }
+        for (Class superClass : _class.getSuperClasses()) {
+            prepareClass(superClass, prepared);
+        }
+    }
+
+    private static class ReadPackageTask extends RecursiveTask<PackageStructure> {
 
+        private final EList<PackageableElement> packageableElements;
+        private final String packageName;
+        private final ExtractionContext context;
+
+        private ReadPackageTask(EList<PackageableElement> packageableElements, String packageName,
+                                ExtractionContext context) {
+            this.packageableElements = packageableElements;
+            this.packageName = packageName;
+            this.context = context;
+        }
+
+        @Override
+        protected PackageStructure compute() {
+            PackageStructure packageStructure = new PackageStructure();
+            packageStructure.setName(packageName);
+
+            List<ReadPackageTask> subpackages = new ArrayList<>();
+            for (PackageableElement element : packageableElements) {
+                if (element.eClass() == UMLPackage.Literals.PACKAGE) {
+                    Package _package = (Package) element;
+                    ReadPackageTask task = new ReadPackageTask(_package.getPackagedElements(),
+                            context.intern(subpackageName(packageName, _package)), context);
+                    task.fork();
+                    subpackages.add(task);
+                } else {
+                    readElement(element, packageName, context, packageStructure);
+                }
+            }
+
+            // joined in model order, as the sequential read adds them
+            for (ReadPackageTask task : subpackages) {
+                packageStructure.getPackages().add(task.join());
+            }
+            return packageStructure;
+        }
+    }
 }
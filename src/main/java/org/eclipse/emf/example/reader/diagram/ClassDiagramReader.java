@@ -8,12 +8,13 @@ import org.eclipse.emf.example.models._class.ClassStructure;
 import org.eclipse.emf.example.models._enum.EnumStructure;
 import org.eclipse.emf.example.models._package.PackageStructure;
 import org.eclipse.emf.example.reader.PackageReader;
+import org.eclipse.emf.example.util.QualifiedNames;
 import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.PackageableElement;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,8 +23,6 @@ public class ClassDiagramReader implements Serializable {
 
     public static ClassDiagram getRefModelDetails(Package _package) {
 
-        ClassDiagram classDiagram = new ClassDiagram();
-
         PackageStructure packageStructure;
         if (_package != null) {
             EList<PackageableElement> packageableElements = _package.getPackagedElements();
@@ -34,70 +33,92 @@ public class ClassDiagramReader implements Serializable {
             return null;
         }
 
-        Map<String, ClassStructure> classes = classStructures(packageStructure);
+        return getRefModelDetails(packageStructure);
+    }
+
+    /**
+     * Builds the class diagram from an already read package tree, so callers holding a
+     * {@link PackageStructure} (e.g. a model session) do not traverse the UML model again.
+     * <p>
+     * Classes, enumerations and instances are indexed by qualified name in one traversal of the tree, into
+     * a map per kind that keeps tree order; super classes and instances are linked through the class map. Super classes
+     * outside the tree, e.g. in a library, stay as read.
+     * <p>
+     * The diagram links copies of the classes of the tree, so the tree is left as read and can be shared
+     * with other views, e.g. the package diagram, and read into a class diagram again.
+     */
+    public static ClassDiagram getRefModelDetails(PackageStructure packageStructure) {
+
+        ClassDiagram classDiagram = new ClassDiagram();
+
+        Map<String, ClassStructure> classes = new LinkedHashMap<>();
+        Map<String, EnumStructure> enums = new LinkedHashMap<>();
+        Map<String, ClassInstance> instances = new LinkedHashMap<>();
+        index(packageStructure, classes, enums, instances);
+
         for (ClassStructure cs : classes.values()) {
-            List<ClassStructure> superClasses = new ArrayList<>();
+            List<ClassStructure> superClasses = new ArrayList<>(cs.getSuperClasses().size());
             for (ClassStructure superClass : cs.getSuperClasses()) {
-                superClasses.add(classes.get(superClass.getName()));
+                ClassStructure indexed = classes.get(QualifiedNames.of(superClass.getPackage(), superClass.getName()));
+                superClasses.add(indexed != null ? indexed : superClass);
             }
             cs.setSuperClasses(superClasses);
 
 
         }
 
-        Map<String, ClassInstance> instances = classInstances(packageStructure);
-
         for (ClassInstance classInstance : instances.values()) {
             for (ClassStructure classStructure : classInstance.getClasses()) {
-                classes.get(classStructure.getName()).getInstances().add(classInstance);
+                ClassStructure indexed = classes.get(QualifiedNames.of(classStructure.getPackage(), classStructure.getName()));
+                if (indexed != null) {
+                    indexed.getInstances().add(classInstance);
+                }
             }
         }
 
-        classDiagram.getEnumerations().addAll(enumStructure(packageStructure).values());
+        classDiagram.getEnumerations().addAll(enums.values());
         classDiagram.getClasses().addAll(classes.values());
         classDiagram.getInstances().addAll(instances.values());
 
         return classDiagram;
     }
 
-    private static Map<String, ClassInstance> classInstances(PackageStructure packageStructure) {
-        Map<String, ClassInstance> instances = new HashMap<>();
-
-        for (ClassInstance classInstance : packageStructure.getInstances()) {
-            instances.put(classInstance.getName(), classInstance);
-        }
-
-        for (PackageStructure ps : packageStructure.getPackages()) {
-            instances.putAll(classInstances(ps));
-        }
-        return instances;
+    /**
+     * @return a copy of {@code classStructure} with lists of its own, sharing the members
+     */
+    private static ClassStructure copy(ClassStructure classStructure) {
+        ClassStructure copy = new ClassStructure();
+        copy.setPackage(classStructure.getPackage());
+        copy.setImports(new ArrayList<>(classStructure.getImports()));
+        copy.setName(classStructure.getName());
+        copy.setVisibility(classStructure.getVisibility());
+        copy.setType(classStructure.getType());
+        copy.setAbstract(classStructure.isAbstract());
+        copy.setFinal(classStructure.isFinal());
+        copy.setRules(new ArrayList<>(classStructure.getRules()));
+        copy.setSuperClasses(new ArrayList<>(classStructure.getSuperClasses()));
+        copy.setAttributes(new ArrayList<>(classStructure.getAttributes()));
+        copy.setOperations(new ArrayList<>(classStructure.getOperations()));
+        copy.setRelationships(new ArrayList<>(classStructure.getRelationships()));
+        copy.setInstances(new ArrayList<ClassInstance>());
+        return copy;
     }
 
-    private static Map<String, ClassStructure> classStructures(PackageStructure packageStructure) {
-        Map<String, ClassStructure> classes = new HashMap<>();
-
+    private static void index(PackageStructure packageStructure, Map<String, ClassStructure> classes,
+                              Map<String, EnumStructure> enums, Map<String, ClassInstance> instances) {
         for (ClassStructure classStructure : packageStructure.getClasses()) {
-            classes.put(classStructure.getName(), classStructure);
+            classes.put(QualifiedNames.of(classStructure.getPackage(), classStructure.getName()), copy(classStructure));
         }
-
-        for (PackageStructure ps : packageStructure.getPackages()) {
-            classes.putAll(classStructures(ps));
+        for (EnumStructure enumStructure : packageStructure.getEnums()) {
+            enums.put(QualifiedNames.of(enumStructure.getPackage(), enumStructure.getName()), enumStructure);
         }
-        return classes;
-    }
-
-
-    private static Map<String, EnumStructure> enumStructure(PackageStructure packageStructure) {
-        Map<String, EnumStructure> enums = new HashMap<>();
-
-        for (EnumStructure classStructure : packageStructure.getEnums()) {
-            enums.put(classStructure.getName(), classStructure);
+        for (ClassInstance classInstance : packageStructure.getInstances()) {
+            instances.put(QualifiedNames.of(classInstance.get_package(), classInstance.getName()), classInstance);
         }
 
         for (PackageStructure ps : packageStructure.getPackages()) {
-            enums.putAll(enumStructure(ps));
+            index(ps, classes, enums, instances);
         }
-        return enums;
     }
 
 
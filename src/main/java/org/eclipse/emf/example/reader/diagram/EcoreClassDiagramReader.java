@@ -0,0 +1,290 @@
+package org.eclipse.emf.example.reader.diagram;
+
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.eclipse.emf.example.models._package.PackageStructure;
+import org.eclipse.emf.example.util.Keywords;
+import org.eclipse.emf.example.util.StringPool;
+
+import java.util.*;
+
+/**
+ * Builds the {@link ClassDiagram} of an Ecore model straight from its {@link EPackage}, without
+ * converting it to UML first. The mapping follows what {@link ClassDiagramReader} reads from the
+ * converted model: classes from EClasses, attributes from EAttributes and EReferences, operations from
+ * EOperations, enumerations from EEnums, and generalizations and associations from super types and
+ * references.
+ * <p>
+ * Interfaces and plain data types become UML interfaces and primitive types in the conversion and are
+ * not read as classes there either. EAnnotations, e.g. OCL constraints, are not read.
+ */
+public class EcoreClassDiagramReader {
+
+    private static final String PUBLIC = "public";
+
+    public static ClassDiagram getRefModelDetails(EPackage ePackage) {
+        return getRefModelDetails(ePackage, new StringPool());
+    }
+
+    /**
+     * @param strings pool the names and type names of the diagram are taken from
+     */
+    public static ClassDiagram getRefModelDetails(EPackage ePackage, StringPool strings) {
+        if (ePackage == null) {
+            System.err.println("Package is null");
+            return null;
+        }
+
+        String packageName = ePackage.getName() != null ? ePackage.getName() : "";
+        Map<EClass, List<ClassRelation>> relations = readRelations(ePackage, strings);
+        return ClassDiagramReader.getRefModelDetails(readPackage(ePackage, packageName, relations, strings));
+    }
+
+    private static PackageStructure readPackage(EPackage ePackage, String packageName,
+                                                Map<EClass, List<ClassRelation>> relations, StringPool strings) {
+        PackageStructure packageStructure = new PackageStructure();
+        packageStructure.setName(packageName);
+
+        for (EClassifier classifier : ePackage.getEClassifiers()) {
+            if (isClass(classifier)) {
+                packageStructure.getClasses().add(readClass((EClass) classifier, packageName, relations, strings));
+            } else if (classifier instanceof EEnum) {
+                packageStructure.getEnums().add(readEnumeration((EEnum) classifier, packageName, strings));
+            }
+        }
+
+        for (EPackage subpackage : ePackage.getESubpackages()) {
+            String newPackageName;
+            if (packageName.equals("")) {
+                newPackageName = subpackage.getName() != null ? subpackage.getName() : packageName;
+            } else {
+                newPackageName = subpackage.getName() != null
+                        ? strings.intern(packageName + "." + subpackage.getName()) : packageName;
+            }
+            packageStructure.getPackages().add(readPackage(subpackage, newPackageName, relations, strings));
+        }
+        return packageStructure;
+    }
+
+    private static ClassStructure readClass(EClass eClass, String packageName,
+                                            Map<EClass, List<ClassRelation>> relations, StringPool strings) {
+        ClassStructure classStructure = new ClassStructure();
+
+        for (EClass superType : eClass.getESuperTypes()) {
+            if (!superType.isInterface()) {
+                ClassStructure superClassStructure = new ClassStructure();
+                superClassStructure.setName(strings.intern(superType.getName()));
+                superClassStructure.setPackage(strings.intern(packageName(superType.getEPackage())));
+                classStructure.getSuperClasses().add(superClassStructure);
+            }
+        }
+
+        classStructure.setPackage(packageName);
+        classStructure.setVisibility(PUBLIC);
+        classStructure.setAbstract(eClass.isAbstract());
+        classStructure.setFinal(false);
+        classStructure.setName(strings.intern(eClass.getName()));
+
+        for (EStructuralFeature feature : eClass.getEStructuralFeatures()) {
+            ClassAttribute attribute = readAttribute(feature, strings);
+            if (attribute.getName() != null) {
+                classStructure.addAttribute(attribute);
+            }
+        }
+        for (EOperation operation : eClass.getEOperations()) {
+            classStructure.addOperation(readClassOperation(operation, strings));
+        }
+        List<ClassRelation> classRelations = relations.get(eClass);
+        if (classRelations != null) {
+            classStructure.setRelationships(classRelations);
+        }
+
+        Set<String> ownOperations = new HashSet<>();
+        for (EOperation operation : eClass.getEOperations()) {
+            ownOperations.add(signature(operation));
+        }
+        for (EStructuralFeature feature : eClass.getEAllStructuralFeatures()) {
+            if (feature.getEContainingClass() != eClass) {
+                ClassAttribute attribute = readAttribute(feature, strings);
+                if (attribute.getName() != null) {
+                    classStructure.addAttribute(attribute);
+                }
+            }
+        }
+        for (EOperation operation : eClass.getEAllOperations()) {
+            // an operation with the signature of one of the class's own operations is redefined by it
+            if (operation.getEContainingClass() != eClass && ownOperations.add(signature(operation))) {
+                classStructure.addOperation(readClassOperation(operation, strings));
+            }
+        }
+        return classStructure;
+    }
+
+    private static ClassAttribute readAttribute(EStructuralFeature feature, StringPool strings) {
+        ClassAttribute attribute = new ClassAttribute();
+        EClassifier type = feature.getEType();
+        if (type == null) {
+            return attribute;
+        }
+
+        attribute.setName(strings.intern(feature.getName()));
+        attribute.setVisibility(PUBLIC);
+        attribute.setType(strings.intern(type.getName()));
+        attribute.setEnum(type instanceof EEnum);
+        attribute.setClass(isClass(type));
+        // interface typed attributes are read without multiplicity from the converted model as well
+        boolean isInterface = type instanceof EClass && ((EClass) type).isInterface();
+        attribute.setCollection(!isInterface && feature.getUpperBound() == ETypedElement.UNBOUNDED_MULTIPLICITY);
+        return attribute;
+    }
+
+    private static ClassOperation readClassOperation(EOperation operation, StringPool strings) {
+        ClassOperation classOperation = new ClassOperation();
+        classOperation.setName(strings.intern(operation.getName()));
+        classOperation.setVisibility(PUBLIC);
+        classOperation.setReturnType(new OperationReturn());
+
+        EClassifier returnType = operation.getEType();
+        if (returnType != null) {
+            classOperation.setReturnType(new OperationReturn(strings.intern(returnType.getName()), isClass(returnType),
+                    operation.getUpperBound() == ETypedElement.UNBOUNDED_MULTIPLICITY));
+        }
+
+        for (EParameter parameter : operation.getEParameters()) {
+            EClassifier type = parameter.getEType();
+            if (type == null) {
+                continue;
+            }
+
+            OperationParameter operationParameter = new OperationParameter();
+            operationParameter.setName(strings.intern(parameter.getName()));
+            operationParameter.setType(strings.intern(type.getName()));
+            if (type instanceof EEnum || type instanceof EClass) {
+                operationParameter.setVisibility(PUBLIC);
+            }
+            operationParameter.setClass(isClass(type));
+            operationParameter.setCollection(parameter.getUpperBound() == ETypedElement.UNBOUNDED_MULTIPLICITY);
+            classOperation.getParameters().add(operationParameter);
+        }
+        return classOperation;
+    }
+
+    /**
+     * Reads every generalization and association of the package tree in one pass, each attached to
+     * both classes taking part in it.
+     */
+    private static Map<EClass, List<ClassRelation>> readRelations(EPackage root, StringPool strings) {
+        Map<EClass, List<ClassRelation>> relations = new HashMap<>();
+        Set<EReference> read = new HashSet<>();
+
+        Deque<EPackage> pending = new ArrayDeque<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            EPackage ePackage = pending.pop();
+            pending.addAll(ePackage.getESubpackages());
+
+            for (EClassifier classifier : ePackage.getEClassifiers()) {
+                if (!isClass(classifier)) {
+                    continue;
+                }
+                EClass eClass = (EClass) classifier;
+                for (EClass superType : eClass.getESuperTypes()) {
+                    if (!superType.isInterface()) {
+                        ClassRelation relation = readGeneralization(eClass, superType, strings);
+                        addRelation(relations, eClass, relation);
+                        addRelation(relations, superType, relation);
+                    }
+                }
+                for (EReference reference : eClass.getEReferences()) {
+                    if (reference.getEReferenceType().isInterface() || !read.add(reference)
+                            || (reference.getEOpposite() != null && !read.add(reference.getEOpposite()))) {
+                        continue;
+                    }
+                    ClassRelation relation = readAssociation(reference, strings);
+                    addRelation(relations, reference.getEReferenceType(), relation);
+                    if (reference.getEReferenceType() != eClass) {
+                        addRelation(relations, eClass, relation);
+                    }
+                }
+            }
+        }
+        return relations;
+    }
+
+    private static void addRelation(Map<EClass, List<ClassRelation>> relations, EClass eClass,
+                                    ClassRelation relation) {
+        List<ClassRelation> classRelations = relations.get(eClass);
+        if (classRelations == null) {
+            classRelations = new ArrayList<>();
+            relations.put(eClass, classRelations);
+        }
+        classRelations.add(relation);
+    }
+
+    private static ClassRelation readGeneralization(EClass specific, EClass general, StringPool strings) {
+        ClassRelation relation = new ClassRelation();
+        relation.setType(Keywords.Generalization);
+        relation.setClass_1(strings.intern(specific.getName()));
+        relation.setClass_2(strings.intern(general.getName()));
+        return relation;
+    }
+
+    /**
+     * The conversion turns {@code reference} into the first end of an association; its opposite, or an
+     * unnamed end owned by the association, typed by the containing class, is the second.
+     */
+    private static ClassRelation readAssociation(EReference reference, StringPool strings) {
+        ClassRelation relation = new ClassRelation();
+        relation.setType(Keywords.Association);
+        relation.setVisibility(PUBLIC);
+
+        relation.setClass_1(strings.intern(reference.getEReferenceType().getName()));
+        relation.setRole_Name_1(reference.getName() != null ? strings.intern(reference.getName()) : "");
+        relation.setNavigable_1(true);
+        relation.setMultipcity_Uper_1(reference.getUpperBound());
+
+        EReference opposite = reference.getEOpposite();
+        relation.setClass_2(strings.intern(reference.getEContainingClass().getName()));
+        if (opposite != null) {
+            relation.setRole_Name_2(opposite.getName() != null ? strings.intern(opposite.getName()) : "");
+            relation.setNavigable_2(true);
+            relation.setMultipcity_Uper_2(opposite.getUpperBound());
+        } else {
+            relation.setRole_Name_2("");
+            relation.setNavigable_2(false);
+        }
+        return relation;
+    }
+
+    private static EnumStructure readEnumeration(EEnum eEnum, String packageName, StringPool strings) {
+        EnumStructure enumStructure = new EnumStructure();
+        enumStructure.setName(strings.intern(eEnum.getName()));
+        enumStructure.setPackage(packageName);
+        for (EEnumLiteral literal : eEnum.getELiterals()) {
+            enumStructure.addLiteral(strings.intern(literal.getName()));
+        }
+        return enumStructure;
+    }
+
+    private static boolean isClass(EClassifier type) {
+        return type instanceof EClass && !((EClass) type).isInterface();
+    }
+
+    private static String signature(EOperation operation) {
+        StringBuilder signature = new StringBuilder().append(operation.getName()).append('(');
+        for (EParameter parameter : operation.getEParameters()) {
+            signature.append(parameter.getEType() != null ? parameter.getEType().getName() : "").append(',');
+        }
+        return signature.append(')').toString();
+    }
+
+    private static String packageName(EPackage ePackage) {
+        if (ePackage == null) {
+            return "";
+        }
+        String superPackageName = packageName(ePackage.getESuperPackage());
+        String name = ePackage.getName() != null ? ePackage.getName() : "";
+        return superPackageName.isEmpty() ? name : superPackageName + "." + name;
+    }
+}
@@ -19,14 +19,17 @@ public class PackageDiagramReader implements Serializable {
             EList<PackageableElement> packageableElements = _package.getPackagedElements();
             String packageName = _package.getName() != null ? _package.getName() : "";
             PackageStructure packageStructure = PackageReader.readPackage(packageableElements, packageName);
-
-            PackageDiagram packageDiagram = new PackageDiagram();
-            packageDiagram.setPackageStructure(packageStructure);
-            return packageDiagram;
+            return getRefModelDetails(packageStructure);
         } else {
             System.err.println("Package is null");
             return null;
         }
 
     }
+
+    public static PackageDiagram getRefModelDetails(PackageStructure packageStructure) {
+        PackageDiagram packageDiagram = new PackageDiagram();
+        packageDiagram.setPackageStructure(packageStructure);
+        return packageDiagram;
+    }
 }
\ No newline at end of file
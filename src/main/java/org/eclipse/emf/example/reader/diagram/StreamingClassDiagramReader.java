@@ -0,0 +1,843 @@
+package org.eclipse.emf.example.reader.diagram;
+
+import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.eclipse.emf.example.models._package.PackageStructure;
+import org.eclipse.emf.example.reader.type.ProxyFragment;
+import org.eclipse.emf.example.util.Keywords;
+import org.eclipse.emf.example.util.ModelStreams;
+import org.eclipse.emf.example.util.StringPool;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Builds the same {@link ClassDiagram} as {@link ClassDiagramReader} straight from the XMI events
+ * of a UML model file, without loading the UML2 object graph. Besides the extracted structures,
+ * only a table of classifier ids, names and kinds and the property and relationship records
+ * needed to resolve references at the end of the document are kept.
+ * <p>
+ * References into other files are not followed: their types are named after the href fragment,
+ * as the loader does for proxies it cannot resolve, and inherited members only come from
+ * superclasses defined in the same file.
+ */
+public class StreamingClassDiagramReader {
+
+    private static final String PRIVATE = "private";
+    private static final String PUBLIC = "public";
+
+    private static final Set<String> CLASS_KINDS = new HashSet<>(Arrays.asList(
+            "Class", "AssociationClass", "Stereotype", "Component", "Node", "Device", "ExecutionEnvironment",
+            "Activity", "StateMachine", "ProtocolStateMachine", "Interaction", "OpaqueBehavior", "FunctionBehavior"));
+    private static final Set<String> PACKAGE_KINDS = new HashSet<>(Arrays.asList("Package", "Model", "Profile"));
+    private static final Set<String> TYPE_KINDS = new HashSet<>(Arrays.asList(
+            "PrimitiveType", "Enumeration", "Interface", "DataType", "Signal"));
+
+    static {
+        TYPE_KINDS.addAll(CLASS_KINDS);
+    }
+
+    public static ClassDiagram getRefModelDetails(File file) throws IOException {
+        return getRefModelDetails(file, new StringPool());
+    }
+
+    /**
+     * @param strings pool the names, types and package names of the diagram are taken from
+     */
+    public static ClassDiagram getRefModelDetails(File file, StringPool strings) throws IOException {
+        Handler handler = new Handler(strings);
+        try (InputStream inputStream = ModelStreams.open(file)) {
+            ModelStreams.newSAXParser().parse(inputStream, handler);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Could not read " + file + ": " + e.getMessage(), e);
+        }
+
+        PackageStructure packageStructure = handler.packageStructure();
+        if (packageStructure == null) {
+            System.err.println("Package is null");
+            return null;
+        }
+        return ClassDiagramReader.getRefModelDetails(packageStructure);
+    }
+
+    private static String kind(String xmiType) {
+        if (xmiType == null) {
+            return null;
+        }
+        return xmiType.substring(xmiType.indexOf(':') + 1);
+    }
+
+    private static List<String> ids(String value) {
+        if (value == null || value.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(value.trim().split("\\s+"));
+    }
+
+    private static int unlimitedNatural(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        return "*".equals(value) ? -1 : Integer.parseInt(value);
+    }
+
+    private static class TypeRecord {
+        private String kind;
+        private String name;
+        private String packageName;
+    }
+
+    private static class TypeRef {
+        private String id;
+        private String kind;
+        private String href;
+
+        private String fragment() {
+            return href.substring(href.indexOf('#') + 1);
+        }
+    }
+
+    private static class PackageRecord {
+        private String kind;
+        private String name;
+        private final List<Object> elements = new ArrayList<>();
+    }
+
+    private static class ClassRecord {
+        private String id;
+        private String name;
+        private String packageName;
+        private String visibility = PUBLIC;
+        private boolean isAbstract;
+        private boolean isLeaf;
+        private final List<String> rules = new ArrayList<>();
+        private final List<String> generals = new ArrayList<>();
+        private final List<PropertyRecord> attributes = new ArrayList<>();
+        private final List<OperationRecord> operations = new ArrayList<>();
+    }
+
+    private static class PropertyRecord {
+        private String id;
+        private String name;
+        private String visibility = PUBLIC;
+        private TypeRef type;
+        private int upper = 1;
+        private Integer upperUnlimited;
+        private List<String> redefined = Collections.emptyList();
+        private boolean ownedByAssociation;
+    }
+
+    private static class OperationRecord {
+        private String id;
+        private String name;
+        private String visibility = PUBLIC;
+        private List<String> redefined = Collections.emptyList();
+        private final List<ParameterRecord> parameters = new ArrayList<>();
+    }
+
+    private static class ParameterRecord {
+        private String name;
+        private String visibility = PUBLIC;
+        private String direction;
+        private TypeRef type;
+        private int upper = 1;
+    }
+
+    private static class GeneralizationRecord {
+        private String specific;
+        private String general;
+    }
+
+    private static class AssociationRecord {
+        private List<String> memberEnds = Collections.emptyList();
+        private List<String> navigableOwnedEnds = Collections.emptyList();
+        private final Map<String, PropertyRecord> ownedEnds = new LinkedHashMap<>();
+    }
+
+    private static class InstanceRecord {
+        private String name;
+        private String packageName;
+        private List<String> classifiers = Collections.emptyList();
+        private final List<SlotRecord> slots = new ArrayList<>();
+    }
+
+    private static class SlotRecord {
+        private String definingFeature;
+        private final List<String[]> values = new ArrayList<>();
+    }
+
+    private enum FrameKind {
+        XMI, PACKAGE, CLASS, ENUMERATION, INSTANCE, SLOT, ASSOCIATION, PROPERTY, OPERATION, PARAMETER, RULE,
+        SPECIFICATION, BODY, OTHER
+    }
+
+    private static class Frame {
+        private final FrameKind kind;
+        private final Object record;
+        private final String packageName;
+
+        private Frame(FrameKind kind, Object record, String packageName) {
+            this.kind = kind;
+            this.record = record;
+            this.packageName = packageName;
+        }
+    }
+
+    private static class Handler extends DefaultHandler {
+
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final List<PackageRecord> roots = new ArrayList<>();
+        private final Map<String, TypeRecord> types = new HashMap<>();
+        private final Map<String, PropertyRecord> properties = new HashMap<>();
+        private final Map<String, ClassRecord> classes = new HashMap<>();
+        private final Map<String, String> instanceNames = new HashMap<>();
+        private final List<Object> relationships = new ArrayList<>();
+        private final StringPool strings;
+        private StringBuilder text;
+
+        private Handler(StringPool strings) {
+            this.strings = strings;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            String kind = kind(attributes.getValue("xmi:type"));
+            Frame parent = frames.peek();
+            String packageName = parent != null ? parent.packageName : "";
+
+            if (kind == null && (parent == null || parent.kind == FrameKind.XMI)) {
+                kind = kind(qName);
+            }
+            String id = attributes.getValue("xmi:id");
+            // every attribute value is a new string, the same names recur all over a model
+            String name = strings.intern(attributes.getValue("name"));
+            if (id != null && TYPE_KINDS.contains(kind)) {
+                TypeRecord typeRecord = new TypeRecord();
+                typeRecord.kind = kind;
+                typeRecord.name = name;
+                typeRecord.packageName = packageName;
+                types.put(id, typeRecord);
+            }
+
+            Frame frame;
+            if (parent == null || parent.kind == FrameKind.XMI) {
+                if (parent == null && "xmi:XMI".equals(qName)) {
+                    frame = new Frame(FrameKind.XMI, null, "");
+                } else if (PACKAGE_KINDS.contains(kind)) {
+                    PackageRecord packageRecord = new PackageRecord();
+                    packageRecord.kind = kind;
+                    packageRecord.name = name != null ? name : "";
+                    roots.add(packageRecord);
+                    frame = new Frame(FrameKind.PACKAGE, packageRecord, packageRecord.name);
+                } else {
+                    frame = new Frame(FrameKind.OTHER, null, packageName);
+                }
+            } else {
+                frame = childFrame(parent, qName, kind, id, name, attributes);
+            }
+            frames.push(frame);
+        }
+
+        private Frame childFrame(Frame parent, String qName, String kind, String id, String name,
+                                 Attributes attributes) {
+            String packageName = parent.packageName;
+            switch (parent.kind) {
+                case PACKAGE:
+                    if (!"packagedElement".equals(qName)) {
+                        break;
+                    }
+                    PackageRecord packageRecord = (PackageRecord) parent.record;
+                    if ("Class".equals(kind)) {
+                        ClassRecord classRecord = new ClassRecord();
+                        classRecord.id = id;
+                        classRecord.name = name;
+                        classRecord.packageName = packageName;
+                        classRecord.visibility = visibility(attributes);
+                        classRecord.isAbstract = Boolean.parseBoolean(attributes.getValue("isAbstract"));
+                        classRecord.isLeaf = Boolean.parseBoolean(attributes.getValue("isLeaf"));
+                        if (id != null) {
+                            classes.put(id, classRecord);
+                        }
+                        packageRecord.elements.add(classRecord);
+                        return new Frame(FrameKind.CLASS, classRecord, packageName);
+                    } else if ("Enumeration".equals(kind)) {
+                        EnumStructure enumStructure = new EnumStructure();
+                        enumStructure.setName(name);
+                        enumStructure.setPackage(packageName);
+                        packageRecord.elements.add(enumStructure);
+                        return new Frame(FrameKind.ENUMERATION, enumStructure, packageName);
+                    } else if ("InstanceSpecification".equals(kind)) {
+                        InstanceRecord instanceRecord = new InstanceRecord();
+                        instanceRecord.name = name;
+                        instanceRecord.packageName = packageName;
+                        instanceRecord.classifiers = ids(attributes.getValue("classifier"));
+                        if (id != null) {
+                            instanceNames.put(id, name);
+                        }
+                        packageRecord.elements.add(instanceRecord);
+                        return new Frame(FrameKind.INSTANCE, instanceRecord, packageName);
+                    } else if ("Package".equals(kind)) {
+                        PackageRecord nestedPackageRecord = new PackageRecord();
+                        nestedPackageRecord.kind = kind;
+                        if (packageName.equals("")) {
+                            nestedPackageRecord.name = name != null ? name : packageName;
+                        } else {
+                            nestedPackageRecord.name = name != null ? strings.intern(packageName + "." + name) : packageName;
+                        }
+                        packageRecord.elements.add(nestedPackageRecord);
+                        return new Frame(FrameKind.PACKAGE, nestedPackageRecord, nestedPackageRecord.name);
+                    } else if ("Association".equals(kind)) {
+                        AssociationRecord associationRecord = new AssociationRecord();
+                        associationRecord.memberEnds = ids(attributes.getValue("memberEnd"));
+                        associationRecord.navigableOwnedEnds = ids(attributes.getValue("navigableOwnedEnd"));
+                        relationships.add(associationRecord);
+                        return new Frame(FrameKind.ASSOCIATION, associationRecord, packageName);
+                    }
+                    break;
+                case CLASS:
+                    ClassRecord classRecord = (ClassRecord) parent.record;
+                    if ("ownedAttribute".equals(qName)) {
+                        PropertyRecord propertyRecord = property(id, name, attributes);
+                        classRecord.attributes.add(propertyRecord);
+                        return new Frame(FrameKind.PROPERTY, propertyRecord, packageName);
+                    } else if ("ownedOperation".equals(qName)) {
+                        OperationRecord operationRecord = new OperationRecord();
+                        operationRecord.id = id;
+                        operationRecord.name = name;
+                        operationRecord.visibility = visibility(attributes);
+                        operationRecord.redefined = ids(attributes.getValue("redefinedOperation"));
+                        classRecord.operations.add(operationRecord);
+                        return new Frame(FrameKind.OPERATION, operationRecord, packageName);
+                    } else if ("generalization".equals(qName)) {
+                        String general = attributes.getValue("general");
+                        if (general != null) {
+                            classRecord.generals.add(general);
+                            GeneralizationRecord generalizationRecord = new GeneralizationRecord();
+                            generalizationRecord.specific = classRecord.id;
+                            generalizationRecord.general = general;
+                            relationships.add(generalizationRecord);
+                        }
+                    } else if ("ownedRule".equals(qName)) {
+                        return new Frame(FrameKind.RULE, classRecord, packageName);
+                    }
+                    break;
+                case RULE:
+                    if ("specification".equals(qName) && "OpaqueExpression".equals(kind)) {
+                        return new Frame(FrameKind.SPECIFICATION, parent.record, packageName);
+                    }
+                    break;
+                case SPECIFICATION:
+                    if ("body".equals(qName)) {
+                        text = new StringBuilder();
+                        return new Frame(FrameKind.BODY, parent.record, packageName);
+                    }
+                    break;
+                case ENUMERATION:
+                    if ("ownedLiteral".equals(qName)) {
+                        ((EnumStructure) parent.record).addLiteral(name);
+                    }
+                    break;
+                case ASSOCIATION:
+                    if ("ownedEnd".equals(qName)) {
+                        PropertyRecord propertyRecord = property(id, name, attributes);
+                        propertyRecord.ownedByAssociation = true;
+                        ((AssociationRecord) parent.record).ownedEnds.put(id, propertyRecord);
+                        return new Frame(FrameKind.PROPERTY, propertyRecord, packageName);
+                    }
+                    break;
+                case PROPERTY:
+                    PropertyRecord propertyRecord = (PropertyRecord) parent.record;
+                    if ("type".equals(qName)) {
+                        propertyRecord.type = typeRef(kind, attributes);
+                    } else if ("upperValue".equals(qName)) {
+                        propertyRecord.upper = unlimitedNatural(attributes.getValue("value"));
+                        if ("LiteralUnlimitedNatural".equals(kind)) {
+                            propertyRecord.upperUnlimited = propertyRecord.upper;
+                        }
+                    }
+                    break;
+                case OPERATION:
+                    if ("ownedParameter".equals(qName)) {
+                        ParameterRecord parameterRecord = new ParameterRecord();
+                        parameterRecord.name = name;
+                        parameterRecord.visibility = visibility(attributes);
+                        parameterRecord.direction = attributes.getValue("direction");
+                        parameterRecord.type = typeRef(null, attributes);
+                        ((OperationRecord) parent.record).parameters.add(parameterRecord);
+                        return new Frame(FrameKind.PARAMETER, parameterRecord, packageName);
+                    }
+                    break;
+                case PARAMETER:
+                    ParameterRecord parameterRecord = (ParameterRecord) parent.record;
+                    if ("type".equals(qName)) {
+                        parameterRecord.type = typeRef(kind, attributes);
+                    } else if ("upperValue".equals(qName)) {
+                        parameterRecord.upper = unlimitedNatural(attributes.getValue("value"));
+                    }
+                    break;
+                case INSTANCE:
+                    if ("slot".equals(qName)) {
+                        SlotRecord slotRecord = new SlotRecord();
+                        slotRecord.definingFeature = attributes.getValue("definingFeature");
+                        ((InstanceRecord) parent.record).slots.add(slotRecord);
+                        return new Frame(FrameKind.SLOT, slotRecord, packageName);
+                    }
+                    break;
+                case SLOT:
+                    if ("value".equals(qName)) {
+                        String value = "InstanceValue".equals(kind)
+                                ? attributes.getValue("instance") : attributes.getValue("value");
+                        ((SlotRecord) parent.record).values.add(new String[]{kind, value});
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return new Frame(FrameKind.OTHER, null, packageName);
+        }
+
+        private PropertyRecord property(String id, String name, Attributes attributes) {
+            PropertyRecord propertyRecord = new PropertyRecord();
+            propertyRecord.id = id;
+            propertyRecord.name = name;
+            propertyRecord.visibility = visibility(attributes);
+            propertyRecord.type = typeRef(null, attributes);
+            propertyRecord.redefined = ids(attributes.getValue("redefinedProperty"));
+            if (id != null) {
+                properties.put(id, propertyRecord);
+            }
+            return propertyRecord;
+        }
+
+        private String visibility(Attributes attributes) {
+            String visibility = attributes.getValue("visibility");
+            return visibility != null ? strings.intern(visibility) : PUBLIC;
+        }
+
+        private static TypeRef typeRef(String kind, Attributes attributes) {
+            TypeRef typeRef = new TypeRef();
+            if (kind == null) {
+                typeRef.id = attributes.getValue("type");
+                return typeRef.id != null ? typeRef : null;
+            }
+            typeRef.kind = kind;
+            typeRef.href = attributes.getValue("href");
+            return typeRef.href != null ? typeRef : null;
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (text != null) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            Frame frame = frames.pop();
+            if (frame.kind == FrameKind.BODY) {
+                ((ClassRecord) frame.record).rules.add(text.toString());
+                text = null;
+            }
+        }
+
+        PackageStructure packageStructure() {
+            PackageRecord root = null;
+            for (PackageRecord packageRecord : roots) {
+                if ("Model".equals(packageRecord.kind)) {
+                    root = packageRecord;
+                    break;
+                } else if (root == null) {
+                    root = packageRecord;
+                }
+            }
+            if (root == null) {
+                return null;
+            }
+
+            Map<ClassRecord, List<ClassRelation>> relations = relations();
+            Map<ClassRecord, List<Object>> members = new HashMap<>();
+            return packageStructure(root, relations, members);
+        }
+
+        private PackageStructure packageStructure(PackageRecord packageRecord,
+                                                  Map<ClassRecord, List<ClassRelation>> relations,
+                                                  Map<ClassRecord, List<Object>> members) {
+            PackageStructure packageStructure = new PackageStructure();
+            packageStructure.setName(packageRecord.name);
+            for (Object element : packageRecord.elements) {
+                if (element instanceof ClassRecord) {
+                    packageStructure.getClasses().add(classStructure((ClassRecord) element, relations, members));
+                } else if (element instanceof EnumStructure) {
+                    packageStructure.getEnums().add((EnumStructure) element);
+                } else if (element instanceof InstanceRecord) {
+                    packageStructure.getInstances().add(classInstance((InstanceRecord) element));
+                } else if (element instanceof PackageRecord) {
+                    packageStructure.getPackages().add(packageStructure((PackageRecord) element, relations, members));
+                }
+            }
+            return packageStructure;
+        }
+
+        private ClassStructure classStructure(ClassRecord classRecord,
+                                              Map<ClassRecord, List<ClassRelation>> relations,
+                                              Map<ClassRecord, List<Object>> members) {
+            ClassStructure classStructure = new ClassStructure();
+
+            for (String general : classRecord.generals) {
+                TypeRecord superClass = types.get(general);
+                if (superClass != null && CLASS_KINDS.contains(superClass.kind)) {
+                    ClassStructure superClassStructure = new ClassStructure();
+                    superClassStructure.setName(superClass.name);
+                    superClassStructure.setPackage(superClass.packageName);
+                    classStructure.getSuperClasses().add(superClassStructure);
+                }
+            }
+
+            classStructure.setPackage(classRecord.packageName);
+            classStructure.setVisibility(classRecord.visibility);
+            classStructure.setRules(new ArrayList<>(classRecord.rules));
+            classStructure.setAbstract(classRecord.isAbstract);
+            classStructure.setFinal(classRecord.isLeaf);
+            classStructure.setName(classRecord.name);
+
+            for (PropertyRecord propertyRecord : classRecord.attributes) {
+                addAttribute(classStructure, propertyRecord);
+            }
+            for (OperationRecord operationRecord : classRecord.operations) {
+                classStructure.addOperation(classOperation(operationRecord));
+            }
+            List<ClassRelation> classRelations = relations.get(classRecord);
+            if (classRelations != null) {
+                classStructure.setRelationships(classRelations);
+            }
+
+            for (Object member : inheritedMembers(classRecord, members, new HashSet<ClassRecord>())) {
+                if (member instanceof PropertyRecord) {
+                    addAttribute(classStructure, (PropertyRecord) member);
+                } else {
+                    classStructure.addOperation(classOperation((OperationRecord) member));
+                }
+            }
+            return classStructure;
+        }
+
+        private List<Object> members(ClassRecord classRecord, Map<ClassRecord, List<Object>> members,
+                                     Set<ClassRecord> visiting) {
+            List<Object> result = members.get(classRecord);
+            if (result == null) {
+                result = new ArrayList<>();
+                result.addAll(classRecord.attributes);
+                result.addAll(classRecord.operations);
+                result.addAll(inheritedMembers(classRecord, members, visiting));
+                members.put(classRecord, result);
+            }
+            return result;
+        }
+
+        private Collection<Object> inheritedMembers(ClassRecord classRecord, Map<ClassRecord, List<Object>> members,
+                                                    Set<ClassRecord> visiting) {
+            if (!visiting.add(classRecord)) {
+                return Collections.emptyList();
+            }
+
+            Set<String> redefined = new HashSet<>();
+            for (PropertyRecord propertyRecord : classRecord.attributes) {
+                redefined.addAll(propertyRecord.redefined);
+            }
+            for (OperationRecord operationRecord : classRecord.operations) {
+                redefined.addAll(operationRecord.redefined);
+            }
+
+            Set<Object> inherited = new LinkedHashSet<>();
+            for (String general : classRecord.generals) {
+                ClassRecord superClass = classes.get(general);
+                if (superClass == null) {
+                    continue;
+                }
+                for (Object member : members(superClass, members, visiting)) {
+                    String visibility;
+                    String memberId;
+                    if (member instanceof PropertyRecord) {
+                        visibility = ((PropertyRecord) member).visibility;
+                        memberId = ((PropertyRecord) member).id;
+                    } else {
+                        visibility = ((OperationRecord) member).visibility;
+                        memberId = ((OperationRecord) member).id;
+                    }
+                    if (!PRIVATE.equals(visibility) && (memberId == null || !redefined.contains(memberId))) {
+                        inherited.add(member);
+                    }
+                }
+            }
+            visiting.remove(classRecord);
+            return inherited;
+        }
+
+        private void addAttribute(ClassStructure classStructure, PropertyRecord propertyRecord) {
+            ClassAttribute attribute = classAttribute(propertyRecord);
+            if (attribute.getName() != null) {
+                classStructure.addAttribute(attribute);
+            }
+        }
+
+        private ClassAttribute classAttribute(PropertyRecord propertyRecord) {
+            ClassAttribute attribute = new ClassAttribute();
+            TypeRef typeRef = propertyRecord.type;
+            String kind = typeKind(typeRef);
+            if ("PrimitiveType".equals(kind)) {
+                attribute.setName(propertyRecord.name);
+                attribute.setVisibility(propertyRecord.visibility);
+                attribute.setType(typeName(typeRef));
+                attribute.setCollection(propertyRecord.upper == -1);
+            } else if ("Enumeration".equals(kind)) {
+                attribute.setName(propertyRecord.name);
+                attribute.setVisibility(propertyRecord.visibility);
+                attribute.setType(typeName(typeRef));
+                attribute.setEnum(true);
+                attribute.setCollection(propertyRecord.upper == -1);
+            } else if (CLASS_KINDS.contains(kind)) {
+                attribute.setName(propertyRecord.name);
+                attribute.setVisibility(propertyRecord.visibility);
+                attribute.setType(typeName(typeRef));
+                attribute.setClass(true);
+                attribute.setCollection(propertyRecord.upper == -1);
+            } else if ("Interface".equals(kind)) {
+                if (typeRef.href != null) {
+                    ProxyFragment proxyFragment = ProxyFragment.parse(typeRef.fragment());
+                    attribute.setCollection(proxyFragment.isCollection());
+                    attribute.setType(proxyFragment.getTypeName());
+                } else {
+                    attribute.setType(typeName(typeRef));
+                }
+                attribute.setName(propertyRecord.name);
+                attribute.setVisibility(propertyRecord.visibility);
+            }
+            return attribute;
+        }
+
+        private ClassOperation classOperation(OperationRecord operationRecord) {
+            ClassOperation classOperation = new ClassOperation();
+            classOperation.setName(operationRecord.name);
+            classOperation.setVisibility(operationRecord.visibility);
+            classOperation.setReturnType(new OperationReturn());
+
+            for (ParameterRecord parameterRecord : operationRecord.parameters) {
+                TypeRef typeRef = parameterRecord.type;
+                String kind = typeKind(typeRef);
+                boolean returnType = "return".equals(parameterRecord.direction);
+                boolean collection = parameterRecord.upper == -1;
+
+                String type;
+                boolean isClass = false;
+                boolean setVisibility = true;
+                if ("PrimitiveType".equals(kind)) {
+                    type = typeName(typeRef);
+                    setVisibility = false;
+                } else if ("Enumeration".equals(kind)) {
+                    type = typeName(typeRef);
+                } else if (CLASS_KINDS.contains(kind)) {
+                    type = typeName(typeRef);
+                    isClass = true;
+                } else if ("Interface".equals(kind)) {
+                    ProxyFragment proxyFragment = typeRef.href != null ? ProxyFragment.parse(typeRef.fragment()) : null;
+                    type = proxyFragment != null ? proxyFragment.getTypeName() : typeName(typeRef);
+                    collection = proxyFragment != null && proxyFragment.isCollection();
+                } else {
+                    continue;
+                }
+
+                if (returnType) {
+                    classOperation.setReturnType(new OperationReturn(type, isClass, collection));
+                } else {
+                    OperationParameter operationParameter = new OperationParameter();
+                    operationParameter.setName(parameterRecord.name);
+                    if (setVisibility) {
+                        operationParameter.setVisibility(parameterRecord.visibility);
+                    }
+                    operationParameter.setType(type);
+                    operationParameter.setClass(isClass);
+                    operationParameter.setCollection(collection);
+                    classOperation.getParameters().add(operationParameter);
+                }
+            }
+            return classOperation;
+        }
+
+        private String typeKind(TypeRef typeRef) {
+            if (typeRef == null) {
+                return null;
+            }
+            if (typeRef.id != null) {
+                TypeRecord typeRecord = types.get(typeRef.id);
+                return typeRecord != null ? typeRecord.kind : null;
+            }
+            return typeRef.kind;
+        }
+
+        private String typeName(TypeRef typeRef) {
+            if (typeRef.id != null) {
+                // only the kinds in TYPE_KINDS are recorded, a slot may be typed by any other
+                TypeRecord typeRecord = types.get(typeRef.id);
+                return typeRecord != null ? typeRecord.name : null;
+            }
+            // unresolved proxies have no name, the readers fall back to the href fragment for primitive types
+            return "PrimitiveType".equals(typeRef.kind) ? strings.intern(typeRef.fragment()) : null;
+        }
+
+        private ClassInstance classInstance(InstanceRecord instanceRecord) {
+            ClassInstance classInstance = new ClassInstance();
+            if (instanceRecord.name == null || instanceRecord.name.isEmpty()) {
+                return classInstance;
+            }
+
+            classInstance.setName(instanceRecord.name);
+            classInstance.set_package(instanceRecord.packageName);
+
+            for (SlotRecord slotRecord : instanceRecord.slots) {
+                PropertyRecord feature = properties.get(slotRecord.definingFeature);
+                InstanceAttribute attribute = new InstanceAttribute();
+                if (feature != null) {
+                    attribute.setName(feature.name);
+                    if (feature.type != null) {
+                        attribute.setType(typeName(feature.type));
+                    }
+                }
+
+                List<Object> values = new ArrayList<>();
+                for (String[] value : slotRecord.values) {
+                    String kind = value[0];
+                    if ("InstanceValue".equals(kind)) {
+                        attribute.setClass(true);
+                        String instance = instanceNames.get(value[1]);
+                        if (instance != null) {
+                            values.add(instance);
+                        }
+                    } else if ("LiteralString".equals(kind)) {
+                        values.add(value[1]);
+                    } else if ("LiteralInteger".equals(kind)) {
+                        values.add(value[1] != null ? Integer.parseInt(value[1]) : 0);
+                    } else if ("LiteralBoolean".equals(kind)) {
+                        values.add(Boolean.parseBoolean(value[1]));
+                    } else if ("LiteralReal".equals(kind)) {
+                        values.add(value[1] != null ? Double.parseDouble(value[1]) : 0.0);
+                    } else if ("LiteralUnlimitedNatural".equals(kind)) {
+                        values.add(unlimitedNatural(value[1]));
+                    }
+                }
+                attribute.setValues(values.toArray());
+                classInstance.addAttribute(attribute);
+            }
+
+            for (String classifier : instanceRecord.classifiers) {
+                TypeRecord typeRecord = types.get(classifier);
+                if (typeRecord != null && typeRecord.name != null) {
+                    ClassStructure classStructure = new ClassStructure();
+                    classStructure.setName(typeRecord.name);
+                    classStructure.setPackage(typeRecord.packageName);
+                    classInstance.getClasses().add(classStructure);
+                }
+            }
+            return classInstance;
+        }
+
+        private Map<ClassRecord, List<ClassRelation>> relations() {
+            Map<ClassRecord, List<ClassRelation>> relations = new HashMap<>();
+            for (Object relationship : relationships) {
+                if (relationship instanceof GeneralizationRecord) {
+                    GeneralizationRecord generalizationRecord = (GeneralizationRecord) relationship;
+                    List<String> related = Arrays.asList(generalizationRecord.specific, generalizationRecord.general);
+                    for (String relatedId : related) {
+                        ClassRecord classRecord = classes.get(relatedId);
+                        if (classRecord != null) {
+                            addRelation(relations, classRecord, generalization(related));
+                        }
+                    }
+                } else {
+                    AssociationRecord associationRecord = (AssociationRecord) relationship;
+                    Set<ClassRecord> endTypes = new LinkedHashSet<>();
+                    for (String memberEnd : associationRecord.memberEnds) {
+                        PropertyRecord end = properties.get(memberEnd);
+                        if (end != null && end.type != null && end.type.id != null) {
+                            ClassRecord classRecord = classes.get(end.type.id);
+                            if (classRecord != null) {
+                                endTypes.add(classRecord);
+                            }
+                        }
+                    }
+                    for (ClassRecord classRecord : endTypes) {
+                        addRelation(relations, classRecord, association(associationRecord));
+                    }
+                }
+            }
+            return relations;
+        }
+
+        private static void addRelation(Map<ClassRecord, List<ClassRelation>> relations, ClassRecord classRecord,
+                                        ClassRelation relation) {
+            List<ClassRelation> classRelations = relations.get(classRecord);
+            if (classRelations == null) {
+                classRelations = new ArrayList<>();
+                relations.put(classRecord, classRelations);
+            }
+            classRelations.add(relation);
+        }
+
+        private ClassRelation generalization(List<String> related) {
+            ClassRelation relation = new ClassRelation();
+            relation.setType(Keywords.Generalization);
+            boolean first = true;
+            for (String relatedId : related) {
+                TypeRecord typeRecord = types.get(relatedId);
+                if (typeRecord != null && CLASS_KINDS.contains(typeRecord.kind)) {
+                    if (first) {
+                        first = false;
+                        relation.setClass_1(typeRecord.name);
+                    } else {
+                        relation.setClass_2(typeRecord.name);
+                    }
+                }
+            }
+            return relation;
+        }
+
+        private ClassRelation association(AssociationRecord associationRecord) {
+            ClassRelation relation = new ClassRelation();
+            relation.setType(Keywords.Association);
+            boolean first = true;
+            for (String memberEnd : associationRecord.memberEnds) {
+                PropertyRecord end = properties.get(memberEnd);
+                if (end == null || !CLASS_KINDS.contains(typeKind(end.type))) {
+                    continue;
+                }
+                String roleName = end.name != null && !end.name.isEmpty() ? end.name : "";
+                boolean navigable = !end.ownedByAssociation || associationRecord.navigableOwnedEnds.contains(memberEnd);
+                if (first) {
+                    first = false;
+                    relation.setVisibility(end.visibility);
+                    relation.setClass_1(typeName(end.type));
+                    relation.setRole_Name_1(roleName);
+                    relation.setNavigable_1(navigable);
+                    if (end.upperUnlimited != null) {
+                        relation.setMultipcity_Uper_1(end.upperUnlimited);
+                    }
+                } else {
+                    relation.setClass_2(typeName(end.type));
+                    relation.setRole_Name_2(roleName);
+                    relation.setNavigable_2(navigable);
+                    if (end.upperUnlimited != null) {
+                        relation.setMultipcity_Uper_2(end.upperUnlimited);
+                    }
+                    return relation;
+                }
+            }
+            return relation;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.eclipse.emf.example.models._profile.ProfileDiagram;
 import org.eclipse.emf.example.models._profile.StereotypeStructure;
 import org.eclipse.emf.example.reader.ClassStructureReader;
 import org.eclipse.emf.example.reader.EnumerationReader;
+import org.eclipse.emf.example.reader.ExtractionContext;
 import org.eclipse.uml2.uml.Class;
 import org.eclipse.uml2.uml.*;
 import org.eclipse.uml2.uml.Package;
@@ -18,6 +19,10 @@ public class UMLProfileReader {
 
 
     public static ProfileDiagram getRefModelDetails(Package _package) {
+        return getRefModelDetails(_package, new ExtractionContext());
+    }
+
+    public static ProfileDiagram getRefModelDetails(Package _package, ExtractionContext context) {
 
         ProfileDiagram profileDiagram = new ProfileDiagram();
         EList<PackageableElement> packageableElements;
@@ -33,19 +38,19 @@ public class UMLProfileReader {
             return null;
         }
 
-        String packageName = _package.getName() != null ? _package.getName() : "";
+        String packageName = context.intern(_package.getName() != null ? _package.getName() : "");
 
         for (PackageableElement element : packageableElements) {
 
             if (element.eClass() == UMLPackage.Literals.STEREOTYPE) {
                 Stereotype stereotype = (Stereotype) element;
-                StereotypeStructure stereotypeStructure = readStereotype(stereotype, packageName);
+                StereotypeStructure stereotypeStructure = readStereotype(stereotype, packageName, context);
                 profileDiagram.getStereotypes().add(stereotypeStructure);
             } else if (element.eClass() == UMLPackage.Literals.EXTENSION) {
                 Extension extension = (Extension) element;
 
                 ExtensionStructure extensionStructure = new ExtensionStructure();
-                extensionStructure.setName(extension.getName());
+                extensionStructure.setName(context.intern(extension.getName()));
 
                 /*System.out.println("Extension: " + extension.getName());
                 System.out.println(extension.getStereotype().getName());
@@ -54,7 +59,7 @@ public class UMLProfileReader {
 
                 profileDiagram.getExtensions().add(extensionStructure);
             } else if (element.eClass() == UMLPackage.Literals.ENUMERATION) {
-                EnumStructure enumStructure = EnumerationReader.readEnumeration(element, packageName);
+                EnumStructure enumStructure = EnumerationReader.readEnumeration(element, packageName, context);
                 profileDiagram.getEnumerations().add(enumStructure);
 
             } else {
@@ -68,21 +73,27 @@ public class UMLProfileReader {
 
 
     public static StereotypeStructure readStereotype(Element element, String packageName) {
+        return readStereotype(element, packageName, new ExtractionContext());
+    }
+
+    public static StereotypeStructure readStereotype(Element element, String packageName, ExtractionContext context) {
         StereotypeStructure stereotypeStructure = new StereotypeStructure();
         Stereotype stereotype = (Stereotype) element;
         stereotypeStructure.setPackage(packageName);
         stereotypeStructure.setVisibility(stereotype.getVisibility().toString());
         stereotypeStructure.setAbstract(stereotype.isAbstract());
         stereotypeStructure.setFinal(stereotype.isLeaf());
-        stereotypeStructure.setName(stereotype.getName());
-        stereotypeStructure.setAttributes(ClassStructureReader.readAttribute(stereotype.getOwnedAttributes()));
-        stereotypeStructure.setOperations(ClassStructureReader.readClassOperations(stereotype.getOwnedOperations()));
-        stereotypeStructure.setRelationships(ClassStructureReader.readClassRelations(stereotype.getRelationships()));
+        stereotypeStructure.setName(context.intern(stereotype.getName()));
+        stereotypeStructure.setAttributes(ClassStructureReader.readAttribute(stereotype.getOwnedAttributes(), context));
+        stereotypeStructure.setOperations(ClassStructureReader.readClassOperations(stereotype.getOwnedOperations(),
+                context));
+        stereotypeStructure.setRelationships(ClassStructureReader.readClassRelations(stereotype.getRelationships(),
+                context));
 
 
         for (Class aClass : stereotype.getExtendedMetaclasses()) {
             ClassStructure classStructure = new ClassStructure();
-            classStructure.setName(aClass.getName());
+            classStructure.setName(context.intern(aClass.getName()));
             stereotypeStructure.getExtendedClass().add(classStructure);
         }
 
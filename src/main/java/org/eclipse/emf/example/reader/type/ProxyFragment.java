@@ -0,0 +1,133 @@
+package org.eclipse.emf.example.reader.type;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Java type encoded in the proxy fragment of an interface from a reverse engineered model, e.g.
+ * {@code java.util.List[project^id=java.lang.String]$uml.Interface} for a list of strings or
+ * {@code [project^id=com.example.Service]$uml.Interface} for a plain type.
+ * <p>
+ * A fragment is a collection when the type in front of the id is a known collection type, see
+ * {@link #addCollectionType(String)}. Parsed fragments are kept in a bounded cache and their names are
+ * interned, so that every property typed by the same interface shares one instance.
+ */
+public final class ProxyFragment {
+
+    public static final ProxyFragment EMPTY = new ProxyFragment(null, "", "");
+
+    private static final String ID_MARKER = "[project^id=";
+    private static final String END_MARKER = "]$uml.Interface";
+    private static final int MAX_CACHED = 8192;
+
+    private static final Set<String> COLLECTION_TYPES = ConcurrentHashMap.newKeySet();
+    /**
+     * Replaced whenever a collection type is added, so that a parse still running with the old
+     * types can only fill the discarded map.
+     */
+    private static volatile Map<String, ProxyFragment> cache = new ConcurrentHashMap<>();
+
+    static {
+        for (String collectionType : Arrays.asList("Collection", "List", "ArrayList", "LinkedList",
+                "Set", "HashSet", "LinkedHashSet", "SortedSet", "NavigableSet", "TreeSet",
+                "Queue", "Deque", "ArrayDeque", "PriorityQueue", "Vector", "Stack")) {
+            COLLECTION_TYPES.add("java.util." + collectionType);
+        }
+        COLLECTION_TYPES.add("java.lang.Iterable");
+    }
+
+    private final String collectionType;
+    private final String elementType;
+    private final String typeName;
+
+    private ProxyFragment(String collectionType, String elementType, String typeName) {
+        this.collectionType = collectionType;
+        this.elementType = elementType;
+        this.typeName = typeName;
+    }
+
+    /**
+     * Makes fragments with {@code collectionType} in front of the id collections, e.g.
+     * {@code com.google.common.collect.ImmutableList}. The fragments parsed so far are dropped from
+     * the cache, so that they are parsed again with the new type.
+     */
+    public static void addCollectionType(String collectionType) {
+        if (COLLECTION_TYPES.add(collectionType)) {
+            cache = new ConcurrentHashMap<>();
+        }
+    }
+
+    public static ProxyFragment parse(String fragment) {
+        if (fragment == null || fragment.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, ProxyFragment> cache = ProxyFragment.cache;
+        ProxyFragment proxyFragment = cache.get(fragment);
+        if (proxyFragment == null) {
+            proxyFragment = doParse(fragment);
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            cache.put(fragment, proxyFragment);
+        }
+        return proxyFragment;
+    }
+
+    private static ProxyFragment doParse(String fragment) {
+        int idStart = fragment.indexOf(ID_MARKER);
+        if (idStart < 0) {
+            String elementType = fragment.intern();
+            return new ProxyFragment(null, elementType, elementType);
+        }
+
+        int elementStart = idStart + ID_MARKER.length();
+        int elementEnd = fragment.indexOf(END_MARKER, elementStart);
+        if (elementEnd < 0) {
+            elementEnd = fragment.length();
+        }
+        String elementType = fragment.substring(elementStart, elementEnd).intern();
+
+        String collectionType = idStart > 0 ? collectionType(fragment, idStart) : null;
+        if (collectionType == null) {
+            return new ProxyFragment(null, elementType, elementType);
+        }
+        String typeName = (collectionType + '<' + elementType + '>').intern();
+        return new ProxyFragment(collectionType, elementType, typeName);
+    }
+
+    private static String collectionType(String fragment, int length) {
+        for (String collectionType : COLLECTION_TYPES) {
+            if (collectionType.length() == length && fragment.startsWith(collectionType)) {
+                return collectionType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the collection type, {@code null} if the fragment is not a collection
+     */
+    public String getCollectionType() {
+        return collectionType;
+    }
+
+    public String getElementType() {
+        return elementType;
+    }
+
+    /**
+     * @return the element type, or {@code collectionType<elementType>} for a collection
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public boolean isCollection() {
+        return collectionType != null;
+    }
+
+    @Override
+    public String toString() {
+        return typeName;
+    }
+}
@@ -0,0 +1,64 @@
+package org.eclipse.emf.example.reader.type;
+
+/**
+ * What the readers need to know about a UML type: its name, what kind of classifier it is and whether
+ * the elements typed by it are collections.
+ */
+public final class TypeDescriptor {
+
+    public enum Kind {
+        PRIMITIVE, ENUMERATION, CLASS, INTERFACE, DATA_TYPE, SIGNAL, OTHER
+    }
+
+    public enum CollectionKind {
+        /** Never a collection, whatever the multiplicity of the typed element. */
+        NONE,
+        /** A collection when the typed element has an unlimited upper bound. */
+        MULTIPLICITY,
+        /** Always a collection, e.g. a {@code java.util.List} interface. */
+        ALWAYS
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final CollectionKind collectionKind;
+
+    public TypeDescriptor(Kind kind, String name, CollectionKind collectionKind) {
+        this.kind = kind;
+        this.name = name;
+        this.collectionKind = collectionKind;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CollectionKind getCollectionKind() {
+        return collectionKind;
+    }
+
+    public boolean isClass() {
+        return kind == Kind.CLASS;
+    }
+
+    public boolean isEnum() {
+        return kind == Kind.ENUMERATION;
+    }
+
+    /**
+     * @param upper upper bound of the typed element, -1 for unlimited
+     */
+    public boolean isCollection(int upper) {
+        return collectionKind == CollectionKind.ALWAYS
+                || (collectionKind == CollectionKind.MULTIPLICITY && upper == -1);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + name + " " + collectionKind;
+    }
+}
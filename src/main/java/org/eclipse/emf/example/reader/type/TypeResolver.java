@@ -0,0 +1,14 @@
+package org.eclipse.emf.example.reader.type;
+
+import org.eclipse.uml2.uml.Type;
+
+/**
+ * Describes the types of one kind of classifier, registered for its metaclass in a {@link TypeResolverRegistry}.
+ */
+public interface TypeResolver {
+
+    /**
+     * @return the descriptor of {@code type}, {@code null} if elements of this type are not read
+     */
+    TypeDescriptor resolve(Type type);
+}
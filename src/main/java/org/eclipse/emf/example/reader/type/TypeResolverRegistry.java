@@ -0,0 +1,136 @@
+package org.eclipse.emf.example.reader.type;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.uml2.uml.Type;
+import org.eclipse.uml2.uml.UMLPackage;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolvers by metaclass. A type is resolved by the resolver registered for its own metaclass or, failing
+ * that, for the nearest of its super metaclasses, searched breadth-first; so the resolver for
+ * {@code Class} also handles stereotypes, behaviors and components.
+ * <p>
+ * The default registry handles primitive types, enumerations, classes and interfaces the way the readers
+ * always did; data types and signals are not read unless a resolver is registered for them, e.g.
+ * {@code register(UMLPackage.Literals.DATA_TYPE, TypeResolverRegistry.named(Kind.DATA_TYPE))}.
+ */
+public class TypeResolverRegistry {
+
+    private static final TypeResolver NONE = new TypeResolver() {
+        @Override
+        public TypeDescriptor resolve(Type type) {
+            return null;
+        }
+    };
+
+    private static final TypeResolverRegistry DEFAULT = createDefault();
+
+    private final Map<EClass, TypeResolver> resolvers = new ConcurrentHashMap<>();
+    private final Map<EClass, TypeResolver> dispatch = new ConcurrentHashMap<>();
+
+    /**
+     * @return the registry used by extractions that were not given one; registrations apply to all of them
+     */
+    public static TypeResolverRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public static TypeResolverRegistry createDefault() {
+        TypeResolverRegistry registry = new TypeResolverRegistry();
+        registry.register(UMLPackage.Literals.PRIMITIVE_TYPE, named(TypeDescriptor.Kind.PRIMITIVE));
+        registry.register(UMLPackage.Literals.ENUMERATION, named(TypeDescriptor.Kind.ENUMERATION));
+        registry.register(UMLPackage.Literals.CLASS, named(TypeDescriptor.Kind.CLASS));
+        registry.register(UMLPackage.Literals.INTERFACE, interfaces());
+        return registry;
+    }
+
+    public void register(EClass metaclass, TypeResolver resolver) {
+        resolvers.put(metaclass, resolver);
+        dispatch.clear();
+    }
+
+    public void unregister(EClass metaclass) {
+        resolvers.remove(metaclass);
+        dispatch.clear();
+    }
+
+    public TypeDescriptor resolve(Type type) {
+        if (type == null) {
+            return null;
+        }
+        return getResolver(type.eClass()).resolve(type);
+    }
+
+    public TypeResolver getResolver(EClass metaclass) {
+        TypeResolver resolver = dispatch.get(metaclass);
+        if (resolver == null) {
+            resolver = findResolver(metaclass);
+            dispatch.put(metaclass, resolver);
+        }
+        return resolver;
+    }
+
+    private TypeResolver findResolver(EClass metaclass) {
+        Deque<EClass> pending = new ArrayDeque<>();
+        Set<EClass> visited = new HashSet<>();
+        pending.add(metaclass);
+        while (!pending.isEmpty()) {
+            EClass eClass = pending.poll();
+            if (!visited.add(eClass)) {
+                continue;
+            }
+            TypeResolver resolver = resolvers.get(eClass);
+            if (resolver != null) {
+                return resolver;
+            }
+            pending.addAll(eClass.getESuperTypes());
+        }
+        return NONE;
+    }
+
+    /**
+     * Resolves types to their name, or the fragment of their proxy URI while they are unresolved;
+     * elements typed by them are collections when their upper bound is unlimited.
+     */
+    public static TypeResolver named(final TypeDescriptor.Kind kind) {
+        return new TypeResolver() {
+            @Override
+            public TypeDescriptor resolve(Type type) {
+                return new TypeDescriptor(kind, name(type), TypeDescriptor.CollectionKind.MULTIPLICITY);
+            }
+        };
+    }
+
+    /**
+     * Resolves interfaces referenced through proxies to the Java type encoded in the proxy fragment,
+     * see {@link ProxyFragment}.
+     */
+    public static TypeResolver interfaces() {
+        return new TypeResolver() {
+            @Override
+            public TypeDescriptor resolve(Type type) {
+                URI proxyURI = ((InternalEObject) type).eProxyURI();
+                if (proxyURI == null) {
+                    return new TypeDescriptor(TypeDescriptor.Kind.INTERFACE, type.getName(),
+                            TypeDescriptor.CollectionKind.NONE);
+                }
+                ProxyFragment proxyFragment = ProxyFragment.parse(proxyURI.fragment());
+                return new TypeDescriptor(TypeDescriptor.Kind.INTERFACE, proxyFragment.getTypeName(),
+                        proxyFragment.isCollection()
+                                ? TypeDescriptor.CollectionKind.ALWAYS : TypeDescriptor.CollectionKind.NONE);
+            }
+        };
+    }
+
+    static String name(Type type) {
+        if (type.getName() != null && !type.getName().isEmpty()) {
+            return type.getName();
+        }
+        URI proxyURI = ((InternalEObject) type).eProxyURI();
+        return proxyURI != null ? proxyURI.fragment() : type.getName();
+    }
+}
@@ -8,6 +8,11 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class ConvertProperties {
+
+    /**
+     * @return a new, modifiable map of the conversion options on every call, since UML2 adds the
+     * defaults of the options left out to the map it is given
+     */
     public static Map<String, String> optionsToProcess() {
         final Map<String, String> options = new HashMap<String, String>();
 
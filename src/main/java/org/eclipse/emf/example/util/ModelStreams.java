@@ -0,0 +1,136 @@
+package org.eclipse.emf.example.util;
+
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.*;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Opens plain, gzip and zip compressed model files as a stream of the XMI they contain.
+ * <ul>
+ * <li>{@code model.uml.gz}: gzip of a single model file.</li>
+ * <li>{@code model.uml.zip}: zip archive, the first entry named after a model file is read, or the
+ * first entry at all if none is.</li>
+ * <li>{@code model.umlz}: zip archive as written by EMF with {@code Resource.OPTION_ZIP}.</li>
+ * </ul>
+ */
+public final class ModelStreams {
+
+    public static final String GZIP_EXTENSION = "gz";
+    public static final String ZIP_EXTENSION = "zip";
+    public static final String UML_ZIP_EXTENSION = "umlz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ModelStreams() {
+    }
+
+    public static boolean isGzip(File file) {
+        return file.getName().endsWith("." + GZIP_EXTENSION);
+    }
+
+    public static boolean isZip(File file) {
+        return file.getName().endsWith("." + ZIP_EXTENSION) || file.getName().endsWith("." + UML_ZIP_EXTENSION);
+    }
+
+    public static boolean isCompressed(File file) {
+        return isGzip(file) || isZip(file);
+    }
+
+    /**
+     * @return the name of the model inside {@code file}: {@code model.uml} for {@code model.uml.gz},
+     * {@code model.uml.zip} and {@code model.umlz}, the file name itself otherwise
+     */
+    public static String modelName(File file) {
+        String name = file.getName();
+        if (name.endsWith("." + GZIP_EXTENSION)) {
+            return name.substring(0, name.length() - GZIP_EXTENSION.length() - 1);
+        } else if (name.endsWith("." + ZIP_EXTENSION)) {
+            return name.substring(0, name.length() - ZIP_EXTENSION.length() - 1);
+        } else if (name.endsWith("." + UML_ZIP_EXTENSION)) {
+            return name.substring(0, name.length() - 1);
+        }
+        return name;
+    }
+
+    /**
+     * @return a buffered stream of the uncompressed model content, to be closed by the caller
+     */
+    public static InputStream open(File file) throws IOException {
+        InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        try {
+            if (isGzip(file)) {
+                return new GZIPInputStream(inputStream, BUFFER_SIZE);
+            } else if (isZip(file)) {
+                return openZipEntry(file, inputStream);
+            }
+            return inputStream;
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return a SAX parser for model files that rejects DOCTYPE declarations and resolves no
+     * external entities, so that a model file cannot read local files or reach the network
+     */
+    public static SAXParser newSAXParser() throws ParserConfigurationException, SAXException {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setXIncludeAware(false);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        return factory.newSAXParser();
+    }
+
+    private static InputStream openZipEntry(File file, InputStream inputStream) throws IOException {
+        String modelName = modelName(file);
+        String modelExtension = modelName.substring(modelName.lastIndexOf('.') + 1);
+
+        // a zip stream can only move forward, so the entries are scanned once and the first
+        // entry is only taken if no entry carries the model extension
+        ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+        ZipEntry entry;
+        boolean first = true;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            if (entry.getName().endsWith("." + modelExtension)) {
+                return zipInputStream;
+            }
+            if (first) {
+                first = false;
+                if (!hasEntryWithExtension(file, modelExtension)) {
+                    return zipInputStream;
+                }
+            }
+        }
+        zipInputStream.close();
+        throw new FileNotFoundException("No model entry in " + file);
+    }
+
+    private static boolean hasEntryWithExtension(File file, String extension) throws IOException {
+        try (ZipFile zipFile = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().endsWith("." + extension)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
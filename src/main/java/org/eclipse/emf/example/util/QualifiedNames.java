@@ -0,0 +1,18 @@
+package org.eclipse.emf.example.util;
+
+public final class QualifiedNames {
+
+    private QualifiedNames() {
+    }
+
+    /**
+     * @return the key classes, enumerations and instances are indexed by: {@code packageName.name}, or just
+     * the name outside any package
+     */
+    public static String of(String packageName, String name) {
+        if (packageName == null || packageName.isEmpty()) {
+            return name;
+        }
+        return packageName + "." + name;
+    }
+}
@@ -0,0 +1,48 @@
+package org.eclipse.emf.example.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out one instance per distinct string, so that the names, types, visibilities and package names
+ * repeated throughout an extracted diagram are held once. Unlike {@link String#intern()}, the strings live
+ * only as long as the pool and whatever references them.
+ * <p>
+ * A pool is safe to use from several threads.
+ */
+public class StringPool {
+
+    /**
+     * Pools nothing; returns every string as it is.
+     */
+    public static final StringPool NONE = new StringPool() {
+        @Override
+        public String intern(String string) {
+            return string;
+        }
+    };
+
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * @return the pooled instance equal to {@code string}, {@code string} itself if it is the first;
+     * {@code null} for {@code null}
+     */
+    public String intern(String string) {
+        if (string == null) {
+            return null;
+        }
+        String pooled = strings.get(string);
+        if (pooled == null) {
+            pooled = strings.putIfAbsent(string, string);
+            if (pooled == null) {
+                pooled = string;
+            }
+        }
+        return pooled;
+    }
+
+    public int size() {
+        return strings.size();
+    }
+}
@@ -0,0 +1,201 @@
+package org.eclipse.emf.example.watch;
+
+import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.models._diff.ClassChange;
+import org.eclipse.emf.example.models._diff.ClassDiagramDiff;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.eclipse.emf.example.util.QualifiedNames;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two extractions of the same model. Classes and enumerations are matched by qualified
+ * name, attributes by name, operations by name and parameter types and relations by all their
+ * properties.
+ */
+public class ClassDiagramDiffer {
+
+    public static ClassDiagramDiff diff(ClassDiagram before, ClassDiagram after) {
+        ClassDiagramDiff diff = new ClassDiagramDiff();
+
+        Map<String, ClassStructure> classesBefore = classes(before);
+        Map<String, ClassStructure> classesAfter = classes(after);
+        for (Map.Entry<String, ClassStructure> entry : classesAfter.entrySet()) {
+            ClassStructure classBefore = classesBefore.get(entry.getKey());
+            if (classBefore == null) {
+                diff.getAddedClasses().add(entry.getValue());
+            } else {
+                ClassChange change = diff(classBefore, entry.getValue());
+                if (!change.isEmpty()) {
+                    diff.getChangedClasses().add(change);
+                }
+            }
+        }
+        for (Map.Entry<String, ClassStructure> entry : classesBefore.entrySet()) {
+            if (!classesAfter.containsKey(entry.getKey())) {
+                diff.getRemovedClasses().add(entry.getValue());
+            }
+        }
+
+        Map<String, EnumStructure> enumerationsBefore = enumerations(before);
+        Map<String, EnumStructure> enumerationsAfter = enumerations(after);
+        for (Map.Entry<String, EnumStructure> entry : enumerationsAfter.entrySet()) {
+            EnumStructure enumerationBefore = enumerationsBefore.get(entry.getKey());
+            if (enumerationBefore == null) {
+                diff.getAddedEnumerations().add(entry.getValue());
+            } else if (!enumerationBefore.getLiterals().equals(entry.getValue().getLiterals())) {
+                diff.getChangedEnumerations().add(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, EnumStructure> entry : enumerationsBefore.entrySet()) {
+            if (!enumerationsAfter.containsKey(entry.getKey())) {
+                diff.getRemovedEnumerations().add(entry.getValue());
+            }
+        }
+        return diff;
+    }
+
+    public static ClassChange diff(ClassStructure before, ClassStructure after) {
+        ClassChange change = new ClassChange(before, after);
+        change.setDeclarationChanged(!declaration(before).equals(declaration(after)));
+
+        Map<String, ClassAttribute> attributesBefore = new LinkedHashMap<>();
+        for (ClassAttribute attribute : before.getAttributes()) {
+            attributesBefore.putIfAbsent(attribute.getName(), attribute);
+        }
+        Map<String, ClassAttribute> attributesAfter = new LinkedHashMap<>();
+        for (ClassAttribute attribute : after.getAttributes()) {
+            attributesAfter.putIfAbsent(attribute.getName(), attribute);
+        }
+        for (Map.Entry<String, ClassAttribute> entry : attributesAfter.entrySet()) {
+            ClassAttribute attributeBefore = attributesBefore.get(entry.getKey());
+            if (attributeBefore == null) {
+                change.getAddedAttributes().add(entry.getValue());
+            } else if (!signature(attributeBefore).equals(signature(entry.getValue()))) {
+                change.getChangedAttributes().add(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, ClassAttribute> entry : attributesBefore.entrySet()) {
+            if (!attributesAfter.containsKey(entry.getKey())) {
+                change.getRemovedAttributes().add(entry.getValue());
+            }
+        }
+
+        Map<String, ClassOperation> operationsBefore = new LinkedHashMap<>();
+        for (ClassOperation operation : before.getOperations()) {
+            operationsBefore.putIfAbsent(key(operation), operation);
+        }
+        Map<String, ClassOperation> operationsAfter = new LinkedHashMap<>();
+        for (ClassOperation operation : after.getOperations()) {
+            operationsAfter.putIfAbsent(key(operation), operation);
+        }
+        for (Map.Entry<String, ClassOperation> entry : operationsAfter.entrySet()) {
+            ClassOperation operationBefore = operationsBefore.get(entry.getKey());
+            if (operationBefore == null) {
+                change.getAddedOperations().add(entry.getValue());
+            } else if (!signature(operationBefore).equals(signature(entry.getValue()))) {
+                change.getChangedOperations().add(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, ClassOperation> entry : operationsBefore.entrySet()) {
+            if (!operationsAfter.containsKey(entry.getKey())) {
+                change.getRemovedOperations().add(entry.getValue());
+            }
+        }
+
+        Map<String, ClassRelation> relationsBefore = relations(before.getRelationships());
+        Map<String, ClassRelation> relationsAfter = relations(after.getRelationships());
+        for (Map.Entry<String, ClassRelation> entry : relationsAfter.entrySet()) {
+            if (!relationsBefore.containsKey(entry.getKey())) {
+                change.getAddedRelations().add(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, ClassRelation> entry : relationsBefore.entrySet()) {
+            if (!relationsAfter.containsKey(entry.getKey())) {
+                change.getRemovedRelations().add(entry.getValue());
+            }
+        }
+        return change;
+    }
+
+    private static Map<String, ClassStructure> classes(ClassDiagram classDiagram) {
+        Map<String, ClassStructure> classes = new LinkedHashMap<>();
+        if (classDiagram != null) {
+            for (ClassStructure classStructure : classDiagram.getClasses()) {
+                classes.putIfAbsent(QualifiedNames.of(classStructure.getPackage(), classStructure.getName()), classStructure);
+            }
+        }
+        return classes;
+    }
+
+    private static Map<String, EnumStructure> enumerations(ClassDiagram classDiagram) {
+        Map<String, EnumStructure> enumerations = new LinkedHashMap<>();
+        if (classDiagram != null) {
+            for (EnumStructure enumStructure : classDiagram.getEnumerations()) {
+                enumerations.putIfAbsent(QualifiedNames.of(enumStructure.getPackage(), enumStructure.getName()),
+                        enumStructure);
+            }
+        }
+        return enumerations;
+    }
+
+    private static Map<String, ClassRelation> relations(List<ClassRelation> relationships) {
+        Map<String, ClassRelation> relations = new LinkedHashMap<>();
+        for (ClassRelation relation : relationships) {
+            relations.putIfAbsent(Arrays.asList(relation.getType(), relation.getVisibility(),
+                    relation.getClass_1(), relation.getRole_Name_1(), relation.isNavigable_1(),
+                    relation.getMultipcity_Lower_1(), relation.getMultipcity_Uper_1(),
+                    relation.getClass_2(), relation.getRole_Name_2(), relation.isNavigable_2(),
+                    relation.getMultipcity_Lower_2(), relation.getMultipcity_Uper_2()).toString(), relation);
+        }
+        return relations;
+    }
+
+    private static String declaration(ClassStructure classStructure) {
+        StringBuilder declaration = new StringBuilder();
+        declaration.append(classStructure.getVisibility()).append(' ')
+                .append(classStructure.isAbstract()).append(' ')
+                .append(classStructure.isFinal()).append(' ');
+        if (classStructure.getSuperClasses() != null) {
+            for (ClassStructure superClass : classStructure.getSuperClasses()) {
+                // readers may leave a slot empty for a generalization they could not resolve
+                if (superClass != null) {
+                    declaration.append(QualifiedNames.of(superClass.getPackage(), superClass.getName()));
+                }
+                declaration.append(',');
+            }
+        }
+        return declaration.append(' ').append(classStructure.getRules()).toString();
+    }
+
+    private static String signature(ClassAttribute attribute) {
+        return Arrays.asList(attribute.getType(), attribute.getVisibility(), attribute.isClass(), attribute.isEnum(),
+                attribute.isCollection(), attribute.isStatic()).toString();
+    }
+
+    private static String key(ClassOperation operation) {
+        StringBuilder key = new StringBuilder().append(operation.getName()).append('(');
+        for (OperationParameter parameter : operation.getParameters()) {
+            key.append(parameter.getType()).append(parameter.isCollection() ? "[]" : "").append(',');
+        }
+        return key.append(')').toString();
+    }
+
+    private static String signature(ClassOperation operation) {
+        StringBuilder signature = new StringBuilder();
+        OperationReturn returnType = operation.getReturnType();
+        if (returnType != null) {
+            signature.append(returnType.getType()).append(returnType.isCollection() ? "[]" : "");
+        }
+        signature.append(' ').append(operation.getVisibility())
+                .append(' ').append(operation.isAbstract())
+                .append(' ').append(operation.isFinal());
+        for (OperationParameter parameter : operation.getParameters()) {
+            signature.append(' ').append(parameter.getName()).append(':').append(parameter.getDirection());
+        }
+        return signature.toString();
+    }
+}
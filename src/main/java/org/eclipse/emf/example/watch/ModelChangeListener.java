@@ -0,0 +1,22 @@
+package org.eclipse.emf.example.watch;
+
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._diff.ClassDiagramDiff;
+
+import java.io.File;
+
+/**
+ * Receives the changes {@link ModelWatcher} extracts from modified model files, on the watcher thread.
+ */
+public interface ModelChangeListener {
+
+    /**
+     * @param classDiagram the class diagram read after the change, {@code null} if the file was deleted
+     * @param diff         what changed against the class diagram read before
+     */
+    void classDiagramChanged(File file, ClassDiagram classDiagram, ClassDiagramDiff diff);
+
+    default void reloadFailed(File file, Exception e) {
+        System.err.println("Could not reload " + file + ": " + e.getMessage());
+    }
+}
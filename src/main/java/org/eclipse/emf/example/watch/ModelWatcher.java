@@ -0,0 +1,205 @@
+package org.eclipse.emf.example.watch;
+
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.loader.ModelSession;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._diff.ClassDiagramDiff;
+import org.eclipse.emf.example.models._snapshot.ClassDiagramSnapshot;
+import org.eclipse.emf.example.util.ModelStreams;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches a directory of UML models and re-extracts the class diagram of a model file whenever it
+ * is written, publishing only what changed to a {@link ModelChangeListener}.
+ * <p>
+ * Events are debounced per file: a file is reloaded once no further event arrived for it during the
+ * debounce interval, so that an editor writing a file in several steps triggers a single reload.
+ * Every model is loaded into a session of its own that is released right after extraction; only
+ * the last class diagram of every file is kept, together with an immutable snapshot of it that
+ * shares the classes unchanged since the previous reload.
+ */
+public class ModelWatcher implements Closeable {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+
+    private final Path directory;
+    private final ModelChangeListener listener;
+    private final long debounceNanos;
+    private final ModelLoader modelLoader = new ModelLoader();
+    private final Map<Path, ClassDiagram> classDiagrams = new HashMap<>();
+    private final Map<Path, ClassDiagramSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Path, Long> pending = new LinkedHashMap<>();
+
+    private WatchService watchService;
+    private Thread thread;
+
+    public ModelWatcher(File directory, ModelChangeListener listener) {
+        this(directory, listener, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    public ModelWatcher(File directory, ModelChangeListener listener, long debounceMillis) {
+        this.directory = directory.toPath().toAbsolutePath().normalize();
+        this.listener = listener;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+    }
+
+    /**
+     * Reads the class diagram of every model in the directory as baseline and starts watching it
+     * on a daemon thread. The baseline is not published.
+     */
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            throw new IllegalStateException("Already watching " + directory);
+        }
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+        for (Path model : models()) {
+            if (Files.isRegularFile(model)) {
+                try {
+                    ClassDiagram classDiagram = read(model);
+                    classDiagrams.put(model, classDiagram);
+                    snapshots.put(model, classDiagram.freeze());
+                } catch (IOException | RuntimeException e) {
+                    listener.reloadFailed(model.toFile(), e);
+                }
+            }
+        }
+
+        thread = new Thread(this::watch, "model-watcher-" + directory.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    /**
+     * @return the last class diagram read from {@code file}, {@code null} if none was
+     */
+    public synchronized ClassDiagram getClassDiagram(File file) {
+        return classDiagrams.get(file.toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * Reads without locking; the snapshot can be handed to any thread as is.
+     *
+     * @return a snapshot of the last class diagram read from {@code file}, {@code null} if none was
+     */
+    public ClassDiagramSnapshot getSnapshot(File file) {
+        return snapshots.get(file.toPath().toAbsolutePath().normalize());
+    }
+
+    private void watch() {
+        WatchService watchService = this.watchService;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = pending.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(debounceNanos, TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            // events were lost, any model may have changed
+                            for (Path model : models()) {
+                                pending.put(model, System.nanoTime());
+                            }
+                            continue;
+                        }
+                        Path model = directory.resolve((Path) event.context());
+                        if (isModel(model)) {
+                            pending.remove(model);
+                            pending.put(model, System.nanoTime());
+                        }
+                    }
+                    key.reset();
+                }
+                reloadSettled();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private void reloadSettled() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            if (now - entry.getValue() < debounceNanos) {
+                continue;
+            }
+            iterator.remove();
+            reload(entry.getKey());
+        }
+    }
+
+    private void reload(Path model) {
+        try {
+            ClassDiagram classDiagram = Files.isRegularFile(model) ? read(model) : null;
+            ClassDiagramSnapshot snapshot = classDiagram != null
+                    ? ClassDiagramSnapshot.of(classDiagram, snapshots.get(model)) : null;
+            ClassDiagram previous;
+            synchronized (this) {
+                previous = classDiagram != null ? classDiagrams.put(model, classDiagram) : classDiagrams.remove(model);
+                if (snapshot != null) {
+                    snapshots.put(model, snapshot);
+                } else {
+                    snapshots.remove(model);
+                }
+            }
+
+            ClassDiagramDiff diff = ClassDiagramDiffer.diff(previous, classDiagram);
+            if (!diff.isEmpty() || (previous == null) != (classDiagram == null)) {
+                listener.classDiagramChanged(model.toFile(), classDiagram, diff);
+            }
+        } catch (IOException | RuntimeException e) {
+            listener.reloadFailed(model.toFile(), e);
+        }
+    }
+
+    private ClassDiagram read(Path model) throws IOException {
+        try (ModelSession session = new ModelSession(model.toFile(), modelLoader)) {
+            return session.getClassDiagram();
+        }
+    }
+
+    private List<Path> models() {
+        Set<Path> models;
+        synchronized (this) {
+            models = new LinkedHashSet<>(classDiagrams.keySet());
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (isModel(file)) {
+                    models.add(file);
+                }
+            }
+        } catch (IOException e) {
+            listener.reloadFailed(directory.toFile(), e);
+        }
+        return new ArrayList<>(models);
+    }
+
+    private static boolean isModel(Path path) {
+        return ModelStreams.modelName(path.toFile()).endsWith(".uml");
+    }
+}
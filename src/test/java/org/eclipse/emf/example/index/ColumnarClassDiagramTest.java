@@ -0,0 +1,79 @@
+package org.eclipse.emf.example.index;
+
+import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.models._snapshot.ClassSnapshot;
+import org.eclipse.emf.example.models._snapshot.InstanceSnapshot;
+import org.eclipse.emf.example.reader.diagram.StreamingClassDiagramReader;
+import org.eclipse.emf.example.util.StringPool;
+import org.eclipse.emf.example.watch.ClassDiagramDiffer;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ColumnarClassDiagramTest {
+
+    private static final File MODEL = new File("src/main/resources/model/UML.uml");
+
+    @Test
+    public void modelConvertsBackToAnEquivalentDiagram() throws Exception {
+        ClassDiagram classDiagram = StreamingClassDiagramReader.getRefModelDetails(MODEL, new StringPool());
+        ClassDiagram converted = ColumnarClassDiagram.of(classDiagram).toClassDiagram();
+
+        assertFalse(classDiagram.getClasses().isEmpty());
+        assertTrue(ClassDiagramDiffer.diff(classDiagram, converted).isEmpty());
+        assertEquals(classDiagram.getClasses().size(), converted.getClasses().size());
+        for (int i = 0; i < classDiagram.getClasses().size(); i++) {
+            assertEquals(ClassSnapshot.of(classDiagram.getClasses().get(i)),
+                    ClassSnapshot.of(converted.getClasses().get(i)));
+        }
+        assertEquals(classDiagram.getInstances().size(), converted.getInstances().size());
+        for (int i = 0; i < classDiagram.getInstances().size(); i++) {
+            assertEquals(InstanceSnapshot.of(classDiagram.getInstances().get(i)),
+                    InstanceSnapshot.of(converted.getInstances().get(i)));
+        }
+        assertEquals(classDiagram.getEnumerations().size(), converted.getEnumerations().size());
+    }
+
+    @Test
+    public void returnsWithoutTypeAreKept() {
+        ClassDiagram classDiagram = new ClassDiagram();
+        ClassStructure classStructure = new ClassStructure();
+        classStructure.setPackage("p");
+        classStructure.setName("A");
+        classStructure.addOperation(operation("none", null));
+        classStructure.addOperation(operation("untyped", new OperationReturn(null, false, false)));
+        classStructure.addOperation(operation("untypedCollection", new OperationReturn(null, false, true)));
+        classStructure.addOperation(operation("typed", new OperationReturn("B", true, false)));
+        classDiagram.addClass(classStructure);
+
+        ColumnarClassDiagram columnar = ColumnarClassDiagram.of(classDiagram);
+        assertFalse(columnar.getOperation(0).hasReturn());
+        assertTrue(columnar.getOperation(1).hasReturn());
+        assertNull(columnar.getOperation(1).getReturnType());
+
+        List<ClassOperation> operations = columnar.toClassDiagram().getClasses().get(0).getOperations();
+        assertNull(operations.get(0).getReturnType());
+        assertReturn(null, false, false, operations.get(1).getReturnType());
+        assertReturn(null, false, true, operations.get(2).getReturnType());
+        assertReturn("B", true, false, operations.get(3).getReturnType());
+        assertEquals(ClassSnapshot.of(classStructure), ClassSnapshot.of(columnar.toClassDiagram().getClasses().get(0)));
+    }
+
+    private static ClassOperation operation(String name, OperationReturn operationReturn) {
+        ClassOperation operation = new ClassOperation();
+        operation.setName(name);
+        operation.setVisibility("public");
+        operation.setReturnType(operationReturn);
+        return operation;
+    }
+
+    private static void assertReturn(String type, boolean isClass, boolean collection, OperationReturn operationReturn) {
+        assertNotNull(operationReturn);
+        assertEquals(type, operationReturn.getType());
+        assertEquals(isClass, operationReturn.isClass());
+        assertEquals(collection, operationReturn.isCollection());
+    }
+}
@@ -0,0 +1,188 @@
+package org.eclipse.emf.example.index;
+
+import org.eclipse.emf.example.index.RelationGraph.EdgeKind;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassRelation;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.util.Keywords;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class RelationGraphTest {
+
+    private static final int A = 0;
+    private static final int B = 1;
+    private static final int C = 2;
+    private static final int D = 3;
+    private static final int E = 4;
+    private static final int OTHER_A = 5;
+
+    /**
+     * p.A -> p.B <-> p.C -> p.A navigable, p.D navigable to itself, p.E a p.D, q.A associated with p.E
+     * and p.E associated with a class that is not in the diagram. A-B and E-D are listed by both classes.
+     */
+    private static RelationGraph graph() {
+        ClassDiagram classDiagram = new ClassDiagram();
+        ClassStructure a = add(classDiagram, "p", "A");
+        ClassStructure b = add(classDiagram, "p", "B");
+        ClassStructure c = add(classDiagram, "p", "C");
+        ClassStructure d = add(classDiagram, "p", "D");
+        ClassStructure e = add(classDiagram, "p", "E");
+        ClassStructure otherA = add(classDiagram, "q", "A");
+
+        a.getRelationships().add(association("A", "B", false, true));
+        b.getRelationships().add(association("A", "B", false, true));
+        b.getRelationships().add(association("B", "C", true, true));
+        c.getRelationships().add(association("C", "A", false, true));
+        d.getRelationships().add(association("D", "D", true, true));
+        e.getRelationships().add(generalization("E", "D"));
+        d.getRelationships().add(generalization("E", "D"));
+        e.getRelationships().add(association("E", "Z", true, true));
+        otherA.getRelationships().add(association("A", "E", false, false));
+        return RelationGraph.of(classDiagram);
+    }
+
+    @Test
+    public void relationsListedByBothClassesAreCountedOnce() {
+        RelationGraph graph = graph();
+
+        assertEquals(6, graph.size());
+        assertEquals(6, graph.getRelationCount());
+        assertEquals(9, graph.getEdgeCount(EdgeKind.ASSOCIATION));
+        assertEquals(6, graph.getEdgeCount(EdgeKind.NAVIGABLE));
+        assertEquals(1, graph.getEdgeCount(EdgeKind.GENERALIZATION));
+    }
+
+    @Test
+    public void selfAssociationIsOneAssociationEdge() {
+        RelationGraph graph = graph();
+
+        assertEquals(1, graph.getDegree(D, EdgeKind.ASSOCIATION));
+        assertEquals(D, graph.getNeighbor(D, EdgeKind.ASSOCIATION, 0));
+        assertEquals(2, graph.getDegree(D, EdgeKind.NAVIGABLE));
+        assertEquals(graph.getNeighborRelation(D, EdgeKind.NAVIGABLE, 0),
+                graph.getNeighborRelation(D, EdgeKind.NAVIGABLE, 1));
+    }
+
+    @Test
+    public void endsResolveToTheOwnerThenTheSamePackage() {
+        RelationGraph graph = graph();
+
+        assertEquals(1, graph.getDegree(OTHER_A, EdgeKind.ASSOCIATION));
+        assertEquals(E, graph.getNeighbor(OTHER_A, EdgeKind.ASSOCIATION, 0));
+        assertEquals(2, graph.getDegree(A, EdgeKind.ASSOCIATION));
+        // E-Z is left out, Z is not in the diagram
+        assertEquals(1, graph.getDegree(E, EdgeKind.ASSOCIATION));
+        assertEquals(OTHER_A, graph.getNeighbor(E, EdgeKind.ASSOCIATION, 0));
+        assertEquals(D, graph.getNeighbor(E, EdgeKind.GENERALIZATION, 0));
+        assertEquals(-1, graph.getId(new ClassStructure()));
+        assertEquals(C, graph.getId(graph.getClass(C)));
+    }
+
+    @Test
+    public void edgesKeepTheirRelation() {
+        RelationGraph graph = graph();
+
+        assertEquals(1, graph.getDegree(A, EdgeKind.NAVIGABLE));
+        assertEquals(B, graph.getNeighbor(A, EdgeKind.NAVIGABLE, 0));
+        ClassRelation relation = graph.getRelation(graph.getNeighborRelation(A, EdgeKind.NAVIGABLE, 0));
+        assertEquals("A", relation.getClass_1());
+        assertEquals("B", relation.getClass_2());
+    }
+
+    @Test
+    public void reachableFollowsTheGivenKinds() {
+        RelationGraph graph = graph();
+
+        assertEquals(bits(A, B, C), graph.reachable(A, EdgeKind.NAVIGABLE));
+        assertEquals(bits(D), graph.reachable(D, EdgeKind.GENERALIZATION));
+        assertEquals(bits(D, E, OTHER_A), graph.reachable(E, EdgeKind.GENERALIZATION, EdgeKind.ASSOCIATION));
+    }
+
+    @Test
+    public void shortestPathHasTheFewestEdges() {
+        RelationGraph graph = graph();
+
+        assertArrayEquals(new int[]{A, B, C}, graph.shortestPath(A, C, EdgeKind.NAVIGABLE));
+        assertArrayEquals(new int[]{C, B}, graph.shortestPath(C, B, EdgeKind.NAVIGABLE));
+        assertArrayEquals(new int[]{A, C}, graph.shortestPath(A, C, EdgeKind.ASSOCIATION));
+        assertArrayEquals(new int[]{A}, graph.shortestPath(A, A, EdgeKind.NAVIGABLE));
+        assertArrayEquals(new int[]{E, D}, graph.shortestPath(E, D, EdgeKind.GENERALIZATION));
+        assertArrayEquals(new int[0], graph.shortestPath(D, E, EdgeKind.GENERALIZATION));
+        assertArrayEquals(new int[0], graph.shortestPath(A, D, EdgeKind.NAVIGABLE));
+    }
+
+    @Test
+    public void stronglyConnectedComponents() {
+        RelationGraph graph = graph();
+
+        int[] navigable = graph.stronglyConnectedComponents(EdgeKind.NAVIGABLE);
+        assertEquals(navigable[A], navigable[B]);
+        assertEquals(navigable[A], navigable[C]);
+        Set<Integer> components = new HashSet<>();
+        for (int component : navigable) {
+            components.add(component);
+        }
+        assertEquals(4, components.size());
+
+        int[] generalization = graph.stronglyConnectedComponents(EdgeKind.GENERALIZATION);
+        // reverse topological order: the general class comes first
+        assertTrue(generalization[D] < generalization[E]);
+    }
+
+    @Test
+    public void stronglyConnectedComponentsOfALongCycle() {
+        int size = 100000;
+        ClassDiagram classDiagram = new ClassDiagram();
+        for (int i = 0; i < size; i++) {
+            add(classDiagram, "p", "C" + i).getRelationships()
+                    .add(association("C" + i, "C" + ((i + 1) % size), false, true));
+        }
+        RelationGraph graph = RelationGraph.of(classDiagram);
+
+        int[] components = graph.stronglyConnectedComponents(EdgeKind.NAVIGABLE);
+        for (int component : components) {
+            assertEquals(0, component);
+        }
+        assertEquals(size, graph.shortestPath(1, 0, EdgeKind.NAVIGABLE).length);
+    }
+
+    private static ClassStructure add(ClassDiagram classDiagram, String _package, String name) {
+        ClassStructure classStructure = new ClassStructure();
+        classStructure.setPackage(_package);
+        classStructure.setName(name);
+        classDiagram.addClass(classStructure);
+        return classStructure;
+    }
+
+    private static ClassRelation association(String class1, String class2, boolean navigable1, boolean navigable2) {
+        ClassRelation relation = new ClassRelation();
+        relation.setType(Keywords.Association);
+        relation.setClass_1(class1);
+        relation.setClass_2(class2);
+        relation.setNavigable_1(navigable1);
+        relation.setNavigable_2(navigable2);
+        return relation;
+    }
+
+    private static ClassRelation generalization(String specific, String general) {
+        ClassRelation relation = new ClassRelation();
+        relation.setType(Keywords.Generalization);
+        relation.setClass_1(specific);
+        relation.setClass_2(general);
+        return relation;
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+}
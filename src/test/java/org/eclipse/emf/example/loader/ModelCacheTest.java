@@ -0,0 +1,106 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ModelCacheTest {
+
+    private static final File MODEL = new File("src/main/resources/model/UML.uml");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sharedPackageStaysLoadedUntilEveryCallerReleasedIt() throws Exception {
+        ModelCache modelCache = new ModelCache();
+        ModelLoader first = new ModelLoader(modelCache);
+        ModelLoader second = new ModelLoader(modelCache);
+
+        Package _package = first.loadModel(MODEL);
+        assertSame(_package, second.loadModel(MODEL));
+        Resource resource = _package.eResource();
+
+        first.release(_package);
+        assertTrue(resource.isLoaded());
+        assertSame(resource, _package.eResource());
+
+        second.release(_package);
+        assertTrue(resource.isLoaded());
+        assertEquals(1, modelCache.size());
+
+        modelCache.clear();
+        assertFalse(resource.isLoaded());
+    }
+
+    @Test
+    public void evictedPackageIsUnloadedByItsLastRelease() throws Exception {
+        File other = folder.newFile("Other.uml");
+        Files.copy(MODEL.toPath(), other.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        ModelCache modelCache = new ModelCache(1, Long.MAX_VALUE);
+        ModelLoader modelLoader = new ModelLoader(modelCache);
+
+        Package _package = modelLoader.loadModel(MODEL);
+        Resource resource = _package.eResource();
+        Package otherPackage = modelLoader.loadModel(other);
+        assertEquals(1, modelCache.size());
+        assertTrue(resource.isLoaded());
+
+        modelLoader.release(_package);
+        assertFalse(resource.isLoaded());
+
+        Resource otherResource = otherPackage.eResource();
+        modelLoader.release(otherPackage);
+        assertTrue(otherResource.isLoaded());
+    }
+
+    @Test
+    public void reloadLeavesTheHeldCopyLoaded() throws Exception {
+        ModelLoader modelLoader = new ModelLoader();
+
+        Package first = modelLoader.loadModel(MODEL);
+        Resource firstResource = first.eResource();
+        Package second = modelLoader.loadModel(MODEL);
+
+        assertNotSame(first, second);
+        assertTrue(firstResource.isLoaded());
+        assertSame(firstResource, first.eResource());
+
+        modelLoader.release(first);
+        modelLoader.release(second);
+        assertFalse(firstResource.isLoaded());
+    }
+
+    @Test
+    public void compressedModelIsWeighedLikeThePlainOne() throws Exception {
+        File gzip = folder.newFile("UML.uml.gz");
+        try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(gzip))) {
+            Files.copy(MODEL.toPath(), outputStream);
+        }
+        assertTrue(gzip.length() < MODEL.length() / 4);
+
+        ModelCache plainCache = new ModelCache();
+        ModelCache gzipCache = new ModelCache();
+        new ModelLoader(plainCache).loadModel(MODEL);
+        new ModelLoader(gzipCache).loadModel(gzip);
+        try {
+            assertTrue(plainCache.getEstimatedHeapBytes() > MODEL.length());
+            assertEquals(plainCache.getEstimatedHeapBytes(), gzipCache.getEstimatedHeapBytes());
+        } finally {
+            plainCache.clear();
+            gzipCache.clear();
+        }
+    }
+}
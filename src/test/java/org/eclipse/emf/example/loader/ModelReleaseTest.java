@@ -0,0 +1,50 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.reader.diagram.ClassDiagramReader;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Memory regression test for {@link ModelLoader#release(Package)}, run the way a worker processes
+ * models: one long-lived loader loads, extracts and releases the same model repeatedly.
+ */
+public class ModelReleaseTest {
+
+    private static final File MODEL = new File("src/main/resources/model/UML.uml");
+
+    @Test
+    public void releasedModelsAreNotRetained() throws Exception {
+        ModelLoader modelLoader = new ModelLoader();
+
+        // the first load pulls in the UML libraries, which stay for the lifetime of the loader
+        process(modelLoader);
+        int baselineResources = modelLoader.getResourceSet().getResources().size();
+
+        WeakReference<Package> released = null;
+        for (int i = 0; i < 5; i++) {
+            released = process(modelLoader);
+            assertEquals(baselineResources, modelLoader.getResourceSet().getResources().size());
+        }
+
+        for (int i = 0; i < 10 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull("Released package is still reachable", released.get());
+    }
+
+    private static WeakReference<Package> process(ModelLoader modelLoader) throws Exception {
+        Package _package = modelLoader.loadModel(MODEL);
+        assertNotNull(_package);
+        ClassDiagram classDiagram = ClassDiagramReader.getRefModelDetails(_package);
+        assertFalse(classDiagram.getClasses().isEmpty());
+        modelLoader.release(_package);
+        return new WeakReference<>(_package);
+    }
+}
@@ -0,0 +1,116 @@
+package org.eclipse.emf.example.loader;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.reader.PackageReader;
+import org.eclipse.emf.example.reader.diagram.ClassDiagramReader;
+import org.eclipse.emf.example.util.QualifiedNames;
+import org.eclipse.emf.example.watch.ClassDiagramDiffer;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PackageFilterTest {
+
+    private static final File MODEL = new File("src/main/resources/model/UML.uml");
+
+    private static final String[] SELECTED = {"UseCases", "StateMachines"};
+
+    @Test
+    public void selectedPackagesMatchAFullLoad() throws Exception {
+        ModelLoader modelLoader = new ModelLoader();
+
+        Package full = modelLoader.loadModel(MODEL);
+        Map<String, ClassDiagram> expected = new LinkedHashMap<>();
+        Map<String, Integer> expectedContents = new LinkedHashMap<>();
+        for (String name : SELECTED) {
+            Package _package = full.getNestedPackage(name);
+            expected.put(name, read(_package));
+            expectedContents.put(name, count(_package));
+        }
+        modelLoader.release(full);
+
+        Package selected = modelLoader.loadModel(MODEL, LoadProfile.SAFE, PackageSelection.of(SELECTED));
+        try {
+            for (String name : SELECTED) {
+                Package _package = selected.getNestedPackage(name);
+                assertNotNull(name, _package);
+                ClassDiagram classDiagram = read(_package);
+
+                assertFalse(name, expected.get(name).getClasses().isEmpty());
+                assertEquals(name, names(expected.get(name)), names(classDiagram));
+                assertTrue(name, ClassDiagramDiffer.diff(expected.get(name), classDiagram).isEmpty());
+                assertEquals(name, expectedContents.get(name), count(_package));
+            }
+        } finally {
+            modelLoader.release(selected);
+        }
+    }
+
+    @Test
+    public void selectionLeavesNoProxyIntoTheModelDangling() throws Exception {
+        ModelLoader modelLoader = new ModelLoader();
+        Package selected = modelLoader.loadModel(MODEL, LoadProfile.SAFE, PackageSelection.of(SELECTED));
+        try {
+            Resource resource = selected.eResource();
+            URI modelURI = resource.getURI();
+            EcoreUtil.resolveAll(resource);
+
+            // proxies into other files, e.g. the OMG primitive types, stay as in a full load
+            List<String> dangling = new ArrayList<>();
+            Map<EObject, Collection<EStructuralFeature.Setting>> proxies =
+                    EcoreUtil.ProxyCrossReferencer.find(resource);
+            for (EObject proxy : proxies.keySet()) {
+                URI proxyURI = EcoreUtil.getURI(proxy);
+                if (proxyURI.trimFragment().equals(modelURI)) {
+                    dangling.add(proxyURI.fragment());
+                }
+            }
+            assertTrue("Dangling references to " + dangling, dangling.isEmpty());
+        } finally {
+            modelLoader.release(selected);
+        }
+    }
+
+    @Test
+    public void selectionCutsTheRestOfTheModel() throws Exception {
+        byte[] filtered = PackageSelection.of(SELECTED).filter(MODEL);
+        assertNotNull(filtered);
+        assertTrue(filtered.length < MODEL.length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPackageIsRejected() throws Exception {
+        PackageSelection.of("NoSuchPackage").filter(MODEL);
+    }
+
+    private static ClassDiagram read(Package _package) {
+        return ClassDiagramReader.getRefModelDetails(
+                PackageReader.readPackage(_package.getPackagedElements(), PackageReader.packageName(_package)));
+    }
+
+    private static int count(Package _package) {
+        int count = 0;
+        for (Iterator<EObject> iterator = _package.eAllContents(); iterator.hasNext(); iterator.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static List<String> names(ClassDiagram classDiagram) {
+        List<String> names = new ArrayList<>();
+        for (ClassStructure classStructure : classDiagram.getClasses()) {
+            names.add(QualifiedNames.of(classStructure.getPackage(), classStructure.getName()));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,200 @@
+package org.eclipse.emf.example.models._snapshot;
+
+import org.eclipse.emf.example.models._class.ClassAttribute;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassInstance;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ClassDiagramSnapshotTest {
+
+    /**
+     * p.A, p.B extends p.A and the root class C extends D and E, which are not in the diagram and whose
+     * packages are {@code ""} and {@code null}; instances a of p.A and b of p.B and C; enumeration p.K.
+     */
+    private static ClassDiagram diagram() {
+        ClassDiagram classDiagram = new ClassDiagram();
+        ClassStructure a = add(classDiagram, "p", "A");
+        ClassStructure b = add(classDiagram, "p", "B");
+        b.addSuperClass(a);
+        ClassStructure c = add(classDiagram, "", "C");
+        c.addSuperClass(classStructure("", "D"));
+        c.addSuperClass(classStructure(null, "E"));
+
+        classDiagram.addInstance(instance("p", "a", a));
+        classDiagram.addInstance(instance("p", "b", b, c));
+
+        EnumStructure k = new EnumStructure();
+        k.setPackage("p");
+        k.setName("K");
+        k.addLiteral("ONE");
+        classDiagram.addEnumeration(k);
+        return classDiagram;
+    }
+
+    @Test
+    public void freezeReusesUnchangedClasses() {
+        ClassDiagram classDiagram = diagram();
+        ClassDiagramSnapshot first = classDiagram.freeze();
+
+        assertSame(first, ClassDiagramSnapshot.of(diagram(), first));
+
+        classDiagram.getClasses().get(1).addAttribute(attribute("size"));
+        ClassDiagramSnapshot second = ClassDiagramSnapshot.of(classDiagram, first);
+        assertNotSame(first, second);
+        assertSame(first.getClass("p.A"), second.getClass("p.A"));
+        assertSame(first.getClass("C"), second.getClass("C"));
+        assertNotSame(first.getClass("p.B"), second.getClass("p.B"));
+        assertSame(first.getInstance("p.a"), second.getInstance("p.a"));
+        assertSame(first.getEnumeration("p.K"), second.getEnumeration("p.K"));
+        assertEquals(1, second.getClass("p.B").getAttributes().size());
+        assertEquals(0, first.getClass("p.B").getAttributes().size());
+    }
+
+    @Test
+    public void withClassReplacesOrAppends() {
+        ClassDiagramSnapshot snapshot = diagram().freeze();
+        ClassSnapshot a = snapshot.getClass("p.A");
+
+        assertSame(snapshot, snapshot.withClass(classStructure("p", "A")));
+
+        ClassStructure changed = classStructure("p", "A");
+        changed.addAttribute(attribute("size"));
+        ClassDiagramSnapshot replaced = snapshot.withClass(changed);
+        assertEquals(3, replaced.getClasses().size());
+        assertSame(replaced.getClass("p.A"), replaced.getClasses().get(0));
+        assertEquals(1, replaced.getClass("p.A").getAttributes().size());
+        assertSame(snapshot.getClass("p.B"), replaced.getClass("p.B"));
+        assertEquals(Collections.singletonList(replaced.getClass("p.A")),
+                replaced.getSuperClasses(replaced.getClass("p.B")));
+        assertSame(a, snapshot.getClass("p.A"));
+
+        ClassDiagramSnapshot added = replaced.withClass(classStructure("q", "F"));
+        assertEquals(4, added.getClasses().size());
+        assertSame(added.getClasses().get(3), added.getClass("q.F"));
+        assertSame(replaced.getClass("C"), added.getClass("C"));
+        assertNull(replaced.getClass("q.F"));
+        assertEquals(1, added.getInstances(added.getClass("p.A")).size());
+        assertEquals(1, added.getInstances(added.getClass("C")).size());
+    }
+
+    @Test
+    public void withoutClassRenumbersTheLaterClasses() {
+        ClassDiagramSnapshot snapshot = diagram().freeze();
+
+        ClassDiagramSnapshot removed = snapshot.withoutClass("p.A");
+        assertSame(snapshot, snapshot.withoutClass("p.Z"));
+        assertEquals(2, removed.getClasses().size());
+        assertNull(removed.getClass("p.A"));
+        assertSame(snapshot.getClass("p.B"), removed.getClass("p.B"));
+        assertSame(snapshot.getClass("C"), removed.getClass("C"));
+        assertTrue(removed.getSuperClasses(removed.getClass("p.B")).isEmpty());
+        assertEquals(1, removed.getInstances(removed.getClass("p.B")).size());
+        assertNotNull(snapshot.getClass("p.A"));
+    }
+
+    @Test
+    public void withInstanceUpdatesTheInstancesOfClasses() {
+        ClassDiagramSnapshot snapshot = diagram().freeze();
+        ClassSnapshot a = snapshot.getClass("p.A");
+        ClassSnapshot c = snapshot.getClass("C");
+
+        InstanceSnapshot aToo = InstanceSnapshot.of(instance("p", "a2", classStructure("p", "A")));
+        ClassDiagramSnapshot added = snapshot.withInstance(aToo);
+        assertEquals(3, added.getInstances().size());
+        assertSame(aToo, added.getInstance("p.a2"));
+        assertEquals(Arrays.asList(snapshot.getInstance("p.a"), aToo), added.getInstances(a));
+        assertEquals(1, snapshot.getInstances(a).size());
+
+        InstanceSnapshot b = InstanceSnapshot.of(instance("p", "b", classStructure("p", "B")));
+        ClassDiagramSnapshot replaced = added.withInstance(b);
+        assertSame(b, replaced.getInstance("p.b"));
+        assertSame(b, replaced.getInstances().get(1));
+        assertTrue(replaced.getInstances(c).isEmpty());
+        assertEquals(1, added.getInstances(c).size());
+        assertSame(replaced, replaced.withInstance(InstanceSnapshot.of(instance("p", "b", classStructure("p", "B")))));
+
+        ClassDiagramSnapshot removed = replaced.withoutInstance("p.a");
+        assertNull(removed.getInstance("p.a"));
+        assertSame(aToo, removed.getInstance("p.a2"));
+        assertEquals(Collections.singletonList(aToo), removed.getInstances(a));
+    }
+
+    @Test
+    public void withEnumerationReplacesOrAppends() {
+        ClassDiagramSnapshot snapshot = diagram().freeze();
+
+        EnumStructure k = new EnumStructure();
+        k.setPackage("p");
+        k.setName("K");
+        k.addLiteral("ONE");
+        k.addLiteral("TWO");
+        ClassDiagramSnapshot replaced = snapshot.withEnumeration(EnumSnapshot.of(k));
+        assertEquals(1, replaced.getEnumerations().size());
+        assertSame(replaced.getEnumerations().get(0), replaced.getEnumeration("p.K"));
+        assertSame(snapshot.getClass("p.A"), replaced.getClass("p.A"));
+
+        ClassDiagramSnapshot removed = replaced.withoutEnumeration("p.K");
+        assertTrue(removed.getEnumerations().isEmpty());
+        assertNull(removed.getEnumeration("p.K"));
+        assertNotNull(replaced.getEnumeration("p.K"));
+    }
+
+    @Test
+    public void freezeThawFreezeYieldsEqualSnapshots() {
+        ClassDiagramSnapshot frozen = diagram().freeze();
+        ClassDiagram thawed = frozen.toClassDiagram();
+        ClassDiagramSnapshot refrozen = thawed.freeze();
+
+        assertEquals(frozen.getClasses(), refrozen.getClasses());
+        assertEquals(frozen.getEnumerations(), refrozen.getEnumerations());
+        assertEquals(frozen.getInstances(), refrozen.getInstances());
+        assertSame(frozen, ClassDiagramSnapshot.of(thawed, frozen));
+
+        ClassStructure b = thawed.getClasses().get(1);
+        assertSame(thawed.getClasses().get(0), b.getSuperClasses().get(0));
+        ClassStructure c = thawed.getClasses().get(2);
+        assertEquals("", c.getSuperClasses().get(0).getPackage());
+        assertEquals("D", c.getSuperClasses().get(0).getName());
+        assertNull(c.getSuperClasses().get(1).getPackage());
+        assertEquals("E", c.getSuperClasses().get(1).getName());
+        assertEquals(Collections.singletonList(thawed.getInstances().get(1)), c.getInstances());
+        assertEquals("", thawed.getInstances().get(1).getClasses().get(1).getPackage());
+    }
+
+    private static ClassStructure add(ClassDiagram classDiagram, String _package, String name) {
+        ClassStructure classStructure = classStructure(_package, name);
+        classDiagram.addClass(classStructure);
+        return classStructure;
+    }
+
+    private static ClassStructure classStructure(String _package, String name) {
+        ClassStructure classStructure = new ClassStructure();
+        classStructure.setPackage(_package);
+        classStructure.setName(name);
+        classStructure.setVisibility("public");
+        return classStructure;
+    }
+
+    private static ClassInstance instance(String _package, String name, ClassStructure... classes) {
+        ClassInstance classInstance = new ClassInstance();
+        classInstance.set_package(_package);
+        classInstance.setName(name);
+        classInstance.getClasses().addAll(Arrays.asList(classes));
+        return classInstance;
+    }
+
+    private static ClassAttribute attribute(String name) {
+        ClassAttribute attribute = new ClassAttribute();
+        attribute.setName(name);
+        attribute.setType("Integer");
+        attribute.setVisibility("private");
+        return attribute;
+    }
+}
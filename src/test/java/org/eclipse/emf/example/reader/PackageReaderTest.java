@@ -0,0 +1,102 @@
+package org.eclipse.emf.example.reader;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.models._package.PackageStructure;
+import org.eclipse.emf.example.reader.diagram.ClassDiagramReader;
+import org.eclipse.emf.example.reader.type.TypeResolverRegistry;
+import org.eclipse.emf.example.watch.ClassDiagramDiffer;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class PackageReaderTest {
+
+    private static final File MODEL = new File("src/main/resources/model/UML.uml");
+
+    private static final String PRIMITIVE_TYPES = "http://www.omg.org/spec/UML/20131001/PrimitiveTypes.xmi";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void parallelReadEqualsSequentialRead() throws Exception {
+        ModelLoader modelLoader = new ModelLoader();
+        // UML.uml types its properties with the OMG primitive types; unresolved, they would make the
+        // parallel read fall back to a sequential one
+        modelLoader.getResourceSet().getURIConverter().getURIMap()
+                .put(URI.createURI(PRIMITIVE_TYPES), URI.createFileURI(primitiveTypes().getCanonicalPath()));
+
+        Package _package = modelLoader.loadModel(MODEL);
+        String packageName = _package.getName() != null ? _package.getName() : "";
+        ClassDiagram sequential = ClassDiagramReader.getRefModelDetails(
+                PackageReader.readPackage(_package.getPackagedElements(), packageName));
+        modelLoader.release(_package);
+
+        // a fresh copy, so that the parallel read does not profit from the sequential one
+        _package = modelLoader.loadModel(MODEL);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ExtractionContext context = new ExtractionContext(TypeResolverRegistry.getDefault(), true);
+            PackageStructure packageStructure = PackageReader.readPackage(_package, packageName, pool, context);
+            ClassDiagram parallel = ClassDiagramReader.getRefModelDetails(packageStructure);
+
+            assertFalse(context.isReadSequentially());
+            assertFalse(sequential.getClasses().isEmpty());
+            assertEquals(names(sequential), names(parallel));
+            assertTrue(ClassDiagramDiffer.diff(sequential, parallel).isEmpty());
+        } finally {
+            pool.shutdown();
+            modelLoader.release(_package);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelReadRejectsContextForOneThread() throws Exception {
+        ModelLoader modelLoader = new ModelLoader();
+        Package _package = modelLoader.loadModel(MODEL);
+        try {
+            PackageReader.readPackage(_package, "", ForkJoinPool.commonPool(), new ExtractionContext());
+        } finally {
+            modelLoader.release(_package);
+        }
+    }
+
+    /**
+     * @return the primitive types UML.uml refers to, under the ids of the OMG file
+     */
+    private File primitiveTypes() throws Exception {
+        File file = folder.newFile("PrimitiveTypes.uml");
+        StringBuilder xmi = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<uml:Package xmi:version=\"20131001\" xmlns:xmi=\"http://www.omg.org/spec/XMI/20131001\"")
+                .append(" xmlns:uml=\"http://www.eclipse.org/uml2/5.0.0/UML\" xmi:id=\"_0\" name=\"PrimitiveTypes\">\n");
+        for (String name : new String[]{"Boolean", "Integer", "Real", "String", "UnlimitedNatural"}) {
+            xmi.append("  <packagedElement xmi:type=\"uml:PrimitiveType\" xmi:id=\"").append(name)
+                    .append("\" name=\"").append(name).append("\"/>\n");
+        }
+        xmi.append("</uml:Package>\n");
+        Files.write(file.toPath(), xmi.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> names(ClassDiagram classDiagram) {
+        List<String> names = new ArrayList<>();
+        for (ClassStructure classStructure : classDiagram.getClasses()) {
+            names.add(classStructure.getPackage() + "." + classStructure.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,100 @@
+package org.eclipse.emf.example.reader.diagram;
+
+import org.eclipse.emf.example.loader.ModelLoader;
+import org.eclipse.emf.example.models._class.ClassDiagram;
+import org.eclipse.emf.example.models._class.ClassInstance;
+import org.eclipse.emf.example.models._class.ClassStructure;
+import org.eclipse.emf.example.models._class.InstanceAttribute;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.eclipse.emf.example.util.QualifiedNames;
+import org.eclipse.emf.example.watch.ClassDiagramDiffer;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StreamingClassDiagramReaderTest {
+
+    private static final File MODEL = new File("src/main/resources/model/UML.uml");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsTheSameDiagramAsClassDiagramReader() throws Exception {
+        ModelLoader modelLoader = new ModelLoader();
+        Package _package = modelLoader.loadModel(MODEL);
+        ClassDiagram expected;
+        try {
+            expected = ClassDiagramReader.getRefModelDetails(_package);
+        } finally {
+            modelLoader.release(_package);
+        }
+
+        ClassDiagram streamed = StreamingClassDiagramReader.getRefModelDetails(MODEL);
+
+        assertFalse(expected.getClasses().isEmpty());
+        assertEquals(classNames(expected), classNames(streamed));
+        assertEquals(enumerationNames(expected), enumerationNames(streamed));
+        assertEquals(instanceNames(expected), instanceNames(streamed));
+        assertTrue(ClassDiagramDiffer.diff(expected, streamed).isEmpty());
+    }
+
+    @Test
+    public void slotOfAPropertyTypedByAnActorHasNoType() throws Exception {
+        File model = folder.newFile("Actor.uml");
+        String xmi = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<uml:Model xmi:version=\"20131001\" xmlns:xmi=\"http://www.omg.org/spec/XMI/20131001\""
+                + " xmlns:uml=\"http://www.eclipse.org/uml2/5.0.0/UML\" xmi:id=\"m\" name=\"m\">\n"
+                + "  <packagedElement xmi:type=\"uml:Actor\" xmi:id=\"user\" name=\"User\"/>\n"
+                + "  <packagedElement xmi:type=\"uml:Class\" xmi:id=\"session\" name=\"Session\">\n"
+                + "    <ownedAttribute xmi:id=\"session-owner\" name=\"owner\" type=\"user\"/>\n"
+                + "  </packagedElement>\n"
+                + "  <packagedElement xmi:type=\"uml:InstanceSpecification\" xmi:id=\"s1\" name=\"s1\""
+                + " classifier=\"session\">\n"
+                + "    <slot xmi:id=\"s1-owner\" definingFeature=\"session-owner\"/>\n"
+                + "  </packagedElement>\n"
+                + "</uml:Model>\n";
+        Files.write(model.toPath(), xmi.getBytes(StandardCharsets.UTF_8));
+
+        ClassDiagram classDiagram = StreamingClassDiagramReader.getRefModelDetails(model);
+
+        assertEquals(1, classDiagram.getInstances().size());
+        List<InstanceAttribute> attributes = classDiagram.getInstances().get(0).getAttributes();
+        assertEquals(1, attributes.size());
+        assertEquals("owner", attributes.get(0).getName());
+        assertNull(attributes.get(0).getType());
+    }
+
+    private static List<String> classNames(ClassDiagram classDiagram) {
+        List<String> names = new ArrayList<>();
+        for (ClassStructure classStructure : classDiagram.getClasses()) {
+            names.add(QualifiedNames.of(classStructure.getPackage(), classStructure.getName()));
+        }
+        return names;
+    }
+
+    private static List<String> enumerationNames(ClassDiagram classDiagram) {
+        List<String> names = new ArrayList<>();
+        for (EnumStructure enumStructure : classDiagram.getEnumerations()) {
+            names.add(QualifiedNames.of(enumStructure.getPackage(), enumStructure.getName()));
+        }
+        return names;
+    }
+
+    private static List<String> instanceNames(ClassDiagram classDiagram) {
+        List<String> names = new ArrayList<>();
+        for (ClassInstance classInstance : classDiagram.getInstances()) {
+            names.add(QualifiedNames.of(classInstance.get_package(), classInstance.getName()));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,156 @@
+package org.eclipse.emf.example.watch;
+
+import org.eclipse.emf.example.models._class.*;
+import org.eclipse.emf.example.models._diff.ClassChange;
+import org.eclipse.emf.example.models._diff.ClassDiagramDiff;
+import org.eclipse.emf.example.models._enum.EnumStructure;
+import org.eclipse.emf.example.util.Keywords;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ClassDiagramDifferTest {
+
+    /**
+     * p.A with an attribute, an operation and an association to p.B; p.B extends the root class R; R;
+     * enumeration p.K.
+     */
+    private static ClassDiagram diagram() {
+        ClassDiagram classDiagram = new ClassDiagram();
+        ClassStructure a = add(classDiagram, "p", "A");
+        a.addAttribute(attribute("size", "Integer"));
+        a.addOperation(operation("run", "String"));
+        ClassRelation relation = new ClassRelation();
+        relation.setType(Keywords.Association);
+        relation.setClass_1("A");
+        relation.setClass_2("B");
+        relation.setNavigable_2(true);
+        a.addRelationship(relation);
+
+        ClassStructure root = add(classDiagram, null, "R");
+        ClassStructure b = add(classDiagram, "p", "B");
+        b.addSuperClass(root);
+
+        EnumStructure k = new EnumStructure();
+        k.setPackage("p");
+        k.setName("K");
+        k.addLiteral("ONE");
+        classDiagram.addEnumeration(k);
+        return classDiagram;
+    }
+
+    @Test
+    public void equalDiagramsHaveNoDifferences() {
+        assertTrue(ClassDiagramDiffer.diff(diagram(), diagram()).isEmpty());
+    }
+
+    @Test
+    public void rootClassesMatchWhateverTheirEmptyPackage() {
+        ClassDiagram after = diagram();
+        after.getClasses().get(1).setPackage("");
+        after.getClasses().get(2).getSuperClasses().get(0).setPackage("");
+
+        assertTrue(ClassDiagramDiffer.diff(diagram(), after).isEmpty());
+    }
+
+    @Test
+    public void addedAndRemovedClasses() {
+        ClassDiagram after = diagram();
+        after.getClasses().remove(2);
+        add(after, "q", "C");
+
+        ClassDiagramDiff diff = ClassDiagramDiffer.diff(diagram(), after);
+        assertEquals(1, diff.getAddedClasses().size());
+        assertEquals("C", diff.getAddedClasses().get(0).getName());
+        assertEquals(1, diff.getRemovedClasses().size());
+        assertEquals("B", diff.getRemovedClasses().get(0).getName());
+        assertTrue(diff.getChangedClasses().isEmpty());
+
+        ClassDiagramDiff reverse = ClassDiagramDiffer.diff(after, diagram());
+        assertEquals("B", reverse.getAddedClasses().get(0).getName());
+        assertEquals("C", reverse.getRemovedClasses().get(0).getName());
+    }
+
+    @Test
+    public void changedClassMembers() {
+        ClassDiagram after = diagram();
+        ClassStructure a = after.getClasses().get(0);
+        a.getAttributes().get(0).setType("Long");
+        a.addAttribute(attribute("name", "String"));
+        a.getOperations().clear();
+        a.addOperation(operation("stop", null));
+        a.getRelationships().get(0).setNavigable_2(false);
+
+        ClassDiagramDiff diff = ClassDiagramDiffer.diff(diagram(), after);
+        assertTrue(diff.getAddedClasses().isEmpty());
+        assertTrue(diff.getRemovedClasses().isEmpty());
+        assertEquals(1, diff.getChangedClasses().size());
+
+        ClassChange change = diff.getChangedClasses().get(0);
+        assertSame(a, change.getAfter());
+        assertFalse(change.isDeclarationChanged());
+        assertEquals(Collections.singletonList(a.getAttributes().get(1)), change.getAddedAttributes());
+        assertEquals(Collections.singletonList(a.getAttributes().get(0)), change.getChangedAttributes());
+        assertTrue(change.getRemovedAttributes().isEmpty());
+        assertEquals("stop", change.getAddedOperations().get(0).getName());
+        assertEquals("run", change.getRemovedOperations().get(0).getName());
+        assertEquals(1, change.getAddedRelations().size());
+        assertEquals(1, change.getRemovedRelations().size());
+    }
+
+    @Test
+    public void changedDeclaration() {
+        ClassDiagram after = diagram();
+        after.getClasses().get(2).getSuperClasses().clear();
+        after.getClasses().get(1).setAbstract(true);
+
+        ClassDiagramDiff diff = ClassDiagramDiffer.diff(diagram(), after);
+        assertEquals(2, diff.getChangedClasses().size());
+        for (ClassChange change : diff.getChangedClasses()) {
+            assertTrue(change.isDeclarationChanged());
+            assertTrue(change.getAddedAttributes().isEmpty());
+        }
+    }
+
+    @Test
+    public void changedEnumerations() {
+        ClassDiagram after = diagram();
+        after.getEnumerations().get(0).addLiteral("TWO");
+        EnumStructure l = new EnumStructure();
+        l.setName("L");
+        after.addEnumeration(l);
+
+        ClassDiagramDiff diff = ClassDiagramDiffer.diff(diagram(), after);
+        assertEquals(1, diff.getChangedEnumerations().size());
+        assertEquals(Collections.singletonList(l), diff.getAddedEnumerations());
+        assertTrue(diff.getRemovedEnumerations().isEmpty());
+        assertTrue(diff.getChangedClasses().isEmpty());
+    }
+
+    private static ClassStructure add(ClassDiagram classDiagram, String _package, String name) {
+        ClassStructure classStructure = new ClassStructure();
+        classStructure.setPackage(_package);
+        classStructure.setName(name);
+        classStructure.setVisibility("public");
+        classDiagram.addClass(classStructure);
+        return classStructure;
+    }
+
+    private static ClassAttribute attribute(String name, String type) {
+        ClassAttribute attribute = new ClassAttribute();
+        attribute.setName(name);
+        attribute.setType(type);
+        attribute.setVisibility("private");
+        return attribute;
+    }
+
+    private static ClassOperation operation(String name, String returnType) {
+        ClassOperation operation = new ClassOperation();
+        operation.setName(name);
+        operation.setVisibility("public");
+        operation.setReturnType(returnType != null ? new OperationReturn(returnType) : null);
+        return operation;
+    }
+}